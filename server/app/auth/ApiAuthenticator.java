@@ -7,7 +7,6 @@ import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import models.ApiKeyModel;
-import org.apache.commons.net.util.SubnetUtils;
 import org.pac4j.core.context.CallContext;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.credentials.Credentials;
@@ -30,6 +29,10 @@ import services.apikey.ApiKeyService;
  * perform authentication (this step). The purpose of the cache is to avoid making multiple database
  * calls to retrieve the API key throughout the cycle of the request.
  *
+ * <p>The key's parsed subnets and its last verified secret are cached separately by {@link
+ * ApiKeyCredentialCache}, so that repeated requests with the same key don't need to parse the
+ * subnets or salt the secret again.
+ *
  * <p>Note that at this layer, the request is authenticated, not authorized. All API requests that
  * reach a controller are already authenticated, but it is the controller's responsibility to check
  * that the resource being accessed is authorized for the request's API key.
@@ -51,12 +54,16 @@ public class ApiAuthenticator implements Authenticator {
   private static final Logger logger = LoggerFactory.getLogger(ApiAuthenticator.class);
   private final Provider<ApiKeyService> apiKeyService;
   private final ClientIpResolver clientIpResolver;
+  private final ApiKeyCredentialCache credentialCache;
 
   @Inject
   public ApiAuthenticator(
-      Provider<ApiKeyService> apiKeyService, ClientIpResolver clientIpResolver) {
+      Provider<ApiKeyService> apiKeyService,
+      ClientIpResolver clientIpResolver,
+      ApiKeyCredentialCache credentialCache) {
     this.apiKeyService = checkNotNull(apiKeyService);
     this.clientIpResolver = clientIpResolver;
+    this.credentialCache = checkNotNull(credentialCache);
   }
 
   /**
@@ -98,7 +105,7 @@ public class ApiAuthenticator implements Authenticator {
     }
 
     String resolvedIp = clientIpResolver.resolveClientIp((PlayWebContext) context.webContext());
-    if (!isAllowedIp(apiKey, resolvedIp)) {
+    if (!credentialCache.isAllowedIp(apiKey, resolvedIp)) {
       throwUnauthorized(
           context.webContext(),
           String.format(
@@ -106,24 +113,13 @@ public class ApiAuthenticator implements Authenticator {
               resolvedIp, keyId, String.join(",", apiKey.getSubnetSet())));
     }
 
-    String saltedCredentialsSecret = apiKeyService.get().salt(credentials.getPassword());
-    if (!saltedCredentialsSecret.equals(apiKey.getSaltedKeySecret())) {
+    if (!credentialCache.isValidSecret(apiKey, credentials.getPassword())) {
       throwUnauthorized(context.webContext(), "Invalid secret for key ID: " + keyId);
     }
 
     return Optional.of(rawCredentials);
   }
 
-  private boolean isAllowedIp(ApiKeyModel apiKey, String clientIp) {
-    return apiKey.getSubnetSet().stream()
-        .map(SubnetUtils::new)
-        // Setting this to true includes the network and broadcast addresses.
-        // I.e. /31 and /32 will not be considered included in the subnetwork
-        // if this is false.
-        .peek(allowedSubnet -> allowedSubnet.setInclusiveHostCount(true))
-        .anyMatch(allowedSubnet -> allowedSubnet.getInfo().isInRange(clientIp));
-  }
-
   private void throwUnauthorized(WebContext context, String cause) {
     logger.warn(
         String.format(
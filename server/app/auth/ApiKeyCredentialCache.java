@@ -0,0 +1,87 @@
+package auth;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import models.ApiKeyModel;
+import play.cache.NamedCache;
+import play.cache.SyncCacheApi;
+import services.apikey.ApiKeyService;
+
+/**
+ * Caches what {@link ApiAuthenticator} derives from each {@link ApiKeyModel}, so that repeated
+ * requests with the same key skip the expensive parts of authenticating them.
+ *
+ * <p>Entries are stored in the "api-key-credentials" named cache, keyed by key ID, and hold the
+ * key's allowed subnets already parsed into {@link Ipv4Subnet}s, and a SHA-256 digest of the last
+ * secret that was verified against the key's salted secret. A request presenting a secret with the
+ * same digest is accepted without salting it again. Entries are removed from every server instance
+ * when the key is retired.
+ */
+@Singleton
+public final class ApiKeyCredentialCache {
+
+  // Matches the expiration of the "api-keys" cache in ApiKeyService.
+  private static final int CACHE_EXPIRATION_TIME_SECONDS = 600;
+
+  private final SyncCacheApi credentialCache;
+  private final Provider<ApiKeyService> apiKeyService;
+
+  @Inject
+  public ApiKeyCredentialCache(
+      @NamedCache("api-key-credentials") SyncCacheApi credentialCache,
+      Provider<ApiKeyService> apiKeyService) {
+    this.credentialCache = checkNotNull(credentialCache);
+    this.apiKeyService = checkNotNull(apiKeyService);
+  }
+
+  /** Whether {@code clientIp} is in one of the subnets {@code apiKey} allows calls from. */
+  public boolean isAllowedIp(ApiKeyModel apiKey, String clientIp) {
+    for (Ipv4Subnet subnet : getCredentials(apiKey).allowedSubnets()) {
+      if (subnet.contains(clientIp)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether {@code secret} salts to the salted key secret of {@code apiKey}. */
+  public boolean isValidSecret(ApiKeyModel apiKey, String secret) {
+    CachedCredentials credentials = getCredentials(apiKey);
+    HashCode secretDigest = Hashing.sha256().hashString(secret, StandardCharsets.UTF_8);
+    if (credentials.verifiedSecretDigest().filter(secretDigest::equals).isPresent()) {
+      return true;
+    }
+
+    if (!apiKeyService.get().salt(secret).equals(apiKey.getSaltedKeySecret())) {
+      return false;
+    }
+    credentialCache.set(
+        apiKey.getKeyId(),
+        new CachedCredentials(credentials.allowedSubnets(), Optional.of(secretDigest)),
+        CACHE_EXPIRATION_TIME_SECONDS);
+    return true;
+  }
+
+  private CachedCredentials getCredentials(ApiKeyModel apiKey) {
+    return credentialCache.getOrElseUpdate(
+        apiKey.getKeyId(),
+        () ->
+            new CachedCredentials(
+                apiKey.getSubnetSet().stream()
+                    .map(Ipv4Subnet::parse)
+                    .collect(ImmutableList.toImmutableList()),
+                /* verifiedSecretDigest= */ Optional.empty()),
+        CACHE_EXPIRATION_TIME_SECONDS);
+  }
+
+  private record CachedCredentials(
+      ImmutableList<Ipv4Subnet> allowedSubnets, Optional<HashCode> verifiedSecretDigest) {}
+}
@@ -0,0 +1,68 @@
+package auth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An IPv4 address range in CIDR notation, e.g. "10.1.1.0/24", held as integer masks so that
+ * checking whether an address is in it doesn't allocate.
+ *
+ * <p>Like {@link org.apache.commons.net.util.SubnetUtils} with an inclusive host count, the range
+ * includes its network and broadcast addresses.
+ */
+final class Ipv4Subnet {
+
+  private final int network;
+  private final int mask;
+
+  private Ipv4Subnet(int network, int mask) {
+    this.network = network;
+    this.mask = mask;
+  }
+
+  /**
+   * Parses a range in CIDR notation. Throws an {@link IllegalArgumentException} if it is not a
+   * valid IPv4 range.
+   */
+  static Ipv4Subnet parse(String cidr) {
+    int slash = cidr.indexOf('/');
+    checkArgument(slash > 0, "Could not parse [%s]", cidr);
+    int prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+    checkArgument(prefixLength >= 0 && prefixLength <= 32, "Could not parse [%s]", cidr);
+    // Shifting an int by 32 leaves it unchanged, so a /0 range needs its own case.
+    int mask = prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+    return new Ipv4Subnet(parseAddress(cidr.substring(0, slash)) & mask, mask);
+  }
+
+  /**
+   * Whether {@code address} is in this range. Throws an {@link IllegalArgumentException} if it is
+   * not a valid IPv4 address.
+   */
+  boolean contains(String address) {
+    return (parseAddress(address) & mask) == network;
+  }
+
+  /** Parses a dotted-decimal IPv4 address into the 32 bits of an int. */
+  static int parseAddress(String address) {
+    int result = 0;
+    int octet = 0;
+    int digits = 0;
+    int dots = 0;
+    for (int i = 0; i < address.length(); i++) {
+      char c = address.charAt(i);
+      if (c == '.' && digits > 0 && dots < 3) {
+        result = (result << 8) | octet;
+        octet = 0;
+        digits = 0;
+        dots++;
+      } else if (c >= '0' && c <= '9' && digits < 3) {
+        octet = octet * 10 + (c - '0');
+        digits++;
+      } else {
+        throw new IllegalArgumentException(String.format("Could not parse [%s]", address));
+      }
+      checkArgument(octet <= 255, "Could not parse [%s]", address);
+    }
+    checkArgument(digits > 0 && dots == 3, "Could not parse [%s]", address);
+    return (result << 8) | octet;
+  }
+}
@@ -26,6 +26,10 @@ import java.util.Optional;
 import java.util.concurrent.CompletionException;
 import javax.inject.Inject;
 import models.ApplicationModel;
+import models.ApplicationSummaryModel;
+import org.apache.pekko.NotUsed;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
 import org.pac4j.play.java.Secure;
 import play.data.Form;
 import play.data.FormFactory;
@@ -205,8 +209,9 @@ public final class AdminApplicationController extends CiviFormController {
       ProgramDefinition program = programService.getFullProgramDefinition(programId);
       checkProgramAdminAuthorization(request, program.adminName()).join();
       String filename = String.format("%s-%s.csv", program.adminName(), nowProvider.get());
-      String csv = exporterService.getProgramAllVersionsCsv(programId, filters);
-      return ok(csv)
+      Source<ByteString, NotUsed> csv =
+          exporterService.streamProgramAllVersionsCsv(programId, filters);
+      return ok().chunked(csv)
           .as(Http.MimeTypes.BINARY)
           .withHeader(
               "Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
@@ -498,8 +503,8 @@ public final class AdminApplicationController extends CiviFormController {
             PAGE_SIZE_BULK_STATUS,
             page.orElse(1),
             PageNumberPaginationSpec.OrderByEnum.SUBMIT_TIME);
-    PaginationResult<ApplicationModel> applications =
-        programService.getSubmittedProgramApplicationsAllVersions(
+    PaginationResult<ApplicationSummaryModel> applications =
+        programService.getSubmittedProgramApplicationSummariesAllVersions(
             programId, paginationSpec, filters);
     return ok(
         tableView.render(
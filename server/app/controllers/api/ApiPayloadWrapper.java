@@ -7,8 +7,14 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Optional;
 import javax.inject.Inject;
+import org.apache.pekko.NotUsed;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
 
-/** A util class that wraps a JSON string inside a container object with a nextPageToken. */
+/**
+ * A util class that wraps a JSON string, or a stream of JSON bytes, inside a container object with
+ * a nextPageToken.
+ */
 public final class ApiPayloadWrapper {
 
   private final ApiPaginationTokenSerializer apiPaginationTokenSerializer;
@@ -52,4 +58,38 @@ public final class ApiPayloadWrapper {
 
     return writer.toString();
   }
+
+  /**
+   * Wraps a streamed payload in another layer of JSON, like {@link #wrapPayload(String,
+   * Optional)}, without buffering the payload. The envelope is emitted before and after the
+   * payload bytes as they pass through.
+   *
+   * @param payload a source emitting the bytes of a single JSON value
+   * @param paginationTokenPayload the pagination token to include with the payload
+   * @return a source emitting the bytes of the wrapped payload and pagination token
+   */
+  public Source<ByteString, NotUsed> wrapPayload(
+      Source<ByteString, NotUsed> payload,
+      Optional<ApiPaginationTokenPayload> paginationTokenPayload) {
+    var suffix = ByteString.createBuilder();
+
+    try (var jsonGenerator = new JsonFactory().createGenerator(suffix.asOutputStream())) {
+      // The generator starts in the root context, so the separator and field name of the
+      // enclosing object are written as raw text.
+      jsonGenerator.writeRaw(",\"nextPageToken\":");
+      if (paginationTokenPayload.isPresent()) {
+        jsonGenerator.writeString(
+            apiPaginationTokenSerializer.serialize(paginationTokenPayload.get()));
+      } else {
+        jsonGenerator.writeNull();
+      }
+      jsonGenerator.writeRaw('}');
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+
+    return Source.single(ByteString.fromString("{\"payload\":"))
+        .concat(payload)
+        .concat(Source.single(suffix.result()));
+  }
 }
@@ -11,10 +11,14 @@ import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import javax.annotation.Nullable;
 import models.ApplicationModel;
+import org.apache.pekko.NotUsed;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
 import play.libs.concurrent.ClassLoaderExecutionContext;
 import play.mvc.Http;
 import play.mvc.Result;
@@ -22,6 +26,7 @@ import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
 import repository.VersionRepository;
 import services.DateConverter;
+import services.export.ExportConcurrencyLimiter;
 import services.export.JsonExporterService;
 import services.pagination.PaginationResult;
 import services.pagination.RowIdSequentialAccessPaginationSpec;
@@ -34,10 +39,13 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
   public static final String PROGRAM_SLUG_PARAM_NAME = "programSlug";
   public static final String FROM_DATE_PARAM_NAME = "fromDate";
   public static final String UNTIL_DATE_PARAM_NAME = "toDate";
+  // How long clients are asked to wait before retrying when too many exports are in progress.
+  private static final int EXPORT_RETRY_AFTER_SECONDS = 5;
   private final DateConverter dateConverter;
   private final ProgramService programService;
   private final ClassLoaderExecutionContext classLoaderExecutionContext;
   private final JsonExporterService jsonExporterService;
+  private final ExportConcurrencyLimiter exportConcurrencyLimiter;
   private final int maxPageSize;
 
   @Inject
@@ -50,12 +58,14 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
       ClassLoaderExecutionContext classLoaderExecutionContext,
       ProgramService programService,
       VersionRepository versionRepository,
+      ExportConcurrencyLimiter exportConcurrencyLimiter,
       Config config) {
     super(apiPaginationTokenSerializer, apiPayloadWrapper, profileUtils, versionRepository);
     this.dateConverter = checkNotNull(dateConverter);
     this.classLoaderExecutionContext = checkNotNull(classLoaderExecutionContext);
     this.jsonExporterService = checkNotNull(jsonExporterService);
     this.programService = checkNotNull(programService);
+    this.exportConcurrencyLimiter = checkNotNull(exportConcurrencyLimiter);
     this.maxPageSize = checkNotNull(config).getInt("civiform_api_applications_list_max_page_size");
   }
 
@@ -98,26 +108,40 @@ public final class ProgramApplicationsApiController extends CiviFormApiControlle
             .map(this::createPaginationSpec)
             .orElse(new RowIdSequentialAccessPaginationSpec(pageSize, Long.MAX_VALUE));
 
-    return programService
-        .getActiveFullProgramDefinitionAsync(programSlug)
+    if (!exportConcurrencyLimiter.tryAcquire()) {
+      return CompletableFuture.completedFuture(
+          status(TOO_MANY_REQUESTS)
+              .withHeader(RETRY_AFTER, String.valueOf(EXPORT_RETRY_AFTER_SECONDS)));
+    }
+
+    // The export holds its permit only while its page is loaded from the database. The response
+    // body is streamed after that, and Play may never run it, for example if the client
+    // disconnects first, so the permit is never tied to the stream.
+    return CompletableFuture.completedFuture(programSlug)
+        .thenCompose(programService::getActiveFullProgramDefinitionAsync)
         .thenApplyAsync(
             programDefinition -> {
               PaginationResult<ApplicationModel> paginationResult =
-                  programService.getSubmittedProgramApplicationsAllVersions(
+                  programService.getSubmittedProgramApplicationsAllVersionsWithoutCount(
                       programDefinition.id(), paginationSpec, filters);
 
-              String applicationsJson =
-                  jsonExporterService.exportPage(programDefinition, paginationResult);
+              // Stream the response so that each application is serialized as it is written,
+              // rather than holding the whole page of JSON in memory. The first application is
+              // serialized here, so a page that can't be exported fails with an error status
+              // instead of a 200 with a truncated body.
+              Source<ByteString, NotUsed> applicationsJson =
+                  jsonExporterService.streamPage(programDefinition, paginationResult);
 
-              String responseJson =
+              Source<ByteString, NotUsed> responseJson =
                   apiPayloadWrapper.wrapPayload(
                       applicationsJson,
                       getNextPageToken(
                           paginationResult, programSlug, pageSize, filters.submitTimeFilter()));
 
-              return ok(responseJson).as("application/json");
+              return ok().chunked(responseJson).as("application/json");
             },
             classLoaderExecutionContext.current())
+        .whenComplete((result, ex) -> exportConcurrencyLimiter.release())
         .exceptionally(
             ex -> {
               if (ex instanceof CompletionException) {
@@ -26,6 +26,7 @@ import play.cache.NamedCache;
 import play.mvc.Controller;
 import play.mvc.Http.Request;
 import play.mvc.Result;
+import repository.ActiveVersionHolder;
 import services.program.ActiveAndDraftPrograms;
 import services.program.ProgramService;
 import services.question.QuestionService;
@@ -50,6 +51,8 @@ public class DevToolsController extends Controller {
   private final AsyncCacheApi programCache;
   private final AsyncCacheApi programDefCache;
   private final AsyncCacheApi versionsByProgramCache;
+  private final AsyncCacheApi exportPlanCache;
+  private final ActiveVersionHolder activeVersionHolder;
   private final Clock clock;
 
   @Inject
@@ -65,7 +68,9 @@ public class DevToolsController extends Controller {
       @NamedCache("version-programs") AsyncCacheApi programsByVersionCache,
       @NamedCache("program") AsyncCacheApi programCache,
       @NamedCache("full-program-definition") AsyncCacheApi programDefCache,
-      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache) {
+      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache,
+      @NamedCache("json-export-plan") AsyncCacheApi exportPlanCache,
+      ActiveVersionHolder activeVersionHolder) {
     this.devDatabaseSeedTask = checkNotNull(devDatabaseSeedTask);
     this.view = checkNotNull(view);
     this.database = DB.getDefault();
@@ -78,6 +83,8 @@ public class DevToolsController extends Controller {
     this.programCache = checkNotNull(programCache);
     this.programDefCache = checkNotNull(programDefCache);
     this.versionsByProgramCache = checkNotNull(versionsByProgramCache);
+    this.exportPlanCache = checkNotNull(exportPlanCache);
+    this.activeVersionHolder = checkNotNull(activeVersionHolder);
     this.clock = checkNotNull(clock);
   }
 
@@ -220,6 +227,7 @@ public class DevToolsController extends Controller {
     }
     if (settingsManifest.getQuestionCacheEnabled()) {
       programDefCache.removeAll().toCompletableFuture().join();
+      exportPlanCache.removeAll().toCompletableFuture().join();
     }
   }
 
@@ -227,6 +235,7 @@ public class DevToolsController extends Controller {
     Models.truncate(database);
     VersionModel newActiveVersion = new VersionModel(LifecycleStage.ACTIVE);
     newActiveVersion.save();
+    activeVersionHolder.invalidate();
     settingsService.migrateConfigValuesToSettingsGroup();
   }
 }
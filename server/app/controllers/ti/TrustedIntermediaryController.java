@@ -13,7 +13,6 @@ import controllers.BadRequestException;
 import forms.TiClientInfoForm;
 import java.util.Optional;
 import javax.inject.Inject;
-import models.AccountModel;
 import models.TrustedIntermediaryGroupModel;
 import org.pac4j.play.java.Secure;
 import play.data.Form;
@@ -26,7 +25,6 @@ import repository.SearchParameters;
 import services.applicant.ApplicantPersonalInfo;
 import services.applicant.ApplicantPersonalInfo.Representation;
 import services.applicant.exception.ApplicantNotFoundException;
-import services.pagination.PaginationInfo;
 import services.ti.AddNewApplicantReturnObject;
 import services.ti.TrustedIntermediarySearchResult;
 import services.ti.TrustedIntermediaryService;
@@ -97,12 +95,14 @@ public final class TrustedIntermediaryController {
             .setYearQuery(yearQuery)
             .build();
     TrustedIntermediarySearchResult trustedIntermediarySearchResult =
-        tiService.getManagedAccounts(searchParameters, trustedIntermediaryGroup.get());
+        tiService.getManagedAccounts(
+            searchParameters, trustedIntermediaryGroup.get(), PAGE_SIZE, page.get());
     if (!trustedIntermediarySearchResult.isSuccessful()) {
       throw new BadRequestException(trustedIntermediarySearchResult.errorMessage().get());
     }
-    PaginationInfo<AccountModel> pageInfo =
-        PaginationInfo.paginate(trustedIntermediarySearchResult.accounts(), PAGE_SIZE, page.get());
+    // Display 1 page (which is empty) if there are no accounts.
+    int totalPageCount =
+        Math.max(1, (trustedIntermediarySearchResult.totalCount() + PAGE_SIZE - 1) / PAGE_SIZE);
 
     Optional<String> applicantName =
         civiformProfile.getApplicant().join().getApplicantDisplayName();
@@ -112,9 +112,9 @@ public final class TrustedIntermediaryController {
             /* tiGroup= */ trustedIntermediaryGroup.get(),
             /* personalInfo= */ ApplicantPersonalInfo.ofLoggedInUser(
                 Representation.builder().setName(applicantName).build()),
-            /* managedAccounts= */ pageInfo.getPageItems(),
-            /* totalPageCount= */ pageInfo.getPageCount(),
-            /* page= */ pageInfo.getPage(),
+            /* managedAccounts= */ trustedIntermediarySearchResult.accounts(),
+            /* totalPageCount= */ totalPageCount,
+            /* page= */ page.get(),
             /* searchParameters= */ searchParameters,
             /* request= */ request,
             /* messages= */ messagesApi.preferred(request),
@@ -1,20 +1,27 @@
 package durablejobs;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
 import com.typesafe.config.Config;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.Transaction;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 import javax.inject.Provider;
 import models.PersistedDurableJobModel;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -27,11 +34,39 @@ import services.email.EmailSendClient;
  *
  * <p>AbstractDurableJobRunner children should be singletons and its {@code runJobs} method is
  * {@code synchronized} to prevent overlapping executions within the same server at the same time.
+ *
+ * <p>Jobs are leased by locking their rows with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so
+ * several workers, on this server or others, never run the same job at once. By default a single
+ * worker runs jobs one at a time. Setting "durable_jobs.worker_count" runs that many workers on the
+ * {@link DurableJobExecutionContext}, so that a long job doesn't hold up the others.
  */
 public abstract class AbstractDurableJobRunner {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDurableJobRunner.class);
 
+  private static final Gauge QUEUE_DEPTH_GAUGE =
+      Gauge.build()
+          .name("durable_job_queue_depth")
+          .help("Number of durable jobs that are ready to run or running")
+          .labelNames("job_name")
+          .register();
+
+  private static final Histogram WAIT_TIME_HISTOGRAM =
+      Histogram.build()
+          .name("durable_job_wait_seconds")
+          .help("Time from when a durable job was due to run until a worker started it")
+          .labelNames("job_name")
+          .buckets(1, 5, 30, 60, 300, 900, 3600, 21600)
+          .register();
+
+  private static final Histogram RUN_TIME_HISTOGRAM =
+      Histogram.build()
+          .name("durable_job_run_seconds")
+          .help("Time taken to run a durable job")
+          .labelNames("job_name", "result")
+          .buckets(0.1, 1, 10, 60, 300, 900, 1800, 3600)
+          .register();
+
   private final String hostName;
   private final Database database = DB.getDefault();
   private final DurableJobExecutionContext durableJobExecutionContext;
@@ -41,6 +76,8 @@ public abstract class AbstractDurableJobRunner {
   private final Provider<LocalDateTime> nowProvider;
   private final EmailSendClient emailSendClient;
   private final ZoneOffset zoneOffset;
+  private final int workerCount;
+  private final Set<String> reportedJobNames = new HashSet<>();
 
   public AbstractDurableJobRunner(
       Config config,
@@ -62,6 +99,34 @@ public abstract class AbstractDurableJobRunner {
     this.emailSendClient = Preconditions.checkNotNull(emailSendClient);
     this.nowProvider = Preconditions.checkNotNull(nowProvider);
     this.zoneOffset = zoneId.getRules().getOffset(nowProvider.get());
+    this.workerCount = resolveWorkerCount(config);
+  }
+
+  /**
+   * Each worker blocks a thread of the {@link DurableJobExecutionContext} while the job it is
+   * running uses another, so there can only be half as many workers as threads.
+   */
+  private static int resolveWorkerCount(Config config) {
+    int configuredWorkerCount =
+        config.hasPath("durable_jobs.worker_count")
+            ? config.getInt("durable_jobs.worker_count")
+            : 1;
+    if (configuredWorkerCount <= 1
+        || !config.hasPath("durable_jobs.dispatcher.thread-pool-executor.fixed-pool-size")) {
+      return 1;
+    }
+    int maxWorkerCount =
+        Math.max(
+            1, config.getInt("durable_jobs.dispatcher.thread-pool-executor.fixed-pool-size") / 2);
+    if (configuredWorkerCount > maxWorkerCount) {
+      LOGGER.warn(
+          "Running {} durable job workers rather than {}, since each needs two threads. Increase"
+              + " DURABLE_JOBS_THREAD_POOL_SIZE to run more.",
+          maxWorkerCount,
+          configuredWorkerCount);
+      return maxWorkerCount;
+    }
+    return configuredWorkerCount;
   }
 
   /** Get the job to run or an empty optional if one does not exist */
@@ -70,33 +135,72 @@ public abstract class AbstractDurableJobRunner {
   /** Determines if the provided job, if it exists, is allowed to be run. */
   abstract boolean canRun(Optional<PersistedDurableJobModel> maybeJobToRun);
 
+  /** Get the number of jobs that are ready to run or running, by job name. */
+  abstract ImmutableMap<String, Integer> getQueueDepths();
+
   /**
    * Queries for durable jobs that are ready to run and executes them.
    *
    * <p>Continues executing jobs as long as there are jobs to execute and it does not exceed the
    * time specified by "durable_jobs.poll_interval_seconds". This is to prevent runners attempting
-   * to run at the same time in the same server.
+   * to run at the same time in the same server. With more than one worker, returns once every
+   * worker has stopped.
    *
    * <p>{@code synchronized} to avoid overlapping executions within the same server.
    */
   public synchronized void runJobs() {
-    LOGGER.info("JobRunner_Start thread ID={}", Thread.currentThread().getId());
+    LOGGER.info(
+        "JobRunner_Start thread ID={}, workers={}", Thread.currentThread().getId(), workerCount);
+    updateQueueDepths();
 
-    Transaction transaction = database.beginTransaction();
-    Optional<PersistedDurableJobModel> maybeJobToRun = getJobForExecution();
+    if (workerCount == 1) {
+      runJobsOnWorker();
+    } else {
+      CompletableFuture<?>[] workers =
+          IntStream.range(0, workerCount)
+              .mapToObj(
+                  worker ->
+                      CompletableFuture.runAsync(
+                          this::runJobsOnWorker, durableJobExecutionContext.current()))
+              .toArray(CompletableFuture<?>[]::new);
+      CompletableFuture.allOf(workers).join();
+    }
 
-    while (canRun(maybeJobToRun)) {
-      PersistedDurableJobModel jobToRun = maybeJobToRun.get();
-      runJob(jobToRun);
-      notifyUponFinalFailure(jobToRun);
-      transaction.commit();
+    updateQueueDepths();
+    LOGGER.info("JobRunner_Stop thread_ID={}", Thread.currentThread().getId());
+  }
 
-      transaction = database.beginTransaction();
-      maybeJobToRun = getJobForExecution();
+  /**
+   * Leases and runs jobs one at a time on the current thread until there are none that can be run.
+   * Each job is leased and run in its own transaction, which holds the lock on its row.
+   */
+  private void runJobsOnWorker() {
+    while (true) {
+      try (Transaction transaction = database.beginTransaction()) {
+        Optional<PersistedDurableJobModel> maybeJobToRun = getJobForExecution();
+        if (!canRun(maybeJobToRun)) {
+          return;
+        }
+        PersistedDurableJobModel jobToRun = maybeJobToRun.get();
+        double waitSeconds =
+            ChronoUnit.MILLIS.between(
+                    jobToRun.getExecutionTime(), nowProvider.get().toInstant(zoneOffset))
+                / 1000.0;
+        WAIT_TIME_HISTOGRAM.labels(jobToRun.getJobName()).observe(Math.max(0, waitSeconds));
+        runJob(jobToRun);
+        notifyUponFinalFailure(jobToRun);
+        transaction.commit();
+      }
     }
-    transaction.close();
+  }
 
-    LOGGER.info("JobRunner_Stop thread_ID={}", Thread.currentThread().getId());
+  private void updateQueueDepths() {
+    ImmutableMap<String, Integer> queueDepths = getQueueDepths();
+    // Jobs that are no longer queued are reported as zero rather than left at their last value.
+    for (String jobName : Sets.union(reportedJobNames, queueDepths.keySet()).immutableCopy()) {
+      QUEUE_DEPTH_GAUGE.labels(jobName).set(queueDepths.getOrDefault(jobName, 0));
+    }
+    reportedJobNames.addAll(queueDepths.keySet());
   }
 
   private void notifyUponFinalFailure(PersistedDurableJobModel job) {
@@ -121,6 +225,7 @@ public abstract class AbstractDurableJobRunner {
 
   private void runJob(PersistedDurableJobModel persistedDurableJob) {
     LocalDateTime startTime = nowProvider.get();
+    String result = "failed";
     LOGGER.info(
         "JobRunner_ExecutingJob thread_ID={}, job_name=\"{}\", job_ID={}",
         Thread.currentThread().getId(),
@@ -143,6 +248,7 @@ public abstract class AbstractDurableJobRunner {
           durableJobRegistry.get(optionalJobName.get()).getFactory().create(persistedDurableJob));
 
       persistedDurableJob.setSuccessTime(nowProvider.get().toInstant(zoneOffset)).save();
+      result = "succeeded";
 
       LOGGER.info(
           "JobRunner_JobSucceeded job_name=\"{}\", job_ID={}, duration_s={}",
@@ -150,6 +256,7 @@ public abstract class AbstractDurableJobRunner {
           persistedDurableJob.id,
           getJobDurationInSeconds(startTime));
     } catch (JobNotFoundException e) {
+      result = "not_found";
       // If the job is not found in the registry, it was likely removed intentionally
       // In this case, we want to delete the job from the database because it should not be run
       // anymore
@@ -189,6 +296,7 @@ public abstract class AbstractDurableJobRunner {
       LOGGER.error(msg);
       persistedDurableJob.appendErrorMessage(msg).save();
     } catch (TimeoutException e) {
+      result = "timed_out";
       String msg =
           String.format(
               "JobRunner_JobTimeout job_name=\"%s\", job_ID=%d, attempts_remaining=%d,"
@@ -212,22 +320,32 @@ public abstract class AbstractDurableJobRunner {
               ExceptionUtils.getStackTrace(e));
       LOGGER.error(msg);
       persistedDurableJob.appendErrorMessage(msg).save();
+    } finally {
+      RUN_TIME_HISTOGRAM
+          .labels(persistedDurableJob.getJobName(), result)
+          .observe(getJobDurationInSeconds(startTime));
     }
   }
 
-  private synchronized void runJobWithTimeout(DurableJob jobToRun)
+  private void runJobWithTimeout(DurableJob jobToRun)
       throws ExecutionException, InterruptedException, TimeoutException {
     CompletableFuture<Void> future =
         CompletableFuture.runAsync(() -> jobToRun.run(), durableJobExecutionContext.current());
 
-    // We set the job timeout to 0 in test
-    if (jobTimeoutMinutes == 0) {
-      // Timeout test jobs after 2500ms
-      future.get(2500, TimeUnit.MILLISECONDS);
-      return;
-    }
+    try {
+      // We set the job timeout to 0 in test
+      if (jobTimeoutMinutes == 0) {
+        // Timeout test jobs after 2500ms
+        future.get(2500, TimeUnit.MILLISECONDS);
+        return;
+      }
 
-    future.get(jobTimeoutMinutes, TimeUnit.MINUTES);
+      future.get(jobTimeoutMinutes, TimeUnit.MINUTES);
+    } catch (TimeoutException e) {
+      // The job keeps running on its thread, so ask it to stop before it is retried.
+      jobToRun.cancel();
+      throw e;
+    }
   }
 
   private double getJobDurationInSeconds(LocalDateTime startTime) {
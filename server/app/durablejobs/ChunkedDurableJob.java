@@ -0,0 +1,138 @@
+package durablejobs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import io.ebean.Database;
+import io.ebean.Transaction;
+import java.util.Optional;
+import models.BaseModel;
+import models.PersistedDurableJobModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.PersistedDurableJobRepository;
+
+/**
+ * A {@link DurableJob} that works through rows in chunks, in order of a key, rather than all at
+ * once, so that a job over a large table doesn't have to finish within a single transaction or the
+ * job timeout.
+ *
+ * <p>Each chunk is processed in its own transaction, which also saves a checkpoint of where the
+ * next chunk starts. If the job times out, fails or the server restarts, its next attempt resumes
+ * from the last checkpoint rather than starting over, so only the chunk that was in progress is
+ * processed again. The checkpoint is deleted once the job finishes.
+ */
+public abstract class ChunkedDurableJob extends DurableJob {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedDurableJob.class);
+
+  /** The number of rows that subclasses should process in each chunk. */
+  protected static final int CHUNK_SIZE = 500;
+
+  private final PersistedDurableJobRepository persistedDurableJobRepository;
+  private final Database database;
+  private volatile boolean cancelled = false;
+
+  protected ChunkedDurableJob(PersistedDurableJobRepository persistedDurableJobRepository) {
+    this.persistedDurableJobRepository = checkNotNull(persistedDurableJobRepository);
+    this.database = DB.getDefault();
+  }
+
+  /**
+   * Processes the next chunk of rows, starting after {@code checkpoint}, in the current
+   * transaction.
+   *
+   * @param checkpoint the checkpoint returned by the previous chunk, or empty for the first chunk
+   * @return the checkpoint to start the next chunk from, or empty if there are no rows left
+   */
+  protected abstract Optional<String> processChunk(Optional<String> checkpoint);
+
+  @Override
+  public final void run() {
+    long jobId = checkNotNull(getPersistedDurableJob().id, "the job must be saved to be chunked");
+    Optional<String> checkpoint = persistedDurableJobRepository.getCheckpoint(jobId);
+    checkpoint.ifPresent(
+        resumeFrom ->
+            LOGGER.info("Resuming job_name=\"{}\" from checkpoint {}", jobName(), resumeFrom));
+
+    int chunkCount = 0;
+    while (!cancelled) {
+      try (Transaction transaction = database.beginTransaction()) {
+        Optional<String> nextCheckpoint = processChunk(checkpoint);
+        if (nextCheckpoint.isEmpty()) {
+          persistedDurableJobRepository.deleteCheckpoint(jobId);
+          transaction.commit();
+          LOGGER.info("Finished job_name=\"{}\" after {} chunks", jobName(), chunkCount + 1);
+          return;
+        }
+        persistedDurableJobRepository.saveCheckpoint(jobId, nextCheckpoint.get());
+        transaction.commit();
+        checkpoint = nextCheckpoint;
+        chunkCount++;
+      }
+    }
+    LOGGER.warn(
+        "Stopped job_name=\"{}\" after {} chunks at checkpoint {}",
+        jobName(),
+        chunkCount,
+        checkpoint.orElse("none"));
+  }
+
+  /** Stops the job once the chunk in progress is finished. */
+  @Override
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Finds the next chunk of rows of {@code modelClass} with an ID greater than {@code afterId},
+   * ordered by ID, that match the SQL {@code rawFilter}.
+   */
+  protected final <T extends BaseModel> ImmutableList<T> findChunk(
+      Class<T> modelClass, String rawFilter, long afterId) {
+    return ImmutableList.copyOf(
+        database
+            .find(modelClass)
+            .where()
+            .raw(rawFilter)
+            .gt("id", afterId)
+            .orderBy("id")
+            .setMaxRows(CHUNK_SIZE)
+            .findList());
+  }
+
+  /**
+   * A checkpoint for a job that works through several tables in turn, each in order of ID. It
+   * holds the index of the table the job is on and the last ID processed in it.
+   */
+  protected record KeysetCheckpoint(int tableIndex, long lastId) {
+    private static final String SEPARATOR = ":";
+
+    /** Parses a checkpoint, starting from the first table if there isn't one yet. */
+    public static KeysetCheckpoint parse(Optional<String> checkpoint) {
+      if (checkpoint.isEmpty()) {
+        return new KeysetCheckpoint(0, 0);
+      }
+      String[] parts = checkpoint.get().split(SEPARATOR);
+      if (parts.length != 2) {
+        throw new IllegalArgumentException(
+            String.format("Malformed checkpoint \"%s\"", checkpoint.get()));
+      }
+      return new KeysetCheckpoint(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    /** The checkpoint after the row with {@code id} in the same table. */
+    public KeysetCheckpoint after(long id) {
+      return new KeysetCheckpoint(tableIndex, id);
+    }
+
+    /** The checkpoint at the start of the next table. */
+    public KeysetCheckpoint nextTable() {
+      return new KeysetCheckpoint(tableIndex + 1, 0);
+    }
+
+    public String serialize() {
+      return tableIndex + SEPARATOR + lastId;
+    }
+  }
+}
@@ -21,4 +21,10 @@ public abstract class DurableJob {
 
   /** Executes the job. */
   public abstract void run();
+
+  /**
+   * Asks the job to stop early, since the job runner has stopped waiting for it. Does nothing by
+   * default; jobs that can safely stop partway through should override this.
+   */
+  public void cancel() {}
 }
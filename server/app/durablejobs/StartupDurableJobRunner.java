@@ -2,6 +2,7 @@ package durablejobs;
 
 import annotations.BindingAnnotations;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.typesafe.config.Config;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -48,6 +49,12 @@ public final class StartupDurableJobRunner extends AbstractDurableJobRunner {
     return persistedDurableJobRepository.getStartupJobForExecution();
   }
 
+  /** Get the number of jobs that are ready to run or running, by job name. */
+  @Override
+  protected ImmutableMap<String, Integer> getQueueDepths() {
+    return persistedDurableJobRepository.countStartupJobsReadyForExecution();
+  }
+
   /** Determines if the provided job, if it exists, is allowed to be run. */
   @Override
   protected synchronized boolean canRun(Optional<PersistedDurableJobModel> maybeJobToRun) {
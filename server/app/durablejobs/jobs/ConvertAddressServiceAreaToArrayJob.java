@@ -9,34 +9,47 @@ import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
-import durablejobs.DurableJob;
-import io.ebean.DB;
-import io.ebean.Database;
-import io.ebean.Transaction;
-import io.ebean.annotation.TxIsolation;
+import durablejobs.ChunkedDurableJob;
 import java.util.Arrays;
+import java.util.Optional;
 import models.ApplicantModel;
 import models.ApplicationModel;
 import models.PersistedDurableJobModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import repository.PersistedDurableJobRepository;
 import services.Path;
 import services.applicant.ApplicantData;
 import services.applicant.question.Scalar;
 import services.geo.ServiceAreaInclusion;
 import services.geo.ServiceAreaState;
 
-public final class ConvertAddressServiceAreaToArrayJob extends DurableJob {
+/**
+ * Converts the single service area string of address questions in applicant data into a list of
+ * service areas. Applicants and then applications are converted in chunks, and a chunk with any
+ * failures is undone.
+ */
+public final class ConvertAddressServiceAreaToArrayJob extends ChunkedDurableJob {
   private static final Logger logger =
       LoggerFactory.getLogger(ConvertAddressServiceAreaToArrayJob.class);
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
-  private final Database database;
+  // Filter to only include rows that have a service_area key that is a string type. Vastly
+  // improves the run time cutting out a large number of unneeded records.
+  private static final String FILTER =
+      """
+jsonb_path_exists((object#>>'{}')::jsonb, '$.applicant.**.service_area ? (@.type() == "string")')
+""";
+  private static final int APPLICANTS_TABLE = 0;
+  private static final int APPLICATIONS_TABLE = 1;
+
   private final PersistedDurableJobModel persistedDurableJobModel;
 
-  public ConvertAddressServiceAreaToArrayJob(PersistedDurableJobModel persistedDurableJobModel) {
+  public ConvertAddressServiceAreaToArrayJob(
+      PersistedDurableJobRepository persistedDurableJobRepository,
+      PersistedDurableJobModel persistedDurableJobModel) {
+    super(persistedDurableJobRepository);
     this.persistedDurableJobModel = checkNotNull(persistedDurableJobModel);
-    this.database = DB.getDefault();
   }
 
   @Override
@@ -45,57 +58,61 @@ public final class ConvertAddressServiceAreaToArrayJob extends DurableJob {
   }
 
   @Override
-  public void run() {
-    logger.info("Run - Begin");
-
-    try (Transaction jobTransaction = database.beginTransaction(TxIsolation.SERIALIZABLE)) {
-      int errorCount = 0;
-
-      // Filter to only include rows that have a service_area key that is a string type. Vastly
-      // improves the run time cutting out a large number of unneeded records.
-      String filter =
-          """
-jsonb_path_exists((object#>>'{}')::jsonb, '$.applicant.**.service_area ? (@.type() == "string")')
-""";
-
-      try (var query = database.find(ApplicantModel.class).where().raw(filter).findIterate()) {
-        while (query.hasNext()) {
+  protected Optional<String> processChunk(Optional<String> checkpoint) {
+    KeysetCheckpoint position = KeysetCheckpoint.parse(checkpoint);
+    int errorCount = 0;
+    long lastId;
+
+    switch (position.tableIndex()) {
+      case APPLICANTS_TABLE -> {
+        ImmutableList<ApplicantModel> applicants =
+            findChunk(ApplicantModel.class, FILTER, position.lastId());
+        if (applicants.isEmpty()) {
+          return Optional.of(position.nextTable().serialize());
+        }
+        for (ApplicantModel applicant : applicants) {
           try {
-            ApplicantModel applicant = query.next();
             logger.debug("Converting service area for applicant id {}", applicant.id);
             applicant.setApplicantData(processRow(applicant.getApplicantData()));
-            applicant.save(jobTransaction);
+            applicant.save();
           } catch (Exception e) {
             errorCount++;
             logger.error(e.getMessage(), e);
           }
         }
+        lastId = applicants.get(applicants.size() - 1).id;
       }
-
-      try (var query = database.find(ApplicationModel.class).where().raw(filter).findIterate()) {
-        while (query.hasNext()) {
+      case APPLICATIONS_TABLE -> {
+        ImmutableList<ApplicationModel> applications =
+            findChunk(ApplicationModel.class, FILTER, position.lastId());
+        if (applications.isEmpty()) {
+          logger.info("Job succeeded");
+          return Optional.empty();
+        }
+        for (ApplicationModel application : applications) {
           try {
-            ApplicationModel application = query.next();
             logger.debug("Converting service area for application id {}", application.id);
             application.setApplicantData(processRow(application.getApplicantData()));
-            application.save(jobTransaction);
+            application.save();
           } catch (Exception e) {
             errorCount++;
             logger.error(e.getMessage(), e);
           }
         }
+        lastId = applications.get(applications.size() - 1).id;
       }
-
-      if (errorCount == 0) {
-        logger.info("Job succeeded");
-        jobTransaction.commit();
-      } else {
-        logger.error("Failed to convert service area. All changes undone. Errors: {}", errorCount);
-        jobTransaction.rollback();
-      }
+      default ->
+          throw new IllegalArgumentException(
+              String.format("Unknown table in checkpoint %s", position.serialize()));
     }
 
-    logger.info("Run - End");
+    if (errorCount > 0) {
+      throw new IllegalStateException(
+          String.format(
+              "Failed to convert service area. Changes in this chunk undone. Errors: %d",
+              errorCount));
+    }
+    return Optional.of(position.after(lastId).serialize());
   }
 
   private ApplicantData processRow(ApplicantData applicantData) throws JsonProcessingException {
@@ -4,17 +4,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
-import durablejobs.DurableJob;
-import io.ebean.DB;
-import io.ebean.Database;
-import io.ebean.QueryIterator;
-import io.ebean.Transaction;
+import com.google.common.collect.ImmutableList;
+import durablejobs.ChunkedDurableJob;
 import java.util.Locale;
+import java.util.Optional;
 import models.ApplicantModel;
 import models.ApplicationModel;
 import models.PersistedDurableJobModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import repository.PersistedDurableJobRepository;
 import services.applicant.ApplicantData;
 import services.applicant.question.Scalar;
 
@@ -23,9 +22,10 @@ import services.applicant.question.Scalar;
  * uploads.
  *
  * <p>Looks at applicant data for any node containing "file_key" and creates a sibling node
- * "file_keys" with the same data.
+ * "file_keys" with the same data. Applicants and then applications are updated in chunks, and a
+ * chunk with any failures is undone.
  */
-public final class CopyFileKeyForMultipleFileUpload extends DurableJob {
+public final class CopyFileKeyForMultipleFileUpload extends ChunkedDurableJob {
   private static final String FILE_KEY_PROPERTY = Scalar.FILE_KEY.name().toLowerCase(Locale.ROOT);
   private static final String FILE_KEY_LIST_PROPERTY =
       Scalar.FILE_KEY_LIST.name().toLowerCase(Locale.ROOT);
@@ -35,12 +35,20 @@ public final class CopyFileKeyForMultipleFileUpload extends DurableJob {
 
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+  // Filter to only include rows that have a file_key key. Vastly improves the run time
+  // cutting out a large number of unneeded records.
+  private static final String FILTER =
+      String.format("jsonb_path_exists(object, '$.**.%s')", FILE_KEY_PROPERTY);
+  private static final int APPLICANTS_TABLE = 0;
+  private static final int APPLICATIONS_TABLE = 1;
+
   private final PersistedDurableJobModel persistedDurableJobModel;
-  private final Database database;
 
-  public CopyFileKeyForMultipleFileUpload(PersistedDurableJobModel persistedDurableJobModel) {
+  public CopyFileKeyForMultipleFileUpload(
+      PersistedDurableJobRepository persistedDurableJobRepository,
+      PersistedDurableJobModel persistedDurableJobModel) {
+    super(persistedDurableJobRepository);
     this.persistedDurableJobModel = persistedDurableJobModel;
-    this.database = DB.getDefault();
   }
 
   @Override
@@ -49,64 +57,62 @@ public final class CopyFileKeyForMultipleFileUpload extends DurableJob {
   }
 
   @Override
-  public void run() {
-    LOGGER.info("Copying file keys for applicants.");
-
-    // Filter to only include rows that have a file_key key. Vastly improves the run time
-    // cutting out a large number of unneeded records.
-    String filter = String.format("jsonb_path_exists(object, '$.**.%s')", FILE_KEY_PROPERTY);
-
-    try (Transaction jobTransaction = database.beginTransaction()) {
-      int errorCount = 0;
-      int rowCount = 1;
-
-      try (QueryIterator<ApplicantModel> applicants =
-          database.find(ApplicantModel.class).where().raw(filter).findIterate()) {
-        while (applicants.hasNext()) {
+  protected Optional<String> processChunk(Optional<String> checkpoint) {
+    KeysetCheckpoint position = KeysetCheckpoint.parse(checkpoint);
+    int errorCount = 0;
+    long lastId;
+
+    switch (position.tableIndex()) {
+      case APPLICANTS_TABLE -> {
+        ImmutableList<ApplicantModel> applicants =
+            findChunk(ApplicantModel.class, FILTER, position.lastId());
+        if (applicants.isEmpty()) {
+          LOGGER.info("Copying file keys for applications.");
+          return Optional.of(position.nextTable().serialize());
+        }
+        for (ApplicantModel applicant : applicants) {
           try {
-            LOGGER.debug("Applicant row count: {}", rowCount);
-            rowCount++;
-            ApplicantModel applicant = applicants.next();
-            ApplicantData migratedData = migrateApplicantData(applicant.getApplicantData());
-            applicant.setApplicantData(migratedData);
-            applicant.save(jobTransaction);
+            applicant.setApplicantData(migrateApplicantData(applicant.getApplicantData()));
+            applicant.save();
           } catch (Exception e) {
             errorCount++;
             LOGGER.error(e.getMessage(), e);
           }
         }
+        lastId = applicants.get(applicants.size() - 1).id;
       }
-
-      LOGGER.info("Copying file keys for applications.");
-      rowCount = 1;
-
-      try (QueryIterator<ApplicationModel> applications =
-          database.find(ApplicationModel.class).where().raw(filter).findIterate()) {
-        while (applications.hasNext()) {
-          LOGGER.debug("Application row count: {}", rowCount);
-          rowCount++;
+      case APPLICATIONS_TABLE -> {
+        ImmutableList<ApplicationModel> applications =
+            findChunk(ApplicationModel.class, FILTER, position.lastId());
+        if (applications.isEmpty()) {
+          LOGGER.info("Finished copying file keys for multiple file upload feature.");
+          return Optional.empty();
+        }
+        for (ApplicationModel application : applications) {
           try {
-            ApplicationModel application = applications.next();
             application.setApplicantData(migrateApplicantData(application.getApplicantData()));
-            application.save(jobTransaction);
+            application.save();
           } catch (Exception e) {
             errorCount++;
             LOGGER.error(e.getMessage(), e);
           }
         }
+        lastId = applications.get(applications.size() - 1).id;
       }
+      default ->
+          throw new IllegalArgumentException(
+              String.format("Unknown table in checkpoint %s", position.serialize()));
+    }
 
-      if (errorCount == 0) {
-        LOGGER.info("Finished copying file keys for multiple file upload feature.");
-        jobTransaction.commit();
-      } else {
-        LOGGER.error(
-            "Failed to copy file keys for multiple file upload feature. See previous logs for"
-                + " failures. Total failures: {0}",
-            errorCount);
-        jobTransaction.rollback();
-      }
+    if (errorCount > 0) {
+      // Undoes this chunk. The job is retried from the start of it.
+      throw new IllegalStateException(
+          String.format(
+              "Failed to copy file keys for multiple file upload feature. See previous logs for"
+                  + " failures. Total failures: %d",
+              errorCount));
     }
+    return Optional.of(position.after(lastId).serialize());
   }
 
   @VisibleForTesting
@@ -5,6 +5,11 @@ import durablejobs.DurableJob;
 import models.PersistedDurableJobModel;
 import repository.ReportingRepository;
 
+/**
+ * Recomputes the reporting dashboard's submission stats for the month that just ended from its
+ * applications, correcting any drift from the stats that are recorded as applications are
+ * submitted.
+ */
 public final class ReportingDashboardMonthlyRefreshJob extends DurableJob {
   private final ReportingRepository reportingRepository;
   private final PersistedDurableJobModel persistedDurableJob;
@@ -22,6 +27,6 @@ public final class ReportingDashboardMonthlyRefreshJob extends DurableJob {
 
   @Override
   public void run() {
-    reportingRepository.refreshMonthlyReportingView();
+    reportingRepository.rebuildLastMonthSubmissionStats();
   }
 }
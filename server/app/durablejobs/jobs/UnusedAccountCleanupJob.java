@@ -1,17 +1,25 @@
 package durablejobs.jobs;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Provider;
-import durablejobs.DurableJob;
+import durablejobs.ChunkedDurableJob;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 import models.PersistedDurableJobModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import repository.AccountRepository;
+import repository.PersistedDurableJobRepository;
 
-/** Destroys all guest accounts older than a set age that have not started any applications. */
-public final class UnusedAccountCleanupJob extends DurableJob {
+/**
+ * Destroys all guest accounts older than a set age that have not started any applications.
+ *
+ * <p>Accounts are deleted in chunks in order of applicant ID, with the last deleted applicant's ID
+ * as the checkpoint.
+ */
+public final class UnusedAccountCleanupJob extends ChunkedDurableJob {
   private static final Logger LOGGER = LoggerFactory.getLogger(UnusedAccountCleanupJob.class);
   private static final int UNUSED_ACCOUNT_MIN_AGE_IN_DAYS = 90;
 
@@ -21,8 +29,10 @@ public final class UnusedAccountCleanupJob extends DurableJob {
 
   public UnusedAccountCleanupJob(
       AccountRepository accountRepository,
+      PersistedDurableJobRepository persistedDurableJobRepository,
       Provider<LocalDateTime> nowProvider,
       PersistedDurableJobModel persistedDurableJob) {
+    super(persistedDurableJobRepository);
     this.accountRepository = Preconditions.checkNotNull(accountRepository);
     this.nowProvider = Preconditions.checkNotNull(nowProvider);
     this.persistedDurableJob = Preconditions.checkNotNull(persistedDurableJob);
@@ -34,10 +44,17 @@ public final class UnusedAccountCleanupJob extends DurableJob {
   }
 
   @Override
-  public void run() {
-    LocalDateTime cutoff = nowProvider.get().minus(UNUSED_ACCOUNT_MIN_AGE_IN_DAYS, ChronoUnit.DAYS);
-    int numberDeleted = accountRepository.deleteUnusedGuestAccounts(UNUSED_ACCOUNT_MIN_AGE_IN_DAYS);
+  protected Optional<String> processChunk(Optional<String> checkpoint) {
+    long afterApplicantId = checkpoint.map(Long::parseLong).orElse(0L);
+    ImmutableList<Long> deletedApplicantIds =
+        accountRepository.deleteUnusedGuestAccounts(
+            UNUSED_ACCOUNT_MIN_AGE_IN_DAYS, afterApplicantId, CHUNK_SIZE);
+    if (deletedApplicantIds.isEmpty()) {
+      return Optional.empty();
+    }
 
-    LOGGER.info("Deleted {} accounts created before {}", numberDeleted, cutoff);
+    LocalDateTime cutoff = nowProvider.get().minus(UNUSED_ACCOUNT_MIN_AGE_IN_DAYS, ChronoUnit.DAYS);
+    LOGGER.info("Deleted {} accounts created before {}", deletedApplicantIds.size(), cutoff);
+    return Optional.of(String.valueOf(deletedApplicantIds.get(deletedApplicantIds.size() - 1)));
   }
 }
@@ -11,78 +11,100 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import play.api.libs.concurrent.PekkoSchedulerProvider;
+import play.libs.streams.Accumulator;
 import play.mvc.EssentialAction;
 import play.mvc.EssentialFilter;
 import play.mvc.Http;
-import scala.concurrent.ExecutionContext;
+import play.mvc.Results;
+import services.apikey.ApiKeyRateLimiter;
 import services.apikey.ApiKeyService;
 
 /**
  * This filter looks for requests with paths that begin with /api and record the usage data for the
- * relevant API key if it has one. The API key update is scheduled to run in a background thread to
- * reduce latency and to ensure issues with recording the usage do not cause API requests to fail.
- * Note that there is no retry logic, so if updating the key's usage info fails it will be
- * inconsistent. This is acceptable since it's not critical that the call count be perfectly
- * accurate.
+ * relevant API key if it has one. The usage is only counted in memory here, and written to the
+ * database in periodic batches by {@link services.apikey.ApiKeyUsageAggregator}, to reduce latency
+ * and to ensure issues with recording the usage do not cause API requests to fail.
+ *
+ * <p>Requests over their key's rate limit, as enforced by {@link ApiKeyRateLimiter}, are rejected
+ * here with HTTP status 429 and a Retry-After header, before they reach a controller.
  */
 public class ApiKeyUsageFilter extends EssentialFilter {
 
-  private final PekkoSchedulerProvider pekkoSchedulerProvider;
   private final Provider<ApiKeyService> apiKeyServiceProvider;
   private final Executor exec;
   private final Provider<ProfileUtils> profileUtilsProvider;
   private final ClientIpResolver clientIpResolver;
+  private final ApiKeyRateLimiter rateLimiter;
   private static final Logger LOGGER = LoggerFactory.getLogger(ApiKeyUsageFilter.class);
 
   @Inject
   public ApiKeyUsageFilter(
-      PekkoSchedulerProvider pekkoSchedulerProvider,
       Provider<ApiKeyService> apiKeyServiceProvider,
       Executor exec,
       Provider<ProfileUtils> profileUtilsProvider,
-      ClientIpResolver clientIpResolver) {
-    this.pekkoSchedulerProvider = checkNotNull(pekkoSchedulerProvider);
+      ClientIpResolver clientIpResolver,
+      ApiKeyRateLimiter rateLimiter) {
     this.apiKeyServiceProvider = checkNotNull(apiKeyServiceProvider);
     this.exec = checkNotNull(exec);
     this.profileUtilsProvider = checkNotNull(profileUtilsProvider);
     this.clientIpResolver = checkNotNull(clientIpResolver);
+    this.rateLimiter = checkNotNull(rateLimiter);
   }
 
   @Override
   public EssentialAction apply(EssentialAction next) {
     return EssentialAction.of(
-        (Http.RequestHeader request) ->
-            next.apply(request)
-                .map(
-                    result -> {
-                      try {
-                        if (request.path().startsWith("/api/")) {
-                          Optional<String> maybeApiKeyId =
-                              profileUtilsProvider.get().currentApiKeyId(request);
+        (Http.RequestHeader request) -> {
+          // If the key ID is not present then the request was not authenticated and does not
+          // need to be limited or recorded.
+          Optional<String> maybeApiKeyId = currentApiKeyId(request);
 
-                          // If the key ID is not present then the request was not
-                          // authenticated and does not need to be recorded.
-                          if (maybeApiKeyId.isPresent()) {
-                            String remoteAddress = clientIpResolver.resolveClientIp(request);
+          if (maybeApiKeyId.isPresent()) {
+            Optional<Duration> retryAfter = rateLimiter.tryAcquire(maybeApiKeyId.get());
+            if (retryAfter.isPresent()) {
+              return Accumulator.done(
+                  Results.status(Http.Status.TOO_MANY_REQUESTS)
+                      .withHeader(
+                          Http.HeaderNames.RETRY_AFTER, toRetryAfterSeconds(retryAfter.get())));
+            }
+          }
 
-                            pekkoSchedulerProvider
-                                .get()
-                                .scheduleOnce(
-                                    Duration.ZERO,
-                                    () ->
-                                        apiKeyServiceProvider
-                                            .get()
-                                            .recordApiKeyUsage(maybeApiKeyId.get(), remoteAddress),
-                                    ExecutionContext.fromExecutor(exec));
-                          }
-                        }
-                      } catch (RuntimeException e) {
-                        LOGGER.error("Error updating ApiKey usage: {}", e.toString());
+          return next.apply(request)
+              .map(
+                  result -> {
+                    try {
+                      if (maybeApiKeyId.isPresent()) {
+                        String remoteAddress = clientIpResolver.resolveClientIp(request);
+
+                        apiKeyServiceProvider
+                            .get()
+                            .recordApiKeyUsage(maybeApiKeyId.get(), remoteAddress);
                       }
+                    } catch (RuntimeException e) {
+                      LOGGER.error("Error updating ApiKey usage: {}", e.toString());
+                    }
+
+                    return result;
+                  },
+                  exec);
+        });
+  }
+
+  private Optional<String> currentApiKeyId(Http.RequestHeader request) {
+    if (!request.path().startsWith("/api/")) {
+      return Optional.empty();
+    }
+
+    try {
+      return profileUtilsProvider.get().currentApiKeyId(request);
+    } catch (RuntimeException e) {
+      LOGGER.error("Error reading ApiKey ID: {}", e.toString());
+      return Optional.empty();
+    }
+  }
 
-                      return result;
-                    },
-                    exec));
+  /** Retry-After is a whole number of seconds, so round up to avoid retrying too early. */
+  private static String toRetryAfterSeconds(Duration retryAfter) {
+    return String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
   }
 }
@@ -13,8 +13,11 @@ import play.mvc.Http;
 import services.settings.SettingsService;
 
 /**
- * Loads the server settings from the database and adds them to the attributes of each incoming
- * request. This caches them for the life of the request for quick access in application code.
+ * Adds the server settings to the attributes of each incoming request. This caches them for the
+ * life of the request for quick access in application code.
+ *
+ * <p>The settings come from the snapshot held in memory by {@link
+ * services.settings.SettingsSnapshotHolder}, so the database is only read after they are updated.
  */
 public final class SettingsFilter extends EssentialFilter {
 
@@ -10,12 +10,14 @@ import io.ebean.annotation.DbEnumType;
 import io.ebean.annotation.DbEnumValue;
 import io.ebean.annotation.DbJson;
 import io.ebean.annotation.WhenCreated;
+import io.prometheus.client.Counter;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -66,8 +68,17 @@ public class ApplicantModel extends BaseModel {
   }
 
   private static final long serialVersionUID = 1L;
+  private static final Counter APPLICANT_DATA_WRITES_SKIPPED_COUNT =
+      Counter.build()
+          .name("applicant_data_writes_skipped_total")
+          .help("Count of applicant updates that did not rewrite the unchanged applicant data")
+          .register();
+
   private ApplicantData applicantData;
 
+  // Whether applicantData has changed since it was loaded or last written to `object`.
+  @Transient private boolean applicantDataChanged = false;
+
   @WhenCreated private Instant whenCreated;
 
   private String preferredLocale;
@@ -95,6 +106,8 @@ public class ApplicantModel extends BaseModel {
   /** Sets a new applicant data, overwriting any previous value. */
   public void setApplicantData(ApplicantData applicantData) {
     this.applicantData = applicantData;
+    applicantData.setMutationListener(this::markApplicantDataChanged);
+    markApplicantDataChanged();
   }
 
   public ApplicantData getApplicantData() {
@@ -103,13 +116,6 @@ public class ApplicantModel extends BaseModel {
     // data and `applicantData` is null, first initialization, where `object`
     // is null and the `applicantData` is also `null`, and in-memory use, where
     // `object` is out-of-date but non-null, and `applicantData` is already valid.
-
-    // Play Ebeans starting at v6.2.0 includes updated Ebeans that fixes a bug we
-    // had relied on to mark the json fields as dirty. We now need to manually
-    // trigger the dirty flag or the @PrePersist/@PreUpdate annotations don't
-    // get triggered.
-    io.ebean.DB.markAsDirty(this);
-
     if (this.applicantData == null && (object != null && !object.isEmpty())) {
       if (preferredLocale == null || preferredLocale.isEmpty()) {
         // Default to English until the applicant specifies their preferred language.
@@ -118,20 +124,58 @@ public class ApplicantModel extends BaseModel {
         this.applicantData =
             new ApplicantData(Optional.of(Locale.forLanguageTag(preferredLocale)), object);
       }
+      this.applicantData.setMutationListener(this::markApplicantDataChanged);
     } else if (this.applicantData == null) {
       this.applicantData = new ApplicantData();
+      this.applicantData.setMutationListener(this::markApplicantDataChanged);
     }
     return applicantData;
   }
 
+  /**
+   * Called whenever the applicant data changes.
+   *
+   * <p>Play Ebeans starting at v6.2.0 includes updated Ebeans that fixes a bug we had relied on to
+   * mark the json fields as dirty. We now need to manually trigger the dirty flag or the
+   * @PrePersist/@PreUpdate annotations don't get triggered. We only do so when the data actually
+   * changes, so that code paths that merely read answers don't rewrite the row on the next save.
+   */
+  private void markApplicantDataChanged() {
+    applicantDataChanged = true;
+    io.ebean.DB.markAsDirty(this);
+  }
+
+  /** Returns true if the applicant data has changed since it was loaded or last saved. */
+  public boolean hasUnsavedApplicantData() {
+    return applicantDataChanged;
+  }
+
+  /**
+   * Records that the current applicant data has already been written to the database by some
+   * other means, such as a partial JSON update, so that it isn't written again on the next save.
+   *
+   * <p>The serialized {@code object} is brought up to date with the data that was written, so that
+   * it matches the stored row.
+   */
+  public void markApplicantDataSaved() {
+    this.object = objectAsJsonString();
+    applicantDataChanged = false;
+  }
+
   @PrePersist
   @PreUpdate
   public void synchronizeObject() {
+    if (!applicantDataChanged && object != null) {
+      // Some other column changed, so there's no need to re-serialize and write the answers.
+      APPLICANT_DATA_WRITES_SKIPPED_COUNT.inc();
+      return;
+    }
     this.preferredLocale =
         getApplicantData().hasPreferredLocale()
             ? getApplicantData().preferredLocale().toLanguageTag()
             : null;
     this.object = objectAsJsonString();
+    applicantDataChanged = false;
   }
 
   public ApplicantModel setFirstName(String firstName) {
@@ -0,0 +1,57 @@
+package models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * An EBean mapped class that summarizes a submitted {@link ApplicationModel}, with the same ID, for
+ * listing a program's applications.
+ *
+ * <p>Rows are written by {@code ApplicationSummaryRepository} when an application is submitted and
+ * whenever its status changes, so listing applications doesn't need to load the applicant or the
+ * application's data. The applicant's name is the one they had when they submitted.
+ */
+@Entity
+@Table(name = "application_summary")
+public class ApplicationSummaryModel extends BaseModel {
+
+  private long programId;
+
+  @ManyToOne private ApplicantModel applicant;
+
+  private String applicantName;
+  private String submitterEmail;
+  private Instant submitTime;
+  private String latestStatus;
+  private EligibilityDetermination eligibilityDetermination;
+
+  /** The ID of the program version that the application was submitted to. */
+  public long getProgramId() {
+    return programId;
+  }
+
+  /** The applicant's display name from {@link ApplicantModel#getApplicantDisplayName}. */
+  public Optional<String> getApplicantName() {
+    return Optional.ofNullable(applicantName);
+  }
+
+  public Optional<String> getSubmitterEmail() {
+    return Optional.ofNullable(submitterEmail);
+  }
+
+  public Instant getSubmitTime() {
+    return submitTime;
+  }
+
+  public Optional<String> getLatestStatus() {
+    return Optional.ofNullable(latestStatus);
+  }
+
+  /** The eligibility determined against the program version the application was submitted to. */
+  public EligibilityDetermination getEligibilityDetermination() {
+    return eligibilityDetermination;
+  }
+}
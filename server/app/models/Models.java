@@ -14,8 +14,11 @@ public final class Models {
           ApplicantModel.class,
           ApplicationModel.class,
           ApplicationEventModel.class,
+          ApplicationSummaryModel.class,
           CategoryModel.class,
+          MonthlySubmissionStatsModel.class,
           PersistedDurableJobModel.class,
+          PersistedDurableJobCheckpointModel.class,
           ProgramModel.class,
           QuestionModel.class,
           StoredFileModel.class,
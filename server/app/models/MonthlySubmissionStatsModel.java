@@ -0,0 +1,42 @@
+package models;
+
+import io.ebean.annotation.DbArray;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.List;
+import services.reporting.SubmissionDurationHistogram;
+
+/**
+ * An EBean mapped class that counts the applications submitted to a program in a month, and holds
+ * a {@link SubmissionDurationHistogram} of how long they took to complete.
+ *
+ * <p>Rows are updated by {@code ReportingRepository} as applications are submitted, so the
+ * reporting dashboard doesn't need to scan applications.
+ */
+@Entity
+@Table(name = "monthly_submission_stats")
+public final class MonthlySubmissionStatsModel extends BaseModel {
+
+  private String programName;
+  private Instant submitMonth;
+  private long applicationCount;
+  @DbArray private List<Long> submissionDurationHistogram;
+
+  public String getProgramName() {
+    return programName;
+  }
+
+  public Instant getSubmitMonth() {
+    return submitMonth;
+  }
+
+  public long getApplicationCount() {
+    return applicationCount;
+  }
+
+  public SubmissionDurationHistogram getSubmissionDurationHistogram() {
+    return SubmissionDurationHistogram.of(
+        submissionDurationHistogram.stream().mapToLong(Long::longValue).toArray());
+  }
+}
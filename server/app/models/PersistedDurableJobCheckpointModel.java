@@ -0,0 +1,29 @@
+package models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * An EBean mapped class that records how far a chunked durable job has got, so that it can resume
+ * from there if it is interrupted. Its ID is the ID of the {@link PersistedDurableJobModel}.
+ *
+ * <p>Checkpoints are kept apart from the job's own row since the job runner holds a lock on that
+ * row for as long as the job runs.
+ */
+@Entity
+@Table(name = "persisted_durable_job_checkpoints")
+public final class PersistedDurableJobCheckpointModel extends BaseModel {
+
+  private String checkpoint;
+
+  private Instant updateTime;
+
+  public String getCheckpoint() {
+    return checkpoint;
+  }
+
+  public Instant getUpdateTime() {
+    return updateTime;
+  }
+}
@@ -0,0 +1,52 @@
+package modules;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import javax.inject.Provider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.api.db.evolutions.ApplicationEvolutions;
+import services.program.ProgramCacheWarmer;
+
+/**
+ * Binds the {@link CacheWarmupRunner} as an eager singleton, which loads the active programs into
+ * the caches at server start time.
+ *
+ * <p>Eager singletons are created before the server starts accepting requests, so the server does
+ * not report itself as healthy until warm up is done. This module is enabled after the {@link
+ * DurableJobModule} so that startup jobs, which may change programs, have already run.
+ */
+public final class CacheWarmupModule extends AbstractModule {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CacheWarmupModule.class);
+
+  @Override
+  protected void configure() {
+    LOGGER.trace("Module Started");
+    bind(CacheWarmupRunner.class).asEagerSingleton();
+  }
+
+  /**
+   * This class injects ApplicationEvolutions and checks the `upToDate` method to prevent this
+   * module from running until after the evolutions are completed.
+   *
+   * <p>See <a href="https://github.com/civiform/civiform/pull/8253">PR 8253</a> for more extensive
+   * details.
+   */
+  public static final class CacheWarmupRunner {
+
+    @Inject
+    public CacheWarmupRunner(
+        ApplicationEvolutions applicationEvolutions,
+        Provider<ProgramCacheWarmer> programCacheWarmerProvider) {
+      LOGGER.trace("CacheWarmupRunner - Started");
+
+      if (applicationEvolutions.upToDate()) {
+        LOGGER.trace("CacheWarmupRunner - Task Start");
+        programCacheWarmerProvider.get().warm();
+        LOGGER.trace("CacheWarmupRunner - Task End");
+      } else {
+        LOGGER.trace("Evolutions Not Ready");
+      }
+    }
+  }
+}
@@ -139,7 +139,8 @@ public final class DurableJobModule extends AbstractModule {
         DurableJobName.UNUSED_ACCOUNT_CLEANUP,
         JobType.RECURRING,
         persistedDurableJob ->
-            new UnusedAccountCleanupJob(accountRepository, nowProvider, persistedDurableJob),
+            new UnusedAccountCleanupJob(
+                accountRepository, persistedDurableJobRepository, nowProvider, persistedDurableJob),
         new RecurringJobExecutionTimeResolvers.SecondOfMonth2Am());
 
     durableJobRegistry.register(
@@ -156,7 +157,9 @@ public final class DurableJobModule extends AbstractModule {
   @Provides
   @StartupJobsProviderName
   public DurableJobRegistry provideStartupDurableJobRegistry(
-      CategoryRepository categoryRepository, Environment environment) {
+      CategoryRepository categoryRepository,
+      Environment environment,
+      PersistedDurableJobRepository persistedDurableJobRepository) {
     var durableJobRegistry = new DurableJobRegistry();
 
     durableJobRegistry.registerStartupJob(
@@ -167,7 +170,9 @@ public final class DurableJobModule extends AbstractModule {
     durableJobRegistry.registerStartupJob(
         DurableJobName.CONVERT_ADDRESS_SERVICE_AREA_TO_ARRAY,
         JobType.RUN_ONCE,
-        persistedDurableJob -> new ConvertAddressServiceAreaToArrayJob(persistedDurableJob));
+        persistedDurableJob ->
+            new ConvertAddressServiceAreaToArrayJob(
+                persistedDurableJobRepository, persistedDurableJob));
 
     // TODO(#8833): Remove job from registry once all category translations are in.
     durableJobRegistry.registerStartupJob(
@@ -180,7 +185,9 @@ public final class DurableJobModule extends AbstractModule {
     durableJobRegistry.registerStartupJob(
         DurableJobName.COPY_FILE_KEY_FOR_MULTIPLE_FILE_UPLOAD,
         JobType.RUN_ONCE,
-        persistedDurableJob -> new CopyFileKeyForMultipleFileUpload(persistedDurableJob));
+        persistedDurableJob ->
+            new CopyFileKeyForMultipleFileUpload(
+                persistedDurableJobRepository, persistedDurableJob));
 
     return durableJobRegistry;
   }
@@ -19,6 +19,7 @@ import play.i18n.Lang;
 import play.i18n.Messages;
 import play.i18n.MessagesApi;
 import repository.AccountRepository;
+import repository.NamedCacheInvalidator;
 
 /**
  * This class is a Guice module that tells Guice how to bind several different types. This Guice
@@ -32,6 +33,11 @@ public class MainModule extends AbstractModule {
 
   public static final Slugify SLUGIFIER = Slugify.builder().build();
 
+  @Override
+  protected void configure() {
+    bind(NamedCacheInvalidator.class).asEagerSingleton();
+  }
+
   @Provides
   @EnUsLang
   public Messages provideEnUsMessages(MessagesApi messagesApi) {
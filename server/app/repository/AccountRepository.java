@@ -6,18 +6,32 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import auth.CiviFormProfile;
 import auth.oidc.IdTokens;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import forms.TiClientInfoForm;
+import io.ebean.BeanState;
 import io.ebean.DB;
 import io.ebean.Database;
+import io.ebean.SqlQuery;
+import io.ebean.SqlUpdate;
 import io.ebean.Transaction;
+import io.ebean.TxScope;
 import io.ebean.annotation.TxIsolation;
+import io.prometheus.client.Counter;
 import java.time.Clock;
 import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -30,6 +44,8 @@ import models.TrustedIntermediaryGroupModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.CiviFormError;
+import services.Path;
+import services.applicant.ApplicantData;
 import services.program.ProgramDefinition;
 import services.settings.SettingsManifest;
 import services.ti.EmailAddressExistsException;
@@ -45,6 +61,13 @@ public final class AccountRepository {
   private static final Logger logger = LoggerFactory.getLogger(AccountRepository.class);
   private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
       new QueryProfileLocationBuilder("AccountRepository");
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final Counter APPLICANT_DATA_UPDATE_COUNT =
+      Counter.build()
+          .name("applicant_data_updates_total")
+          .help("Count of applicant data updates, by whether the whole document was written")
+          .labelNames("method")
+          .register();
 
   private final Database database;
   private final TransactionManager transactionManager;
@@ -184,6 +207,103 @@ public final class AccountRepository {
         executionContext);
   }
 
+  /**
+   * Persists changes to an applicant's data that are confined to the subtrees at {@code
+   * changedPaths}. Only those subtrees of the stored JSON are replaced, using {@code jsonb_set}, or
+   * removed with {@code #-} if they no longer exist, rather than rewriting the whole document.
+   *
+   * <p>Falls back to {@link #updateApplicant(ApplicantModel)} if any other column of the applicant
+   * has changed, or if the stored document doesn't have the shape the patch expects, e.g. the
+   * parent object of a changed path doesn't exist yet because a repeated entity was just added.
+   *
+   * @param applicant the applicant whose data changed
+   * @param changedPaths paths to the subtrees of the applicant data that may have changed. Any
+   *     change outside of them would be lost, so callers must include every path they touched.
+   */
+  public CompletionStage<Void> updateApplicantData(
+      ApplicantModel applicant, ImmutableSet<Path> changedPaths) {
+    return supplyAsync(
+        () -> {
+          if (!tryPatchApplicantData(applicant, changedPaths)) {
+            APPLICANT_DATA_UPDATE_COUNT.labels("full").inc();
+            database.update(applicant);
+          }
+          return null;
+        },
+        executionContext);
+  }
+
+  /** Returns true if the applicant's data is up to date in the database without a full update. */
+  private boolean tryPatchApplicantData(ApplicantModel applicant, ImmutableSet<Path> changedPaths) {
+    BeanState beanState = database.beanState(applicant);
+    ApplicantData applicantData = applicant.getApplicantData();
+    if (beanState.isNew()
+        || !beanState.changedProps().isEmpty()
+        || !applicantData.getFailedUpdates().isEmpty()
+        || changedPaths.isEmpty()) {
+      return false;
+    }
+    if (!applicant.hasUnsavedApplicantData()) {
+      return true;
+    }
+
+    ImmutableList<Path> paths =
+        ImmutableList.sortedCopyOf(Comparator.comparing(Path::toString), changedPaths);
+    StringBuilder objectExpression = new StringBuilder("object");
+    StringBuilder shapeConditions = new StringBuilder();
+    Map<String, Object> parameters = new HashMap<>();
+    for (int i = 0; i < paths.size(); i++) {
+      Path path = paths.get(i);
+      parameters.put("path" + i, path.asJsonbPathLiteral());
+      if (!applicantData.hasPath(path)) {
+        objectExpression.insert(0, "(").append(" #- CAST(:path").append(i).append(" AS text[]))");
+        continue;
+      }
+
+      try {
+        parameters.put(
+            "value" + i,
+            OBJECT_MAPPER.writeValueAsString(
+                applicantData.getDocumentContext().read(path.toString())));
+      } catch (JsonProcessingException e) {
+        throw new RuntimeException(e);
+      }
+      parameters.put("parent" + i, path.parentPath().asJsonbPathLiteral());
+      objectExpression
+          .insert(0, "jsonb_set(")
+          .append(", CAST(:path")
+          .append(i)
+          .append(" AS text[]), CAST(:value")
+          .append(i)
+          .append(" AS jsonb))");
+      // jsonb_set silently leaves the document unchanged if the parent doesn't exist, so only
+      // patch documents that already have every parent object.
+      shapeConditions
+          .append(" AND jsonb_typeof(object #> CAST(:parent")
+          .append(i)
+          .append(" AS text[])) = 'object'");
+    }
+
+    SqlUpdate update =
+        database.sqlUpdate(
+            "UPDATE applicants SET object = "
+                + objectExpression
+                + " WHERE id = :id"
+                + shapeConditions);
+    update.setParameter("id", applicant.id);
+    parameters.forEach(update::setParameter);
+    update.setLabel("ApplicantModel.patchApplicantData");
+    if (update.execute() != 1) {
+      return false;
+    }
+
+    APPLICANT_DATA_UPDATE_COUNT.labels("patch").inc();
+    applicant.markApplicantDataSaved();
+    // The patch bypassed Ebean, so reset the bean to match the row and not save it again.
+    beanState.setLoaded();
+    return true;
+  }
+
   public void updateTiClient(
       AccountModel account,
       ApplicantModel applicant,
@@ -357,6 +477,148 @@ public final class AccountRepository {
     return civiformProfile.getAccount().join().getMemberOfGroup();
   }
 
+  /** A page of the accounts managed by a trusted intermediary group. */
+  public record ManagedAccountsPage(ImmutableList<AccountModel> accounts, int totalCount) {}
+
+  /**
+   * The accounts managed by a group, each with its newest applicant, which is the one whose name
+   * and date of birth are shown and searched.
+   */
+  private static final String MANAGED_ACCOUNTS_FROM_CLAUSE =
+      """
+      from accounts
+      left join lateral (
+        select id, first_name, last_name, email_address, date_of_birth
+        from applicants
+        where applicants.account_id = accounts.id
+        order by applicants.when_created desc
+        limit 1
+      ) as newest_applicant on true
+      where accounts.managed_by_group_id = :groupId
+      """;
+
+  /** The same display name as {@link AccountModel#getApplicantDisplayName()}. */
+  private static final String MANAGED_ACCOUNT_DISPLAY_NAME =
+      """
+      coalesce(
+        case
+          when newest_applicant.first_name is null then null
+          when newest_applicant.last_name is null then newest_applicant.first_name
+          else newest_applicant.last_name || ', ' || newest_applicant.first_name
+        end,
+        newest_applicant.email_address,
+        accounts.email_address,
+        '<Unnamed User>')
+      """;
+
+  /**
+   * The lowercased applicant's part of {@link #MANAGED_ACCOUNT_DISPLAY_NAME}, for the applicants
+   * table aliased as the argument. It must match the expression indexed in evolution 91 for the
+   * index to be used.
+   */
+  private static final String APPLICANT_SEARCH_DISPLAY_NAME =
+      """
+      lower(
+        case
+          when %1$s.first_name is null then %1$s.email_address
+          when %1$s.last_name is null then %1$s.first_name
+          else %1$s.last_name || ', ' || %1$s.first_name
+        end)
+      """;
+
+  /**
+   * Whether the lowercased {@link #MANAGED_ACCOUNT_DISPLAY_NAME} matches the {@code :nameQuery}
+   * pattern. The newest applicant's part of the name is matched through the trigram index on
+   * {@link #APPLICANT_SEARCH_DISPLAY_NAME} rather than by computing it for every managed account.
+   */
+  private static final String MANAGED_ACCOUNT_NAME_MATCHES =
+      """
+      (newest_applicant.id in (select named.id from applicants named where %s like :nameQuery)
+      or (newest_applicant.first_name is null and newest_applicant.email_address is null
+        and lower(coalesce(accounts.email_address, '<Unnamed User>')) like :nameQuery))
+      """
+          .formatted(APPLICANT_SEARCH_DISPLAY_NAME.formatted("named"));
+
+  /**
+   * Returns a page of the accounts managed by a trusted intermediary group, sorted by their
+   * display name, along with the total number of accounts that match.
+   *
+   * <p>If neither {@code nameQuery} nor {@code dateOfBirth} is present then every managed account
+   * matches. Otherwise an account matches if its display name contains {@code nameQuery}, ignoring
+   * case, or if its date of birth is {@code dateOfBirth}.
+   *
+   * @param page the 1-indexed page to return
+   */
+  public ManagedAccountsPage searchManagedAccounts(
+      long groupId,
+      Optional<String> nameQuery,
+      Optional<LocalDate> dateOfBirth,
+      int pageSize,
+      int page) {
+    checkArgument(pageSize > 0, "pageSize must be positive");
+    checkArgument(page > 0, "page must be positive");
+    List<String> conditions = new ArrayList<>();
+    nameQuery.ifPresent(query -> conditions.add(MANAGED_ACCOUNT_NAME_MATCHES));
+    dateOfBirth.ifPresent(dob -> conditions.add("newest_applicant.date_of_birth = :dateOfBirth"));
+    String whereClause =
+        MANAGED_ACCOUNTS_FROM_CLAUSE
+            + (conditions.isEmpty() ? "" : " and (" + String.join(" or ", conditions) + ")");
+
+    SqlQuery countQuery =
+        database
+            .sqlQuery(
+                conditions.isEmpty()
+                    // Every managed account matches, so their newest applicants aren't needed.
+                    ? "select count(*) from accounts where accounts.managed_by_group_id = :groupId"
+                    : "select count(*) " + whereClause)
+            .setLabel("AccountRepository.searchManagedAccounts.count");
+    SqlQuery idQuery =
+        database
+            .sqlQuery(
+                "select accounts.id "
+                    + whereClause
+                    + " order by "
+                    + MANAGED_ACCOUNT_DISPLAY_NAME
+                    + " collate \"C\", accounts.id"
+                    + " limit :limit offset :offset")
+            .setLabel("AccountRepository.searchManagedAccounts")
+            .setParameter("limit", pageSize)
+            .setParameter("offset", (long) (page - 1) * pageSize);
+    for (SqlQuery query : ImmutableList.of(countQuery, idQuery)) {
+      query.setParameter("groupId", groupId);
+      nameQuery.ifPresent(
+          name ->
+              query.setParameter(
+                  "nameQuery", "%" + escapeLikePattern(name.toLowerCase(Locale.ROOT)) + "%"));
+      dateOfBirth.ifPresent(dob -> query.setParameter("dateOfBirth", dob));
+    }
+
+    int totalCount = countQuery.mapToScalar(Long.class).findOne().intValue();
+    List<Long> accountIds = idQuery.mapToScalar(Long.class).findList();
+    if (accountIds.isEmpty()) {
+      return new ManagedAccountsPage(ImmutableList.of(), totalCount);
+    }
+    Map<Long, AccountModel> accountsById =
+        database
+            .find(AccountModel.class)
+            .setLabel("AccountModel.findList")
+            .setProfileLocation(queryProfileLocationBuilder.create("searchManagedAccounts"))
+            .fetch("applicants")
+            .where()
+            .idIn(accountIds)
+            .findMap();
+    return new ManagedAccountsPage(
+        accountIds.stream()
+            .map(accountsById::get)
+            .filter(Objects::nonNull)
+            .collect(ImmutableList.toImmutableList()),
+        totalCount);
+  }
+
+  private static String escapeLikePattern(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
   /**
    * Create an applicant and add it to the provided trusted intermediary group. Associate it with an
    * email address if one is provided, but if one is not provided, use an anonymous (guest-style)
@@ -462,28 +724,58 @@ public final class AccountRepository {
             .findSet());
   }
 
-  /** Delete guest accounts that have no data and were created before the provided maximum age. */
-  public int deleteUnusedGuestAccounts(int minAgeInDays) {
+  /**
+   * Delete up to {@code limit} guest accounts that have no data and were created before the
+   * provided maximum age, looking only at applicants with an ID greater than {@code
+   * afterApplicantId}.
+   *
+   * @return the IDs of the deleted applicants in ascending order, which is empty once there are no
+   *     more to delete
+   */
+  public ImmutableList<Long> deleteUnusedGuestAccounts(
+      int minAgeInDays, long afterApplicantId, int limit) {
     String sql =
-        "WITH unused_accounts AS ( "
-            + "  SELECT applicants.account_id AS account_id, applicants.id AS applicant_id "
-            + "  FROM applicants"
-            + "  LEFT JOIN applications ON applicants.id = applications.applicant_id "
-            + "  LEFT JOIN accounts ON accounts.id = applicants.account_id "
-            + "  WHERE applications.applicant_id IS NULL "
-            + "  AND accounts.authority_id IS NULL "
-            + "  AND applicants.when_created < CURRENT_DATE - INTERVAL '"
-            + minAgeInDays
-            + " days' "
-            + "), "
-            + "applicants_deleted AS ("
-            + "  DELETE FROM applicants"
-            + "  WHERE applicants.id IN (SELECT applicant_id FROM unused_accounts) "
-            + ") "
-            + "DELETE FROM accounts "
-            + "WHERE accounts.id IN (SELECT account_id FROM unused_accounts);";
-
-    return database.sqlUpdate(sql).execute();
+        """
+        WITH unused_accounts AS (
+          SELECT applicants.account_id AS account_id, applicants.id AS applicant_id
+          FROM applicants
+          LEFT JOIN applications ON applicants.id = applications.applicant_id
+          LEFT JOIN accounts ON accounts.id = applicants.account_id
+          WHERE applications.applicant_id IS NULL
+          AND accounts.authority_id IS NULL
+          AND applicants.when_created < CURRENT_DATE - make_interval(days => :minAgeInDays)
+          AND applicants.id > :afterApplicantId
+          ORDER BY applicants.id
+          LIMIT :limit
+        ),
+        applicants_deleted AS (
+          DELETE FROM applicants
+          WHERE applicants.id IN (SELECT applicant_id FROM unused_accounts)
+          RETURNING applicants.id
+        ),
+        accounts_deleted AS (
+          DELETE FROM accounts
+          WHERE accounts.id IN (SELECT account_id FROM unused_accounts)
+        )
+        SELECT id FROM applicants_deleted ORDER BY id
+        """;
+
+    // The statement deletes rows, so make sure it runs in a transaction that is committed.
+    try (Transaction transaction = database.beginTransaction(TxScope.required())) {
+      ImmutableList<Long> deletedApplicantIds =
+          database
+              .sqlQuery(sql)
+              .setParameter("minAgeInDays", minAgeInDays)
+              .setParameter("afterApplicantId", afterApplicantId)
+              .setParameter("limit", limit)
+              .setLabel("AccountRepository.deleteUnusedGuestAccounts")
+              .mapToScalar(Long.class)
+              .findList()
+              .stream()
+              .collect(ImmutableList.toImmutableList());
+      transaction.commit();
+      return deletedApplicantIds;
+    }
   }
 
   /**
@@ -0,0 +1,53 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Holds the ID of the active version in memory, so that it only needs to be looked up once per
+ * publish rather than on every request.
+ *
+ * <p>The held ID is dropped whenever any server instance publishes a new version, via the {@link
+ * CacheInvalidationBus}. A lookup that was in flight when the ID was dropped is not held, since it
+ * may have read the previous active version.
+ */
+@Singleton
+public final class ActiveVersionHolder {
+
+  private record HeldVersionId(long generation, long versionId) {}
+
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<HeldVersionId> heldVersionId = new AtomicReference<>();
+
+  @Inject
+  public ActiveVersionHolder(CacheInvalidationBus cacheInvalidationBus) {
+    checkNotNull(cacheInvalidationBus)
+        .subscribe(CacheInvalidationBus.Event.VERSION_PUBLISHED, unusedKey -> invalidate());
+  }
+
+  /**
+   * Returns the held active version ID, or looks it up with {@code loader} and holds it if no ID is
+   * held.
+   */
+  long getActiveVersionId(LongSupplier loader) {
+    long currentGeneration = generation.get();
+    @Nullable HeldVersionId current = heldVersionId.get();
+    if (current != null && current.generation() == currentGeneration) {
+      return current.versionId();
+    }
+    long versionId = loader.getAsLong();
+    heldVersionId.compareAndSet(current, new HeldVersionId(currentGeneration, versionId));
+    return versionId;
+  }
+
+  /** Drops the held active version ID on this server instance. */
+  public void invalidate() {
+    generation.incrementAndGet();
+  }
+}
@@ -8,6 +8,8 @@ import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.PagedList;
 import io.ebean.Query;
+import io.ebean.SqlUpdate;
+import io.ebean.Transaction;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
@@ -102,21 +104,37 @@ public final class ApiKeyRepository {
         ImmutableList.copyOf(pagedList.getList()));
   }
 
-  /** Increment an API key's call count and set its last call IP address to the one provided. */
-  public void recordApiKeyUsage(String apiKeyId, String remoteAddress) {
-    ApiKeyModel apiKey =
-        database
-            .find(ApiKeyModel.class)
-            .where()
-            .eq("key_id", apiKeyId)
-            .setLabel("ApiKeyModel.findById")
-            .setProfileLocation(queryProfileLocationBuilder.create("recordApiKeyUsage"))
-            .findOne();
+  /** Calls made with an API key since its usage was last recorded. */
+  public record ApiKeyUsage(String keyId, long callCount, String lastCallIpAddress) {}
 
-    apiKey.incrementCallCount();
-    apiKey.setLastCallIpAddress(remoteAddress);
-
-    apiKey.save();
+  /**
+   * Adds each usage's calls to its API key's call count and sets the key's last call IP address, in
+   * a single batched transaction. The counts are incremented in the database rather than read and
+   * written back, so usages recorded concurrently by different servers are never lost.
+   */
+  public void recordApiKeyUsages(ImmutableList<ApiKeyUsage> usages) {
+    if (usages.isEmpty()) {
+      return;
+    }
+    try (Transaction transaction = database.beginTransaction()) {
+      transaction.setBatchMode(true);
+      SqlUpdate update =
+          database
+              .sqlUpdate(
+                  "UPDATE api_keys SET call_count = call_count + :callCount,"
+                      + " last_call_ip_address = :lastCallIpAddress,"
+                      + " update_time = CURRENT_TIMESTAMP WHERE key_id = :keyId")
+              .setLabel("ApiKeyModel.recordApiKeyUsages");
+      for (ApiKeyUsage usage : usages) {
+        update
+            .setParameter("callCount", usage.callCount())
+            .setParameter("lastCallIpAddress", usage.lastCallIpAddress())
+            .setParameter("keyId", usage.keyId())
+            .addBatch();
+      }
+      update.executeBatch();
+      transaction.commit();
+    }
   }
 
   /** Insert a new {@link ApiKeyModel} record asynchronously. */
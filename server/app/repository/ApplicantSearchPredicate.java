@@ -0,0 +1,94 @@
+package repository;
+
+import io.ebean.ExpressionList;
+import io.ebean.SqlQuery;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Matches submitted applications against a search by their ID or their applicant's phone number,
+ * email, or name, as described by {@link SubmittedApplicationFilter#searchNameFragment()}.
+ *
+ * <p>Shared by the Ebean queries that list applications and the raw SQL queries that export them,
+ * so that both find the same applications. Name and email searches use the applicant's {@code
+ * search_text} column and the index on {@code lower(submitter_email)}, both defined in evolution
+ * 87.
+ */
+final class ApplicantSearchPredicate {
+  private static final String PHONE_NUMBER_MATCHES =
+      "%s in (select searched.id from applicants searched where searched.phone_number ilike %s)";
+  private static final String SEARCH_TEXT_MATCHES =
+      "%s in (select searched.id from applicants searched where searched.search_text like %s)";
+  private static final String SUBMITTER_EMAIL_MATCHES = "lower(%s) like %s";
+
+  /** Present if the search is only digits, in which case it may be an application ID. */
+  private final Optional<Long> applicationId;
+
+  private final String pattern;
+
+  private ApplicantSearchPredicate(Optional<Long> applicationId, String pattern) {
+    this.applicationId = applicationId;
+    this.pattern = pattern;
+  }
+
+  /** Returns the predicate for {@code searchFragment}, or empty if it is absent or blank. */
+  static Optional<ApplicantSearchPredicate> forSearch(Optional<String> searchFragment) {
+    String search = searchFragment.orElse("").trim();
+    if (search.isEmpty()) {
+      return Optional.empty();
+    }
+    // Remove all special characters
+    String maybeOnlyDigits = search.replaceAll("[^a-zA-Z0-9]", "");
+    // Check if remaining string is actually only digits
+    if (maybeOnlyDigits.matches("^\\d+$")) {
+      return Optional.of(
+          new ApplicantSearchPredicate(
+              Optional.of(Long.parseLong(maybeOnlyDigits)), "%" + maybeOnlyDigits + "%"));
+    }
+    return Optional.of(
+        new ApplicantSearchPredicate(
+            Optional.empty(), "%" + search.toLowerCase(Locale.ROOT) + "%"));
+  }
+
+  /**
+   * Adds the predicate to a query of applications or their summaries. Ebean translates {@code
+   * "applicant.id"} to the {@code applicant_id} column of either.
+   */
+  <T> ExpressionList<T> apply(ExpressionList<T> query) {
+    if (applicationId.isPresent()) {
+      return query
+          .or()
+          .eq("id", applicationId.get())
+          .raw(String.format(PHONE_NUMBER_MATCHES, "applicant.id", "?"), pattern)
+          .endOr();
+    }
+    return query
+        .or()
+        .raw(String.format(SEARCH_TEXT_MATCHES, "applicant.id", "?"), pattern)
+        .raw(String.format(SUBMITTER_EMAIL_MATCHES, "submitter_email", "?"), pattern)
+        .endOr();
+  }
+
+  /**
+   * Returns the predicate as SQL over the {@code applications} table, using the named parameters
+   * that {@link #bind(SqlQuery)} sets.
+   */
+  String toSql() {
+    if (applicationId.isPresent()) {
+      return "(applications.id = :searchId OR "
+          + String.format(PHONE_NUMBER_MATCHES, "applications.applicant_id", ":searchPattern")
+          + ")";
+    }
+    return "("
+        + String.format(SEARCH_TEXT_MATCHES, "applications.applicant_id", ":searchPattern")
+        + " OR "
+        + String.format(SUBMITTER_EMAIL_MATCHES, "applications.submitter_email", ":searchPattern")
+        + ")";
+  }
+
+  /** Sets the parameters of the SQL returned by {@link #toSql()}. */
+  void bind(SqlQuery query) {
+    applicationId.ifPresent(id -> query.setParameter("searchId", id));
+    query.setParameter("searchPattern", pattern);
+  }
+}
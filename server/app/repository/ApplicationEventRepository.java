@@ -29,11 +29,15 @@ public final class ApplicationEventRepository {
       new QueryProfileLocationBuilder("ApplicationEventRepository");
   private final Database database;
   private final DatabaseExecutionContext executionContext;
+  private final ApplicationSummaryRepository applicationSummaryRepository;
 
   @Inject
-  public ApplicationEventRepository(DatabaseExecutionContext executionContext) {
+  public ApplicationEventRepository(
+      DatabaseExecutionContext executionContext,
+      ApplicationSummaryRepository applicationSummaryRepository) {
     this.database = checkNotNull(DB.getDefault());
     this.executionContext = checkNotNull(executionContext);
+    this.applicationSummaryRepository = checkNotNull(applicationSummaryRepository);
   }
 
   /**
@@ -110,6 +114,9 @@ public final class ApplicationEventRepository {
                 .where()
                 .eq("id", application.id)
                 .update();
+            applicationSummaryRepository.updateLatestStatus(
+                ImmutableList.of(application.id),
+                Optional.ofNullable(Strings.emptyToNull(newStatusEvent.statusText())));
             application.save();
             transaction.commit();
           }
@@ -119,8 +126,8 @@ public final class ApplicationEventRepository {
   }
 
   /**
-   * Updates the ApplicationEvents and the Applications table to the latest status in a single
-   * transaction for a given list of applications.
+   * Updates the ApplicationEvents and the Applications table, and the applications' summaries, to
+   * the latest status in a single transaction for a given list of applications.
    *
    * <p>Note - Application code must change both tables at once as we want to avoid inconsistency
    * between the tables.
@@ -167,6 +174,9 @@ public final class ApplicationEventRepository {
           .where()
           .in("id", applicationIds)
           .update();
+      applicationSummaryRepository.updateLatestStatus(
+          ImmutableList.copyOf(applicationIds),
+          Optional.ofNullable(Strings.emptyToNull(newStatusEvent.statusText())));
 
       transaction.commit();
     }
@@ -36,6 +36,8 @@ public final class ApplicationRepository {
 
   private final ProgramRepository programRepository;
   private final AccountRepository accountRepository;
+  private final ApplicationSummaryRepository applicationSummaryRepository;
+  private final ReportingRepository reportingRepository;
   private final Database database;
   private final DatabaseExecutionContext executionContext;
   private static final Logger LOGGER = LoggerFactory.getLogger(ApplicationRepository.class);
@@ -44,9 +46,13 @@ public final class ApplicationRepository {
   public ApplicationRepository(
       ProgramRepository programRepository,
       AccountRepository accountRepository,
+      ApplicationSummaryRepository applicationSummaryRepository,
+      ReportingRepository reportingRepository,
       DatabaseExecutionContext executionContext) {
     this.programRepository = checkNotNull(programRepository);
     this.accountRepository = checkNotNull(accountRepository);
+    this.applicationSummaryRepository = checkNotNull(applicationSummaryRepository);
+    this.reportingRepository = checkNotNull(reportingRepository);
     this.database = DB.getDefault();
     this.executionContext = checkNotNull(executionContext);
   }
@@ -153,11 +159,17 @@ public final class ApplicationRepository {
           throw new DuplicateApplicationException();
         }
         // https://github.com/civiform/civiform/issues/3227
-        if (app.getSubmitTime() == null) {
+        boolean wasSubmitted = app.getSubmitTime() != null;
+        if (!wasSubmitted) {
           app.setSubmitTimeToNow();
         }
         app.setLifecycleStage(LifecycleStage.OBSOLETE);
         app.save();
+        if (!wasSubmitted) {
+          // The application now has a submit time, so it's listed with the submitted ones.
+          applicationSummaryRepository.upsertSubmittedApplication(app);
+          reportingRepository.recordSubmission(app);
+        }
       }
       application
           .setEligibilityDetermination(eligibilityDetermination)
@@ -166,6 +178,8 @@ public final class ApplicationRepository {
           .setSubmitTimeToNow();
       tiSubmitterEmail.ifPresent(application::setSubmitterEmail);
       application.save();
+      applicationSummaryRepository.upsertSubmittedApplication(application);
+      reportingRepository.recordSubmission(application);
 
       transaction.commit();
       return application;
@@ -0,0 +1,73 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import io.ebean.Database;
+import java.util.Optional;
+import javax.inject.Inject;
+import models.ApplicationModel;
+import models.ApplicationSummaryModel;
+
+/**
+ * ApplicationSummaryRepository keeps {@link ApplicationSummaryModel} rows in step with the
+ * applications they summarize.
+ *
+ * <p>Its methods run on the caller's current transaction, so that a summary is always written
+ * together with the change to its application.
+ */
+public final class ApplicationSummaryRepository {
+  private final Database database;
+
+  @Inject
+  public ApplicationSummaryRepository() {
+    this.database = DB.getDefault();
+  }
+
+  /** Creates or replaces the summary of a submitted {@code application}. */
+  void upsertSubmittedApplication(ApplicationModel application) {
+    String sql =
+        """
+        INSERT INTO application_summary (id, program_id, applicant_id, applicant_name,
+          submitter_email, submit_time, latest_status, eligibility_determination)
+        VALUES (:id, :programId, :applicantId, :applicantName,
+          :submitterEmail, :submitTime, :latestStatus, :eligibilityDetermination)
+        ON CONFLICT (id) DO UPDATE SET
+          program_id = EXCLUDED.program_id,
+          applicant_id = EXCLUDED.applicant_id,
+          applicant_name = EXCLUDED.applicant_name,
+          submitter_email = EXCLUDED.submitter_email,
+          submit_time = EXCLUDED.submit_time,
+          latest_status = EXCLUDED.latest_status,
+          eligibility_determination = EXCLUDED.eligibility_determination
+        """;
+    database
+        .sqlUpdate(sql)
+        .setParameter("id", checkNotNull(application.id))
+        .setParameter("programId", application.getProgram().id)
+        .setParameter("applicantId", application.getApplicant().id)
+        .setParameter(
+            "applicantName", application.getApplicant().getApplicantDisplayName().orElse(null))
+        .setParameter("submitterEmail", application.getSubmitterEmail().orElse(null))
+        .setParameter("submitTime", application.getSubmitTime())
+        .setParameter("latestStatus", application.getLatestStatus().orElse(null))
+        .setParameter(
+            "eligibilityDetermination", application.getEligibilityDetermination().getValue())
+        .setLabel("ApplicationSummaryRepository.upsertSubmittedApplication")
+        .execute();
+  }
+
+  /** Sets the latest status of the applications with {@code applicationIds}. */
+  void updateLatestStatus(ImmutableList<Long> applicationIds, Optional<String> latestStatus) {
+    if (applicationIds.isEmpty()) {
+      return;
+    }
+    database
+        .update(ApplicationSummaryModel.class)
+        .set("latest_status", latestStatus.orElse(null))
+        .where()
+        .in("id", applicationIds)
+        .update();
+  }
+}
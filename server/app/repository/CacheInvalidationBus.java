@@ -0,0 +1,193 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.typesafe.config.Config;
+import io.ebean.DB;
+import io.ebean.Database;
+import io.ebean.Transaction;
+import io.ebean.TransactionCallbackAdapter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+
+/**
+ * Broadcasts cache invalidation events to every server instance using Postgres LISTEN/NOTIFY.
+ *
+ * <p>Events are sent with {@code pg_notify} on the caller's current Ebean transaction, so Postgres
+ * only delivers them once that transaction commits, and never if it rolls back. Each instance
+ * holds one connection, outside of the connection pool, that listens for events, including its
+ * own, and runs the subscribers for them.
+ *
+ * <p>An event may name the key of the cache entry it invalidates. If the listening connection is
+ * lost then events may have been missed, so every subscriber is run without a key, meaning that all
+ * of its entries may be stale, when it (re)connects.
+ */
+@Singleton
+public final class CacheInvalidationBus {
+
+  private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+  private static final String CHANNEL = "civiform_cache_invalidation";
+  private static final int POLL_TIMEOUT_MILLIS = 1000;
+  private static final long RECONNECT_DELAY_MILLIS = 5000;
+  private static final String KEY_SEPARATOR = ":";
+
+  /** The events that may be broadcast on the bus. */
+  public enum Event {
+    /** A new version was published, with the new active version's ID in the key. */
+    VERSION_PUBLISHED,
+    /** The API key with the key ID in the key was retired. */
+    API_KEY_RETIRED,
+    /** The server settings were updated, with the new settings group's ID in the key. */
+    SETTINGS_UPDATED,
+  }
+
+  private final String databaseUrl;
+  private final String databaseUsername;
+  private final String databasePassword;
+  private final ImmutableMap<Event, CopyOnWriteArrayList<Consumer<Optional<String>>>> subscribers;
+  private final Thread listenerThread;
+  private volatile boolean running = true;
+
+  @Inject
+  public CacheInvalidationBus(Config config, ApplicationLifecycle appLifecycle) {
+    this.databaseUrl = checkNotNull(config).getString("db.default.url");
+    this.databaseUsername = config.getString("db.default.username");
+    this.databasePassword = config.getString("db.default.password");
+    this.subscribers =
+        Maps.toMap(
+            EnumSet.allOf(Event.class),
+            event -> new CopyOnWriteArrayList<Consumer<Optional<String>>>());
+    this.listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+    listenerThread.setDaemon(true);
+    listenerThread.start();
+
+    appLifecycle.addStopHook(
+        () -> {
+          running = false;
+          listenerThread.interrupt();
+          return CompletableFuture.completedFuture(null);
+        });
+  }
+
+  /**
+   * Runs {@code subscriber} on this instance whenever any instance publishes {@code event}. The
+   * subscriber is given the event's key, or an empty value if every entry may be stale.
+   */
+  public void subscribe(Event event, Consumer<Optional<String>> subscriber) {
+    subscribers.get(event).add(checkNotNull(subscriber));
+  }
+
+  /**
+   * Publishes {@code event} for the cache entry with {@code key} to every instance once the current
+   * transaction commits, or immediately if there is no current transaction.
+   *
+   * <p>The subscribers on this instance are also run directly after the commit, rather than waiting
+   * for the notification to come back.
+   */
+  public void publish(Event event, String key) {
+    Database database = DB.getDefault();
+    database
+        .sqlQuery("SELECT pg_notify(:channel, :payload)")
+        .setParameter("channel", CHANNEL)
+        .setParameter("payload", event.name() + KEY_SEPARATOR + checkNotNull(key))
+        .setLabel("CacheInvalidationBus.publish")
+        .findOne();
+
+    Transaction transaction = database.currentTransaction();
+    if (transaction == null) {
+      dispatch(event, Optional.of(key));
+      return;
+    }
+    transaction.register(
+        new TransactionCallbackAdapter() {
+          @Override
+          public void postCommit() {
+            dispatch(event, Optional.of(key));
+          }
+        });
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection =
+              DriverManager.getConnection(databaseUrl, databaseUsername, databasePassword);
+          Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + CHANNEL);
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        // Anything cached before now may have missed an event.
+        dispatchToAll();
+
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            dispatch(notification.getParameter());
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        logger.warn("Lost the cache invalidation listener connection, reconnecting", e);
+        dispatchToAll();
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void dispatch(String payload) {
+    String eventName = payload;
+    Optional<String> key = Optional.empty();
+    int separatorIndex = payload.indexOf(KEY_SEPARATOR);
+    if (separatorIndex >= 0) {
+      eventName = payload.substring(0, separatorIndex);
+      key = Optional.of(payload.substring(separatorIndex + KEY_SEPARATOR.length()));
+    }
+    Event event;
+    try {
+      event = Event.valueOf(eventName);
+    } catch (IllegalArgumentException e) {
+      // Sent by an instance running a different version of the server.
+      logger.warn("Ignoring unknown cache invalidation event {}", payload);
+      return;
+    }
+    dispatch(event, key);
+  }
+
+  private void dispatchToAll() {
+    subscribers.keySet().forEach(event -> dispatch(event, Optional.empty()));
+  }
+
+  private void dispatch(Event event, Optional<String> key) {
+    for (Consumer<Optional<String>> subscriber : subscribers.get(event)) {
+      try {
+        subscriber.accept(key);
+      } catch (RuntimeException e) {
+        logger.error("Cache invalidation subscriber for {} failed", event, e);
+      }
+    }
+  }
+}
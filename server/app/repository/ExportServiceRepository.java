@@ -1,13 +1,21 @@
 package repository;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.ebean.DB;
 import io.ebean.Database;
+import io.ebean.SqlQuery;
+import io.ebean.SqlRow;
+import java.sql.Timestamp;
+import java.util.Optional;
 import javax.inject.Inject;
+import services.Path;
 import services.question.types.QuestionDefinition;
 
 /** Implements queries related to CSV exporting needs. */
 public final class ExportServiceRepository {
+
   private final Database database;
 
   @Inject
@@ -56,4 +64,92 @@ public final class ExportServiceRepository {
     }
     return allOptions;
   }
+
+  /**
+   * Returns the largest number of repeated entities at each of {@code enumeratorPaths}, across the
+   * submitted applications to all versions of the program that match {@code filters}.
+   *
+   * <p>Counts are grouped by the ID of the program version the application was submitted to. Every
+   * version with at least one matching application has an entry, even if {@code enumeratorPaths}
+   * is empty, so the key set identifies the versions present in an export.
+   *
+   * <p>The aggregate is computed in the database so that callers can discover the shape of an
+   * export without loading the applications themselves.
+   *
+   * @param programId the ID of any version of the program
+   * @param filters the filters applied to the exported applications
+   * @param enumeratorPaths contextualized paths to repeated entity arrays, such as {@code
+   *     applicant.household_members[]} or {@code applicant.household_members[2].jobs[]}
+   */
+  public ImmutableMap<Long, ImmutableMap<Path, Integer>> getMaxRepeatedEntityCountsByProgram(
+      long programId, SubmittedApplicationFilter filters, ImmutableSet<Path> enumeratorPaths) {
+    ImmutableList<Path> paths = enumeratorPaths.asList();
+    StringBuilder sql = new StringBuilder("SELECT applications.program_id");
+    for (int i = 0; i < paths.size(); i++) {
+      sql.append(
+          String.format(
+              ", MAX(CASE WHEN jsonb_typeof(applications.object #> CAST(:path%1$d AS text[]))"
+                  + " = 'array' THEN jsonb_array_length(applications.object #> CAST(:path%1$d AS"
+                  + " text[])) ELSE 0 END) AS count%1$d",
+              i));
+    }
+    sql.append(
+        " FROM applications"
+            + " WHERE applications.program_id IN ("
+            + "   SELECT id FROM programs WHERE name = ("
+            + "     SELECT name FROM programs WHERE id = :programId))"
+            + " AND applications.lifecycle_stage IN ('active', 'obsolete')");
+
+    if (filters.submitTimeFilter().fromTime().isPresent()) {
+      sql.append(" AND applications.submit_time >= :fromTime");
+    }
+    if (filters.submitTimeFilter().untilTime().isPresent()) {
+      sql.append(" AND applications.submit_time < :untilTime");
+    }
+
+    Optional<ApplicantSearchPredicate> search =
+        ApplicantSearchPredicate.forSearch(filters.searchNameFragment());
+    search.ifPresent(predicate -> sql.append(" AND ").append(predicate.toSql()));
+
+    String toMatchStatus = filters.applicationStatus().orElse("");
+    if (toMatchStatus.equals(SubmittedApplicationFilter.NO_STATUS_FILTERS_OPTION_UUID)) {
+      sql.append(" AND applications.latest_status IS NULL");
+    } else if (!toMatchStatus.isBlank()) {
+      sql.append(" AND applications.latest_status = :status");
+    }
+    sql.append(" GROUP BY applications.program_id");
+
+    SqlQuery query =
+        database
+            .sqlQuery(sql.toString())
+            .setLabel("ExportServiceRepository.getMaxRepeatedEntityCountsByProgram")
+            .setParameter("programId", programId);
+    for (int i = 0; i < paths.size(); i++) {
+      query.setParameter("path" + i, paths.get(i).withoutArrayReference().asJsonbPathLiteral());
+    }
+    filters
+        .submitTimeFilter()
+        .fromTime()
+        .ifPresent(fromTime -> query.setParameter("fromTime", Timestamp.from(fromTime)));
+    filters
+        .submitTimeFilter()
+        .untilTime()
+        .ifPresent(untilTime -> query.setParameter("untilTime", Timestamp.from(untilTime)));
+    search.ifPresent(predicate -> predicate.bind(query));
+    if (!toMatchStatus.isBlank()
+        && !toMatchStatus.equals(SubmittedApplicationFilter.NO_STATUS_FILTERS_OPTION_UUID)) {
+      query.setParameter("status", toMatchStatus);
+    }
+
+    ImmutableMap.Builder<Long, ImmutableMap<Path, Integer>> countsByProgram =
+        ImmutableMap.builder();
+    for (SqlRow row : query.findList()) {
+      ImmutableMap.Builder<Path, Integer> counts = ImmutableMap.builder();
+      for (int i = 0; i < paths.size(); i++) {
+        counts.put(paths.get(i), row.getInteger("count" + i));
+      }
+      countsByProgram.put(row.getLong("program_id"), counts.build());
+    }
+    return countsByProgram.build();
+  }
 }
@@ -0,0 +1,79 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Optional;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import play.cache.AsyncCacheApi;
+import play.cache.NamedCache;
+import repository.CacheInvalidationBus.Event;
+
+/**
+ * Removes entries from this server instance's named caches when any instance publishes a {@link
+ * CacheInvalidationBus} event for them.
+ *
+ * <p>This is bound as an eager singleton so that every instance subscribes at startup, before
+ * anything is cached.
+ */
+@Singleton
+public final class NamedCacheInvalidator {
+
+  private final AsyncCacheApi programCache;
+  private final AsyncCacheApi programDefCache;
+  private final AsyncCacheApi versionsByProgramCache;
+  private final AsyncCacheApi programsByVersionCache;
+  private final AsyncCacheApi questionsByVersionCache;
+  private final AsyncCacheApi apiKeyCache;
+  private final AsyncCacheApi apiKeyCredentialCache;
+
+  @Inject
+  public NamedCacheInvalidator(
+      CacheInvalidationBus cacheInvalidationBus,
+      @NamedCache("program") AsyncCacheApi programCache,
+      @NamedCache("full-program-definition") AsyncCacheApi programDefCache,
+      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache,
+      @NamedCache("version-programs") AsyncCacheApi programsByVersionCache,
+      @NamedCache("version-questions") AsyncCacheApi questionsByVersionCache,
+      @NamedCache("api-keys") AsyncCacheApi apiKeyCache,
+      @NamedCache("api-key-credentials") AsyncCacheApi apiKeyCredentialCache) {
+    this.programCache = checkNotNull(programCache);
+    this.programDefCache = checkNotNull(programDefCache);
+    this.versionsByProgramCache = checkNotNull(versionsByProgramCache);
+    this.programsByVersionCache = checkNotNull(programsByVersionCache);
+    this.questionsByVersionCache = checkNotNull(questionsByVersionCache);
+    this.apiKeyCache = checkNotNull(apiKeyCache);
+    this.apiKeyCredentialCache = checkNotNull(apiKeyCredentialCache);
+
+    checkNotNull(cacheInvalidationBus);
+    cacheInvalidationBus.subscribe(Event.VERSION_PUBLISHED, this::onVersionPublished);
+    cacheInvalidationBus.subscribe(Event.API_KEY_RETIRED, this::onApiKeyRetired);
+  }
+
+  private void onVersionPublished(Optional<String> activeVersionId) {
+    // Publishing changes which versions every program is in. Entries keyed by version or by
+    // non-draft program ID are otherwise unchanged by publishing, so are only removed if an event
+    // may have been missed.
+    removeAll(programCache);
+    removeAll(versionsByProgramCache);
+    if (activeVersionId.isEmpty()) {
+      removeAll(programDefCache);
+      removeAll(programsByVersionCache);
+      removeAll(questionsByVersionCache);
+    }
+  }
+
+  private void onApiKeyRetired(Optional<String> keyId) {
+    if (keyId.isEmpty()) {
+      removeAll(apiKeyCache);
+      removeAll(apiKeyCredentialCache);
+      return;
+    }
+    apiKeyCache.remove(keyId.get()).toCompletableFuture().join();
+    apiKeyCredentialCache.remove(keyId.get()).toCompletableFuture().join();
+  }
+
+  private static void removeAll(AsyncCacheApi cache) {
+    cache.removeAll().toCompletableFuture().join();
+  }
+}
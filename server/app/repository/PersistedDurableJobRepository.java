@@ -3,14 +3,17 @@ package repository;
 import annotations.BindingAnnotations;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.ebean.DB;
 import io.ebean.Database;
+import io.ebean.SqlQuery;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import models.JobType;
+import models.PersistedDurableJobCheckpointModel;
 import models.PersistedDurableJobModel;
 
 /** Implements queries related to {@link PersistedDurableJobModel}. */
@@ -111,6 +114,53 @@ public final class PersistedDurableJobRepository {
         .findOneOrEmpty();
   }
 
+  /**
+   * The number of recurring jobs that are ready to be executed or are being executed, by job name.
+   * See {@link #getRecurringJobForExecution}.
+   */
+  public ImmutableMap<String, Integer> countRecurringJobsReadyForExecution() {
+    return countJobsByName(
+        database
+            .sqlQuery(
+                """
+                SELECT job_name, count(*) AS job_count
+                FROM persisted_durable_jobs
+                WHERE job_type = 'RECURRING'
+                AND execution_time <= :now
+                AND remaining_attempts > 0
+                AND success_time IS NULL
+                GROUP BY job_name
+                """)
+            .setParameter("now", nowProvider.get())
+            .setLabel("PersistedDurableJobRepository.countRecurringJobsReadyForExecution"));
+  }
+
+  /**
+   * The number of startup jobs that are ready to be executed or are being executed, by job name.
+   * See {@link #getStartupJobForExecution}.
+   */
+  public ImmutableMap<String, Integer> countStartupJobsReadyForExecution() {
+    return countJobsByName(
+        database
+            .sqlQuery(
+                """
+                SELECT job_name, count(*) AS job_count
+                FROM persisted_durable_jobs
+                WHERE job_type IN ('RUN_ONCE', 'RUN_ON_EACH_STARTUP')
+                AND remaining_attempts > 0
+                AND success_time IS NULL
+                GROUP BY job_name
+                """)
+            .setLabel("PersistedDurableJobRepository.countStartupJobsReadyForExecution"));
+  }
+
+  private static ImmutableMap<String, Integer> countJobsByName(SqlQuery query) {
+    return query.findList().stream()
+        .collect(
+            ImmutableMap.toImmutableMap(
+                row -> row.getString("job_name"), row -> row.getInteger("job_count")));
+  }
+
   /** All {@link PersistedDurableJobModel}s ordered by execution time ascending. */
   public ImmutableList<PersistedDurableJobModel> getJobs() {
     return ImmutableList.copyOf(
@@ -122,18 +172,65 @@ public final class PersistedDurableJobRepository {
             .findList());
   }
 
+  /** Gets the checkpoint saved by the chunked job with {@code jobId}, if there is one. */
+  public Optional<String> getCheckpoint(long jobId) {
+    return database
+        .find(PersistedDurableJobCheckpointModel.class)
+        .setLabel("PersistedDurableJobCheckpointModel.findById")
+        .setProfileLocation(queryProfileLocationBuilder.create("getCheckpoint"))
+        .where()
+        .idEq(jobId)
+        .findOneOrEmpty()
+        .map(PersistedDurableJobCheckpointModel::getCheckpoint);
+  }
+
+  /**
+   * Saves {@code checkpoint} for the chunked job with {@code jobId}, replacing any previous one, in
+   * the current transaction.
+   */
+  public void saveCheckpoint(long jobId, String checkpoint) {
+    database
+        .sqlUpdate(
+            """
+            INSERT INTO persisted_durable_job_checkpoints (id, checkpoint, update_time)
+            VALUES (:id, :checkpoint, CURRENT_TIMESTAMP)
+            ON CONFLICT (id) DO UPDATE SET
+              checkpoint = EXCLUDED.checkpoint,
+              update_time = EXCLUDED.update_time
+            """)
+        .setParameter("id", jobId)
+        .setParameter("checkpoint", checkpoint)
+        .setLabel("PersistedDurableJobRepository.saveCheckpoint")
+        .execute();
+  }
+
+  /** Deletes the checkpoint of the chunked job with {@code jobId}, in the current transaction. */
+  public void deleteCheckpoint(long jobId) {
+    database.delete(PersistedDurableJobCheckpointModel.class, jobId);
+  }
+
   /**
    * Delete all {@link PersistedDurableJobModel}s that have an execution time older than six months
-   * and that are a recurring JobType.
+   * and that are a recurring JobType, along with the checkpoints of any deleted jobs.
    */
   public int deleteJobsOlderThanSixMonths() {
-    return database
+    int deletedJobs =
+        database
+            .sqlUpdate(
+                """
+                DELETE FROM persisted_durable_jobs
+                WHERE job_type = 'RECURRING'
+                AND execution_time < CURRENT_DATE - INTERVAL '6 months'
+                """)
+            .execute();
+    // Checkpoints aren't deleted along with their jobs since they have no foreign key.
+    database
         .sqlUpdate(
             """
-            DELETE FROM persisted_durable_jobs
-            WHERE job_type = 'RECURRING'
-            AND execution_time < CURRENT_DATE - INTERVAL '6 months'
+            DELETE FROM persisted_durable_job_checkpoints
+            WHERE id NOT IN (SELECT id FROM persisted_durable_jobs)
             """)
         .execute();
+    return deletedJobs;
   }
 }
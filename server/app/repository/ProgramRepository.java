@@ -23,6 +23,7 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import models.AccountModel;
 import models.ApplicationModel;
+import models.ApplicationSummaryModel;
 import models.LifecycleStage;
 import models.ProgramModel;
 import models.VersionModel;
@@ -37,6 +38,7 @@ import services.program.ProgramDefinition;
 import services.program.ProgramDraftNotFoundException;
 import services.program.ProgramNotFoundException;
 import services.program.ProgramQuestionDefinition;
+import services.program.ProgramQuestionSnapshot;
 import services.question.types.QuestionDefinition;
 import services.question.types.QuestionType;
 import services.settings.SettingsManifest;
@@ -47,6 +49,9 @@ import services.settings.SettingsManifest;
  */
 public final class ProgramRepository {
   private static final Logger logger = LoggerFactory.getLogger(ProgramRepository.class);
+  // Keys in the program-versions cache, which is keyed by program ID, for other values that are
+  // cached until a new version is published.
+  private static final String VERSION_IDS_KEY_PREFIX = "version-ids:";
   private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
       new QueryProfileLocationBuilder("ProgramRepository");
 
@@ -115,6 +120,17 @@ public final class ProgramRepository {
 
   public ProgramModel updateProgramSync(ProgramModel program) {
     database.update(program);
+    // A snapshot taken when the program was published stays valid as long as it has every question
+    // that the program now refers to.
+    if (getFullProgramDefinitionFromSnapshot(program).isEmpty()) {
+      database
+          .sqlUpdate(
+              "UPDATE programs SET question_snapshot = NULL"
+                  + " WHERE id = :id AND question_snapshot IS NOT NULL")
+          .setParameter("id", program.id)
+          .setLabel("ProgramModel.clearQuestionSnapshot")
+          .execute();
+    }
     return program;
   }
 
@@ -164,6 +180,55 @@ public final class ProgramRepository {
     return Optional.empty();
   }
 
+  /**
+   * Gets the program definition that contains the related question data from the snapshot of its
+   * questions taken when it was published, if it has one. See {@link ProgramQuestionSnapshot}.
+   */
+  public Optional<ProgramDefinition> getFullProgramDefinitionFromSnapshot(ProgramModel program) {
+    return database
+        .sqlQuery("SELECT question_snapshot::text AS snapshot FROM programs WHERE id = :id")
+        .setParameter("id", program.id)
+        .setLabel("ProgramModel.findQuestionSnapshot")
+        .setProfileLocation(
+            queryProfileLocationBuilder.create("getFullProgramDefinitionFromSnapshot"))
+        .findOneOrEmpty()
+        .flatMap(row -> Optional.ofNullable(row.getString("snapshot")))
+        .flatMap(
+            snapshot -> ProgramQuestionSnapshot.load(program.getProgramDefinition(), snapshot));
+  }
+
+  /** Returns the IDs in {@code programIds} of programs that don't have a question snapshot. */
+  public ImmutableSet<Long> getProgramIdsWithoutQuestionSnapshot(ImmutableSet<Long> programIds) {
+    if (programIds.isEmpty()) {
+      return ImmutableSet.of();
+    }
+    return database
+        .sqlQuery("SELECT id FROM programs WHERE id IN (:ids) AND question_snapshot IS NULL")
+        .setParameter("ids", programIds)
+        .setLabel("ProgramModel.findIdsWithoutQuestionSnapshot")
+        .setProfileLocation(
+            queryProfileLocationBuilder.create("getProgramIdsWithoutQuestionSnapshot"))
+        .findList()
+        .stream()
+        .map(row -> row.getLong("id"))
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
+  /**
+   * Stores {@code snapshot} as the question snapshot for the program with {@code programId}, unless
+   * it already has one. Snapshots must only be stored for programs that aren't drafts.
+   */
+  public void setQuestionSnapshot(long programId, String snapshot) {
+    database
+        .sqlUpdate(
+            "UPDATE programs SET question_snapshot = CAST(:snapshot AS jsonb)"
+                + " WHERE id = :id AND question_snapshot IS NULL")
+        .setParameter("snapshot", snapshot)
+        .setParameter("id", programId)
+        .setLabel("ProgramModel.setQuestionSnapshot")
+        .execute();
+  }
+
   /**
    * Sets the program definition that contains the related question data in the cache (if enabled).
    *
@@ -393,20 +458,74 @@ public final class ProgramRepository {
    */
   public PaginationResult<ApplicationModel> getApplicationsForAllProgramVersions(
       long programId, BasePaginationSpec paginationSpec, SubmittedApplicationFilter filters) {
-    ExpressionList<ApplicationModel> query =
+    return findSubmittedApplicationsPage(
+        programId,
+        applicationsForAllProgramVersionsQuery(programId),
+        paginationSpec,
+        filters,
+        /* countPages= */ true);
+  }
+
+  /**
+   * Like {@link #getApplicationsForAllProgramVersions}, but without counting the matching
+   * applications, for callers that only page through them in sequence. {@link
+   * PaginationResult#getNumPages()} of the result is always 0.
+   */
+  public PaginationResult<ApplicationModel> getApplicationsForAllProgramVersionsWithoutCount(
+      long programId, BasePaginationSpec paginationSpec, SubmittedApplicationFilter filters) {
+    return findSubmittedApplicationsPage(
+        programId,
+        applicationsForAllProgramVersionsQuery(programId),
+        paginationSpec,
+        filters,
+        /* countPages= */ false);
+  }
+
+  private ExpressionList<ApplicationModel> applicationsForAllProgramVersionsQuery(long programId) {
+    return database
+        .find(ApplicationModel.class)
+        .setLabel("ApplicationModel.findList")
+        .setProfileLocation(
+            queryProfileLocationBuilder.create("getApplicationsForAllProgramVersions"))
+        .fetch("applicant")
+        .fetch("applicant.account.managedByGroup")
+        .where()
+        .in("program_id", getAllProgramVersionIds(programId))
+        .in("lifecycle_stage", ImmutableList.of(LifecycleStage.ACTIVE, LifecycleStage.OBSOLETE));
+  }
+
+  /**
+   * Get the summaries of the same applications as {@link #getApplicationsForAllProgramVersions},
+   * in the same order, without loading the applicants or their answers.
+   */
+  public PaginationResult<ApplicationSummaryModel> getApplicationSummariesForAllProgramVersions(
+      long programId, BasePaginationSpec paginationSpec, SubmittedApplicationFilter filters) {
+    // Only submitted applications have summaries, so there is no need to filter by lifecycle stage.
+    ExpressionList<ApplicationSummaryModel> query =
         database
-            .find(ApplicationModel.class)
-            .setLabel("ApplicationModel.findList")
+            .find(ApplicationSummaryModel.class)
+            .setLabel("ApplicationSummaryModel.findList")
             .setProfileLocation(
-                queryProfileLocationBuilder.create("getApplicationsForAllProgramVersions"))
-            .fetch("applicant")
-            .fetch("applicant.account.managedByGroup")
+                queryProfileLocationBuilder.create("getApplicationSummariesForAllProgramVersions"))
             .where()
-            .in("program_id", allProgramVersionsQuery(programId))
-            .in(
-                "lifecycle_stage",
-                ImmutableList.of(LifecycleStage.ACTIVE, LifecycleStage.OBSOLETE));
+            .in("program_id", getAllProgramVersionIds(programId));
+    return findSubmittedApplicationsPage(
+        programId, query, paginationSpec, filters, /* countPages= */ true);
+  }
 
+  /**
+   * Applies {@code filters} and {@code paginationSpec} to a query of submitted applications, or of
+   * their summaries, which share the columns that are filtered on.
+   *
+   * @param countPages whether to count the matching rows for the number of pages, rather than
+   *     leaving it 0
+   */
+  private <T> PaginationResult<T> findSubmittedApplicationsPage(
+      long programId,
+      ExpressionList<T> query,
+      BasePaginationSpec paginationSpec,
+      SubmittedApplicationFilter filters,
+      boolean countPages) {
     if (filters.submitTimeFilter().fromTime().isPresent()) {
       query = query.where().ge("submit_time", filters.submitTimeFilter().fromTime().get());
     }
@@ -415,9 +534,10 @@ public final class ProgramRepository {
       query = query.where().lt("submit_time", filters.submitTimeFilter().untilTime().get());
     }
 
-    if (filters.searchNameFragment().isPresent() && !filters.searchNameFragment().get().isBlank()) {
-      String search = filters.searchNameFragment().get().trim();
-      query = searchUsingPrimaryApplicantInfo(search, query);
+    Optional<ApplicantSearchPredicate> search =
+        ApplicantSearchPredicate.forSearch(filters.searchNameFragment());
+    if (search.isPresent()) {
+      query = search.get().apply(query);
     }
 
     String toMatchStatus = filters.applicationStatus().orElse("");
@@ -430,13 +550,73 @@ public final class ProgramRepository {
     }
 
     // Sort order is dictated by the pagination spec that was specified.
-    PagedList<ApplicationModel> pagedQuery = paginationSpec.apply(query.query()).findPagedList();
-    pagedQuery.loadCount();
+    Query<T> pageQuery = paginationSpec.apply(query.query());
+    if (countPages && !isUnfiltered(filters)) {
+      PagedList<T> pagedQuery = pageQuery.findPagedList();
+      pagedQuery.loadCount();
+
+      return new PaginationResult<T>(
+          pagedQuery.hasNext(),
+          pagedQuery.getTotalPageCount(),
+          pagedQuery.getList().stream().collect(ImmutableList.toImmutableList()));
+    }
+
+    // An unfiltered view is counted without applying any filters, and a sequential export isn't
+    // counted at all. Fetching one more row than fits on the page tells whether there is a next
+    // page.
+    int pageSize = paginationSpec.getPageSize();
+    List<T> rows =
+        pageQuery
+            .setMaxRows(pageSize == Integer.MAX_VALUE ? pageSize : pageSize + 1)
+            .findList();
+    int numPages =
+        countPages
+            ? (int) Math.ceil((double) lookupSubmittedApplicationCount(programId) / pageSize)
+            : 0;
+    return new PaginationResult<T>(
+        rows.size() > pageSize,
+        numPages,
+        rows.stream().limit(pageSize).collect(ImmutableList.toImmutableList()));
+  }
 
-    return new PaginationResult<ApplicationModel>(
-        pagedQuery.hasNext(),
-        pagedQuery.getTotalPageCount(),
-        pagedQuery.getList().stream().collect(ImmutableList.toImmutableList()));
+  private static boolean isUnfiltered(SubmittedApplicationFilter filters) {
+    return filters.submitTimeFilter().fromTime().isEmpty()
+        && filters.submitTimeFilter().untilTime().isEmpty()
+        && filters.searchNameFragment().map(String::isBlank).orElse(true)
+        && filters.applicationStatus().map(String::isBlank).orElse(true);
+  }
+
+  /** Returns the number of submitted applications for every version of the program. */
+  private int lookupSubmittedApplicationCount(long programId) {
+    return database
+        .find(ApplicationModel.class)
+        .setLabel("ApplicationModel.findCount")
+        .setProfileLocation(queryProfileLocationBuilder.create("lookupSubmittedApplicationCount"))
+        .where()
+        .in("program_id", getAllProgramVersionIds(programId))
+        .in("lifecycle_stage", ImmutableList.of(LifecycleStage.ACTIVE, LifecycleStage.OBSOLETE))
+        .findCount();
+  }
+
+  /**
+   * Returns the IDs of every version of the program with {@code programId}, which are all of the
+   * programs with its name.
+   *
+   * <p>If the program cache is enabled then the IDs are cached until a new version is published. A
+   * draft created in the meantime may be missing, but applications can only be submitted to
+   * published programs.
+   */
+  private ImmutableSet<Long> getAllProgramVersionIds(long programId) {
+    if (settingsManifest.getProgramCacheEnabled()) {
+      return versionsByProgramCache.getOrElseUpdate(
+          VERSION_IDS_KEY_PREFIX + programId, () -> lookupAllProgramVersionIds(programId));
+    }
+    return lookupAllProgramVersionIds(programId);
+  }
+
+  private ImmutableSet<Long> lookupAllProgramVersionIds(long programId) {
+    List<Long> ids = allProgramVersionsQuery(programId).findIds();
+    return ImmutableSet.copyOf(ids);
   }
 
   private Query<ProgramModel> allProgramVersionsQuery(long programId) {
@@ -460,30 +640,6 @@ public final class ProgramRepository {
         .query();
   }
 
-  private ExpressionList<ApplicationModel> searchUsingPrimaryApplicantInfo(
-      String search, ExpressionList<ApplicationModel> query) {
-    // Remove all special characters
-    String maybeOnlyDigits = search.replaceAll("[^a-zA-Z0-9]", "");
-    // Check if remaining string is actually only digits
-    if (maybeOnlyDigits.matches("^\\d+$")) {
-      return query
-          .or()
-          .eq("id", Long.parseLong(maybeOnlyDigits))
-          .ilike("applicant.phoneNumber", "%" + maybeOnlyDigits + "%")
-          .endOr();
-    }
-    String firstNamePath = "applicant.firstName";
-    String lastNamePath = "applicant.lastName";
-    return query
-        .or()
-        .ilike("applicant.emailAddress", "%" + search + "%")
-        .ilike("submitter_email", "%" + search + "%")
-        .ilike(firstNamePath + " || ' ' || " + lastNamePath, "%" + search + "%")
-        .ilike(lastNamePath + " || ' ' || " + firstNamePath, "%" + search + "%")
-        .ilike(lastNamePath + " || ', ' || " + firstNamePath, "%" + search + "%")
-        .endOr();
-  }
-
   /**
    * Get the most recent id for the active program. In the case that there are no active versions of
    * a program, an empty value is returned.
@@ -7,18 +7,35 @@ import com.google.common.collect.ImmutableList;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.SqlRow;
+import io.ebean.Transaction;
+import java.sql.Array;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Optional;
+import java.util.Arrays;
 import javax.inject.Inject;
-import org.postgresql.util.PGInterval;
-import services.reporting.ApplicationSubmissionsStat;
+import models.ApplicationModel;
+import services.reporting.MonthlySubmissionHistogram;
+import services.reporting.SubmissionDurationHistogram;
 
 /** Implements queries related to reporting needs. */
 public final class ReportingRepository {
 
+  /**
+   * The SQL for the {@link SubmissionDurationHistogram} bucket, counting from 0, of an
+   * application's submission duration.
+   */
+  private static final String DURATION_BUCKET_SQL =
+      String.format(
+          "LEAST(%d, CASE"
+              + " WHEN coalesce(extract(epoch FROM applications.submission_duration), 0) < 1 THEN 0"
+              + " ELSE 1 + floor(ln(extract(epoch FROM applications.submission_duration))"
+              + " / ln(%s))::int END)",
+          SubmissionDurationHistogram.BUCKET_COUNT - 1,
+          SubmissionDurationHistogram.GROWTH_FACTOR);
+
   private final Clock clock;
   private final Database database;
 
@@ -29,120 +46,169 @@ public final class ReportingRepository {
   }
 
   /**
-   * Loads data from the monthly reporting view. Does not include data from current month because
-   * the job to refresh the view is scheduled to run at the beginning of each month. For current
-   * month reporting data use {@code loadThisMonthReportingData}.
+   * Loads the submission duration histogram of each program with an active version for each month
+   * it has submitted applications, including the current month.
    */
-  public ImmutableList<ApplicationSubmissionsStat> loadMonthlyReportingView() {
+  public ImmutableList<MonthlySubmissionHistogram> loadMonthlySubmissionHistograms() {
+    String sql =
+        """
+        SELECT
+          stats.program_name,
+          active_program.en_us_localized_name,
+          stats.submit_month,
+          stats.submission_duration_histogram
+        FROM monthly_submission_stats AS stats
+        INNER JOIN
+          (SELECT
+            p.name,
+            ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}') AS en_us_localized_name
+          FROM programs p
+          INNER JOIN versions_programs vp ON vp.programs_id = p.id
+          INNER JOIN versions v ON vp.versions_id = v.id
+          WHERE v.lifecycle_stage IN ('active')) AS active_program
+        ON active_program.name = stats.program_name
+        """;
     return database
-        .sqlQuery(
-            "SELECT * FROM monthly_submissions_reporting_view\n"
-                + "WHERE monthly_submissions_reporting_view.submit_month < :first_of_month::date")
-        .setParameter("first_of_month", getFirstOfMonth())
+        .sqlQuery(sql)
+        .setLabel("ReportingRepository.loadMonthlySubmissionHistograms")
         .findList()
         .stream()
         .map(
             row ->
-                ApplicationSubmissionsStat.create(
+                MonthlySubmissionHistogram.create(
                     row.getString("program_name"),
                     row.getString("en_us_localized_name"),
-                    Optional.of(row.getTimestamp("submit_month")),
-                    row.getLong("count"),
-                    getSecondsFromPgIntervalRowValue(row, "p25"),
-                    getSecondsFromPgIntervalRowValue(row, "p50"),
-                    getSecondsFromPgIntervalRowValue(row, "p75"),
-                    getSecondsFromPgIntervalRowValue(row, "p99")))
+                    row.getTimestamp("submit_month"),
+                    getHistogramRowValue(row, "submission_duration_histogram")))
         .collect(ImmutableList.toImmutableList());
   }
 
-  private Timestamp getFirstOfMonth() {
-    return Timestamp.valueOf(
-        LocalDateTime.now(clock).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1));
+  /**
+   * Adds a submitted application to the submission stats of its program for the month it was
+   * submitted, in the current transaction. Applications that aren't submitted are ignored.
+   */
+  public void recordSubmission(ApplicationModel application) {
+    String sql =
+        String.format(
+            """
+            INSERT INTO monthly_submission_stats AS stats
+              (program_name, submit_month, application_count, submission_duration_histogram)
+            SELECT
+              programs.name,
+              date_trunc('month', applications.submit_time),
+              1,
+              ARRAY(
+                SELECT CASE WHEN buckets.bucket = %s THEN 1::bigint ELSE 0::bigint END
+                FROM generate_series(0, :lastBucket) AS buckets(bucket)
+                ORDER BY buckets.bucket)
+            FROM applications
+            INNER JOIN programs ON applications.program_id = programs.id
+            WHERE applications.id = :applicationId
+              AND applications.lifecycle_stage IN ('active', 'obsolete')
+              AND applications.submit_time IS NOT NULL
+            ON CONFLICT (program_name, submit_month) DO UPDATE SET
+              application_count = stats.application_count + EXCLUDED.application_count,
+              submission_duration_histogram = ARRAY(
+                SELECT existing + added
+                FROM unnest(stats.submission_duration_histogram,
+                  EXCLUDED.submission_duration_histogram)
+                  WITH ORDINALITY AS buckets(existing, added, position)
+                ORDER BY buckets.position)
+            """,
+            DURATION_BUCKET_SQL);
+    database
+        .sqlUpdate(sql)
+        .setParameter("applicationId", checkNotNull(application.id))
+        .setParameter("lastBucket", SubmissionDurationHistogram.BUCKET_COUNT - 1)
+        .setLabel("ReportingRepository.recordSubmission")
+        .execute();
   }
 
-  /** Loads application submission reporting data for current month. */
-  public ImmutableList<ApplicationSubmissionsStat> loadThisMonthReportingData() {
+  /**
+   * Recomputes last month's submission stats from its applications, replacing the stats that were
+   * recorded as they were submitted.
+   */
+  public void rebuildLastMonthSubmissionStats() {
     Timestamp firstOfMonth = getFirstOfMonth();
+    Timestamp firstOfLastMonth =
+        Timestamp.valueOf(firstOfMonth.toLocalDateTime().minusMonths(1));
+    String sql =
+        String.format(
+            """
+            WITH bucket_counts AS (
+              SELECT
+                programs.name AS program_name,
+                date_trunc('month', applications.submit_time) AS submit_month,
+                %s AS bucket,
+                count(*) AS application_count
+              FROM applications
+              INNER JOIN programs ON applications.program_id = programs.id
+              WHERE applications.lifecycle_stage IN ('active', 'obsolete')
+                AND applications.submit_time >= :monthStart
+                AND applications.submit_time < :monthEnd
+              GROUP BY 1, 2, 3
+            )
+            INSERT INTO monthly_submission_stats
+              (program_name, submit_month, application_count, submission_duration_histogram)
+            SELECT
+              months.program_name,
+              months.submit_month,
+              months.application_count,
+              ARRAY(
+                SELECT coalesce(bucket_counts.application_count, 0)
+                FROM generate_series(0, :lastBucket) AS buckets(bucket)
+                LEFT JOIN bucket_counts
+                  ON bucket_counts.bucket = buckets.bucket
+                  AND bucket_counts.program_name = months.program_name
+                  AND bucket_counts.submit_month = months.submit_month
+                ORDER BY buckets.bucket)
+            FROM
+              (SELECT
+                program_name, submit_month, sum(application_count)::bigint AS application_count
+              FROM bucket_counts
+              GROUP BY 1, 2) AS months
+            """,
+            DURATION_BUCKET_SQL);
 
-    return database
-        .sqlQuery(
-            "SELECT\n"
-                + "  programs.name AS program_name,\n"
-                + "  active_program.en_us_localized_name AS en_us_localized_name,\n"
-                + "  count(*),\n"
-                + "  percentile_cont(0.5) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p50,\n"
-                + "  percentile_cont(0.25) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p25,\n"
-                + "  percentile_cont(0.75) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p75,\n"
-                + "  percentile_cont(0.99) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p99\n"
-                + "FROM applications\n"
-                + "INNER JOIN programs ON applications.program_id = programs.id\n"
-                + "INNER JOIN\n"
-                + "  ( SELECT\n"
-                + "    p.name,\n"
-                + "  ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}') AS"
-                + " en_us_localized_name\n"
-                + "  FROM programs p\n"
-                + "  INNER JOIN versions_programs vp ON\n"
-                + "  vp.programs_id = p.id\n"
-                + "  INNER JOIN  versions v ON\n"
-                + "  vp.versions_id = v.id WHERE v.lifecycle_stage IN ('active')) AS"
-                + " active_program\n"
-                + "  ON active_program.name = programs.name\n"
-                + "WHERE applications.lifecycle_stage IN ('active', 'obsolete')\n"
-                + "AND applications.submit_time >= date_trunc('month', :current_date::date)\n"
-                + "GROUP BY programs.name, active_program.en_us_localized_name")
-        .setParameter("current_date", firstOfMonth)
-        .findList()
-        .stream()
-        .map(
-            row ->
-                ApplicationSubmissionsStat.create(
-                    row.getString("program_name"),
-                    row.getString("en_us_localized_name"),
-                    Optional.of(firstOfMonth),
-                    row.getLong("count"),
-                    getSecondsFromPgIntervalRowValue(row, "p25"),
-                    getSecondsFromPgIntervalRowValue(row, "p50"),
-                    getSecondsFromPgIntervalRowValue(row, "p75"),
-                    getSecondsFromPgIntervalRowValue(row, "p99")))
-        .collect(ImmutableList.toImmutableList());
+    try (Transaction transaction = database.beginTransaction()) {
+      database
+          .sqlUpdate("DELETE FROM monthly_submission_stats WHERE submit_month = :monthStart")
+          .setParameter("monthStart", firstOfLastMonth)
+          .execute();
+      database
+          .sqlUpdate(sql)
+          .setParameter("monthStart", firstOfLastMonth)
+          .setParameter("monthEnd", firstOfMonth)
+          .setParameter("lastBucket", SubmissionDurationHistogram.BUCKET_COUNT - 1)
+          .setLabel("ReportingRepository.rebuildLastMonthSubmissionStats")
+          .execute();
+      transaction.commit();
+    }
   }
 
-  /** Triggers a refresh of the monthly reporting view. */
-  public void refreshMonthlyReportingView() {
-    database.sqlUpdate("REFRESH MATERIALIZED VIEW monthly_submissions_reporting_view").execute();
+  private Timestamp getFirstOfMonth() {
+    return Timestamp.valueOf(
+        LocalDateTime.now(clock).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1));
   }
 
-  private static double getSecondsFromPgIntervalRowValue(SqlRow row, String key) {
-    Object interval =
+  private static SubmissionDurationHistogram getHistogramRowValue(SqlRow row, String key) {
+    Object value =
         checkNotNull(
             row.get(key),
             String.format("Expected SqlRow to have key %s but not found in %s", key, row));
 
-    if (!(interval instanceof PGInterval pgInterval)) {
+    if (!(value instanceof Array array)) {
       throw new IllegalStateException(
           String.format(
-              "Expected value at %s in SqlRow to be a PgInterval but got %s: %s",
-              key, interval.getClass().getName(), interval));
+              "Expected value at %s in SqlRow to be an Array but got %s: %s",
+              key, value.getClass().getName(), value));
     }
 
-    return intervalToSeconds(pgInterval);
-  }
-
-  private static final long SECONDS_PER_YEAR = 31556926L;
-  private static final long SECONDS_PER_DAY = 86400L;
-  private static final long SECONDS_PER_HOUR = 3600L;
-  private static final long SECONDS_PER_MINUTE = 60L;
-
-  private static double intervalToSeconds(PGInterval interval) {
-    return interval.getYears() * SECONDS_PER_YEAR
-        + interval.getDays() * SECONDS_PER_DAY
-        + interval.getHours() * SECONDS_PER_HOUR
-        + interval.getMinutes() * SECONDS_PER_MINUTE
-        + interval.getSeconds();
+    try {
+      return SubmissionDurationHistogram.of(
+          Arrays.stream((Long[]) array.getArray()).mapToLong(Long::longValue).toArray());
+    } catch (SQLException e) {
+      throw new RuntimeException(e);
+    }
   }
 }
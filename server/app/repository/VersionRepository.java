@@ -44,6 +44,7 @@ import services.program.EligibilityDefinition;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 import services.program.ProgramQuestionDefinition;
+import services.program.ProgramQuestionSnapshot;
 import services.program.predicate.AndNode;
 import services.program.predicate.LeafAddressServiceAreaExpressionNode;
 import services.program.predicate.LeafOperationExpressionNode;
@@ -67,6 +68,8 @@ public final class VersionRepository {
   private final SettingsManifest settingsManifest;
   private final SyncCacheApi questionsByVersionCache;
   private final SyncCacheApi programsByVersionCache;
+  private final ActiveVersionHolder activeVersionHolder;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public VersionRepository(
@@ -75,7 +78,9 @@ public final class VersionRepository {
       DatabaseExecutionContext databaseExecutionContext,
       SettingsManifest settingsManifest,
       @NamedCache("version-questions") SyncCacheApi questionsByVersionCache,
-      @NamedCache("version-programs") SyncCacheApi programsByVersionCache) {
+      @NamedCache("version-programs") SyncCacheApi programsByVersionCache,
+      ActiveVersionHolder activeVersionHolder,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.database = DB.getDefault();
     this.programRepository = checkNotNull(programRepository);
     this.questionRepository = checkNotNull(questionRepository);
@@ -83,6 +88,8 @@ public final class VersionRepository {
     this.settingsManifest = checkNotNull(settingsManifest);
     this.questionsByVersionCache = checkNotNull(questionsByVersionCache);
     this.programsByVersionCache = checkNotNull(programsByVersionCache);
+    this.activeVersionHolder = checkNotNull(activeVersionHolder);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
   }
 
   /**
@@ -195,6 +202,9 @@ public final class VersionRepository {
           draft.refresh();
           active.refresh();
           validateProgramQuestionState();
+          snapshotProgramQuestions(draft);
+          cacheInvalidationBus.publish(
+              CacheInvalidationBus.Event.VERSION_PUBLISHED, String.valueOf(draft.id));
           break;
         case DRY_RUN:
           break;
@@ -294,6 +304,9 @@ public final class VersionRepository {
       active.refresh();
       newDraft.refresh();
       validateProgramQuestionState();
+      snapshotProgramQuestions(existingDraft);
+      cacheInvalidationBus.publish(
+          CacheInvalidationBus.Event.VERSION_PUBLISHED, String.valueOf(existingDraft.id));
       transaction.commit();
     } catch (NonUniqueResultException | SerializableConflictException | RollbackException e) {
       transaction.rollback(e);
@@ -379,7 +392,24 @@ public final class VersionRepository {
     }
   }
 
+  /**
+   * Returns the active version.
+   *
+   * <p>Outside of a transaction, the active version's ID is held in memory by the {@link
+   * ActiveVersionHolder} and the returned model is an unloaded reference to it, which loads its
+   * properties from the database when they are first accessed. Inside a transaction, the active
+   * version is always read from the database so that the transaction sees its own changes.
+   */
   public VersionModel getActiveVersion() {
+    if (!settingsManifest.getVersionCacheEnabled() || database.currentTransaction() != null) {
+      return getActiveVersionWithoutCache();
+    }
+    long activeVersionId =
+        activeVersionHolder.getActiveVersionId(() -> getActiveVersionWithoutCache().id);
+    return database.reference(VersionModel.class, activeVersionId);
+  }
+
+  private VersionModel getActiveVersionWithoutCache() {
     return database
         .find(VersionModel.class)
         .where()
@@ -680,6 +710,42 @@ public final class VersionRepository {
         .anyMatch(activeProgram -> activeProgram.id.equals(programId));
   }
 
+  /**
+   * Stores a snapshot of the questions for each program in the active version that doesn't have one
+   * yet, such as programs published before snapshots were taken.
+   */
+  public void snapshotActiveProgramQuestions() {
+    snapshotProgramQuestions(getActiveVersion());
+  }
+
+  /**
+   * Stores a snapshot of the questions for each program in the newly published {@code version} that
+   * doesn't have one yet, so that its full definition can be loaded without loading the version's
+   * questions.
+   */
+  private void snapshotProgramQuestions(VersionModel version) {
+    ImmutableList<ProgramModel> programs = getProgramsForVersionWithoutCache(version);
+    ImmutableSet<Long> programIdsToSnapshot =
+        programRepository.getProgramIdsWithoutQuestionSnapshot(
+            programs.stream().map(program -> program.id).collect(ImmutableSet.toImmutableSet()));
+    if (programIdsToSnapshot.isEmpty()) {
+      return;
+    }
+
+    ImmutableMap<Long, QuestionDefinition> questionsById =
+        getQuestionsForVersionWithoutCache(version).stream()
+            .map(questionRepository::getQuestionDefinition)
+            .collect(ImmutableMap.toImmutableMap(QuestionDefinition::getId, question -> question));
+    programs.stream()
+        .filter(program -> programIdsToSnapshot.contains(program.id))
+        .forEach(
+            program ->
+                ProgramQuestionSnapshot.create(
+                        programRepository.getShallowProgramDefinition(program), questionsById)
+                    .ifPresent(
+                        snapshot -> programRepository.setQuestionSnapshot(program.id, snapshot)));
+  }
+
   /** Validate all programs have associated questions. */
   private void validateProgramQuestionState() {
     VersionModel activeVersion = getActiveVersion();
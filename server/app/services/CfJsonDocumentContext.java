@@ -35,6 +35,8 @@ public class CfJsonDocumentContext {
 
   protected boolean locked = false;
   protected final DocumentContext jsonData;
+  private long mutationCount = 0;
+  private Optional<Runnable> mutationListener = Optional.empty();
 
   public CfJsonDocumentContext(DocumentContext jsonData) {
     this.jsonData = checkNotNull(jsonData);
@@ -52,11 +54,34 @@ public class CfJsonDocumentContext {
     return jsonData;
   }
 
+  /**
+   * Returns the number of changes made to this instance since it was created. Callers can compare
+   * counts taken at different times to tell whether the data may have changed in between; reads
+   * never change the count.
+   */
+  public long getMutationCount() {
+    return mutationCount;
+  }
+
+  /**
+   * Sets a listener that is run before every change to this instance, replacing any previously set
+   * listener. This lets an owner, such as a persisted model, track whether it needs to be written
+   * without having to assume every read is followed by a write.
+   */
+  public void setMutationListener(Runnable mutationListener) {
+    this.mutationListener = Optional.of(checkNotNull(mutationListener));
+  }
+
   /** Makes this instance immutable. A locked instance cannot be unlocked. */
   public void lock() {
     locked = true;
   }
 
+  /** Returns whether this instance has been made immutable by {@link #lock()}. */
+  public boolean isLocked() {
+    return locked;
+  }
+
   /**
    * Checks whether the given path exists in the JSON data. Returns true if the path is present;
    * false otherwise.
@@ -242,7 +267,7 @@ public class CfJsonDocumentContext {
    * @param value the value to place; values of type Map will create the equivalent JSON structure
    */
   private void put(Path path, Object value) {
-    checkLocked();
+    beforeMutation();
     putParentIfMissing(path);
     if (path.isArrayElement()) {
       putArrayIfMissing(path.withoutArrayReference());
@@ -259,7 +284,7 @@ public class CfJsonDocumentContext {
    * @param list a {@link List} containing scalar values such as strings or longs.
    */
   public void putArray(Path path, List list) {
-    checkLocked();
+    beforeMutation();
     putParentIfMissing(path);
     jsonData.put(path.parentPath().toString(), path.keyName(), list);
   }
@@ -280,7 +305,7 @@ public class CfJsonDocumentContext {
    * regardless of whether there are any values present.
    */
   public void maybeClearArray(Path path) {
-    checkLocked();
+    beforeMutation();
     if (path.isArrayElement()) {
       putParentIfMissing(path);
       maybeDelete(path.withoutArrayReference());
@@ -289,19 +314,19 @@ public class CfJsonDocumentContext {
 
   /** Delete whatever is there if it exists. Returns whether a delete actually happened. */
   public void maybeDelete(Path path) {
-    checkLocked();
+    beforeMutation();
     if (hasPath(path)) {
       jsonData.delete(path.toString());
     }
   }
 
   private void putAt(Path path, Object value) {
-    checkLocked();
+    beforeMutation();
     jsonData.put(path.parentPath().toString(), path.keyName(), value);
   }
 
   private void addAt(Path path, Object value) {
-    checkLocked();
+    beforeMutation();
     jsonData.add(path.withoutArrayReference().toString(), value);
   }
 
@@ -479,7 +504,7 @@ public class CfJsonDocumentContext {
    * repeated entities, use {@link #deleteRepeatedEntities(Path, ImmutableList)};
    */
   public boolean maybeClearRepeatedEntities(Path path) {
-    checkLocked();
+    beforeMutation();
     if (readRepeatedEntities(path).isEmpty()) {
       maybeDelete(path.withoutArrayReference());
       return true;
@@ -548,7 +573,7 @@ public class CfJsonDocumentContext {
    * @return true if something is deleted.
    */
   public boolean deleteRepeatedEntities(Path path, ImmutableList<Integer> indices) {
-    checkLocked();
+    beforeMutation();
 
     // Early return if there's nothing to delete
     if (indices.isEmpty()) {
@@ -640,7 +665,7 @@ public class CfJsonDocumentContext {
   }
 
   private ImmutableList<Path> mergeFrom(Path rootKey, Map<?, ?> other) {
-    checkLocked();
+    beforeMutation();
     ImmutableList.Builder<Path> pathsRemoved = new ImmutableList.Builder<>();
     for (Map.Entry<?, ?> entry : other.entrySet()) {
       String key = entry.getKey().toString();
@@ -672,10 +697,16 @@ public class CfJsonDocumentContext {
     return pathsRemoved.build();
   }
 
-  protected void checkLocked() {
+  /**
+   * Must be called before every change to this instance. Throws if the instance is locked, and
+   * otherwise records the change and notifies the mutation listener, if any.
+   */
+  protected void beforeMutation() {
     if (locked) {
       throw new RuntimeException(
           "Cannot change " + this.getClass().getSimpleName() + " after it has been locked.");
     }
+    mutationCount++;
+    mutationListener.ifPresent(Runnable::run);
   }
 }
@@ -10,6 +10,7 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import services.applicant.question.Scalar;
 import services.export.enums.ApiPathSegment;
@@ -204,6 +205,33 @@ public abstract class Path {
         .atIndex(arrayIndex());
   }
 
+  /**
+   * Returns this path as a PostgreSQL text array literal, suitable for use as a jsonb path with
+   * {@code #>}, {@code #-} and {@code jsonb_set}. Array indices become their own elements and
+   * unindexed array references are dropped.
+   *
+   * <p>Every element is double quoted, with any double quote or backslash in it escaped, so that
+   * keys containing commas, braces, quotes or whitespace are still read as a single element.
+   *
+   * <p>Example: {@code applicant.children[2].favorite_color} becomes {@code
+   * {"applicant","children","2","favorite_color"}}.
+   */
+  public String asJsonbPathLiteral() {
+    return segments().stream()
+        .flatMap(
+            segment -> {
+              Matcher matcher = ARRAY_INDEX_REGEX.matcher(segment);
+              if (!matcher.matches()) {
+                return Stream.of(segment);
+              }
+              String key = segment.substring(0, matcher.start(ARRAY_SUFFIX_GROUP));
+              String index = matcher.group(ARRAY_INDEX_GROUP);
+              return index.isEmpty() ? Stream.of(key) : Stream.of(key, index);
+            })
+        .map(element -> '"' + element.replace("\\", "\\\\").replace("\"", "\\\"") + '"')
+        .collect(Collectors.joining(",", "{", "}"));
+  }
+
   /**
    * Checks whether this path is referring to an array element, e.g. {@code applicant.children[3]}.
    */
@@ -0,0 +1,116 @@
+package services.apikey;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.typesafe.config.Config;
+import io.prometheus.client.Counter;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Limits the rate of requests each API key may make to this server instance, using a token bucket
+ * per key.
+ *
+ * <p>Each key's bucket holds up to {@code api_key_rate_limit_burst} tokens and is refilled at
+ * {@code api_key_rate_limit_requests_per_second}. Each request takes a token, and is rejected if
+ * there are none, so a key that has been idle can make a burst of requests at once but is limited
+ * to the refill rate on average. The limit is per instance, so the limit across a deployment is
+ * this multiplied by the number of instances behind the load balancer.
+ */
+@Singleton
+public final class ApiKeyRateLimiter {
+
+  private static final Counter RATE_LIMITED_REQUESTS =
+      Counter.build()
+          .name("api_key_rate_limited_requests_total")
+          .help("Count of API requests rejected for exceeding their API key's rate limit")
+          .register();
+
+  /** The most API keys whose buckets are kept at once, as a bound on the memory they use. */
+  private static final int MAX_BUCKETS = 10_000;
+
+  private final double tokensPerNano;
+  private final double burst;
+  private final LongSupplier nanoTime;
+  private final Cache<String, TokenBucket> buckets;
+
+  @Inject
+  public ApiKeyRateLimiter(Config config) {
+    this(
+        checkNotNull(config).getInt("api_key_rate_limit_requests_per_second"),
+        config.getInt("api_key_rate_limit_burst"),
+        System::nanoTime);
+  }
+
+  @VisibleForTesting
+  ApiKeyRateLimiter(int requestsPerSecond, int burst, LongSupplier nanoTime) {
+    this.tokensPerNano = (double) requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.burst = burst;
+    this.nanoTime = checkNotNull(nanoTime);
+    // A bucket that hasn't been used for long enough to refill completely is the same as a new
+    // one, so it's dropped rather than kept for every key that has ever made a request.
+    this.buckets =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(Duration.ofNanos((long) Math.ceil(burst / tokensPerNano)))
+            .maximumSize(MAX_BUCKETS)
+            .ticker(
+                new Ticker() {
+                  @Override
+                  public long read() {
+                    return nanoTime.getAsLong();
+                  }
+                })
+            .build();
+  }
+
+  /**
+   * Takes a token from the bucket of the API key with {@code keyId} if it has one. Returns how long
+   * until the key may make another request if not, or an empty value if the request may proceed.
+   */
+  public Optional<Duration> tryAcquire(String keyId) {
+    if (tokensPerNano <= 0) {
+      return Optional.empty();
+    }
+    TokenBucket bucket;
+    try {
+      bucket = buckets.get(keyId, () -> new TokenBucket(burst, nanoTime.getAsLong()));
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e);
+    }
+    Optional<Duration> retryAfter = bucket.tryAcquire(nanoTime.getAsLong());
+    if (retryAfter.isPresent()) {
+      RATE_LIMITED_REQUESTS.inc();
+    }
+    return retryAfter;
+  }
+
+  /** The tokens left for one API key, refilled lazily whenever a token is requested. */
+  private final class TokenBucket {
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double tokens, long nowNanos) {
+      this.tokens = tokens;
+      this.lastRefillNanos = nowNanos;
+    }
+
+    synchronized Optional<Duration> tryAcquire(long nowNanos) {
+      tokens = Math.min(burst, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+      lastRefillNanos = nowNanos;
+      if (tokens >= 1) {
+        tokens -= 1;
+        return Optional.empty();
+      }
+      return Optional.of(Duration.ofNanos((long) Math.ceil((1 - tokens) / tokensPerNano)));
+    }
+  }
+}
@@ -26,6 +26,7 @@ import play.cache.NamedCache;
 import play.cache.SyncCacheApi;
 import play.data.DynamicForm;
 import repository.ApiKeyRepository;
+import repository.CacheInvalidationBus;
 import services.CryptographicUtils;
 import services.DateConverter;
 import services.pagination.PageNumberPaginationSpec;
@@ -83,6 +84,8 @@ public final class ApiKeyService {
   private final String secretSalt;
   private final SyncCacheApi apiKeyCache;
   private final boolean banGlobalSubnet;
+  private final CacheInvalidationBus cacheInvalidationBus;
+  private final ApiKeyUsageAggregator usageAggregator;
 
   @Inject
   public ApiKeyService(
@@ -91,7 +94,9 @@ public final class ApiKeyService {
       Environment environment,
       ProgramService programService,
       DateConverter dateConverter,
-      Config config) {
+      Config config,
+      CacheInvalidationBus cacheInvalidationBus,
+      ApiKeyUsageAggregator usageAggregator) {
     this.apiKeyCache = checkNotNull(apiKeyCache);
     this.repository = checkNotNull(repository);
     this.environment = checkNotNull(environment);
@@ -99,6 +104,8 @@ public final class ApiKeyService {
     this.dateConverter = checkNotNull(dateConverter);
     this.secretSalt = checkNotNull(config).getString("api_secret_salt");
     this.banGlobalSubnet = checkNotNull(config).getBoolean("api_keys_ban_global_subnet");
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
+    this.usageAggregator = checkNotNull(usageAggregator);
   }
 
   /**
@@ -140,9 +147,13 @@ public final class ApiKeyService {
         keyId, () -> findByKeyId(keyId), CACHE_EXPIRATION_TIME_SECONDS);
   }
 
-  /** Increment an API key's call count and set its last call IP address to the one provided. */
+  /**
+   * Increment an API key's call count and set its last call IP address to the one provided. The
+   * usage is accumulated in memory and written to the database in the background by {@link
+   * ApiKeyUsageAggregator}.
+   */
   public void recordApiKeyUsage(String apiKeyId, String remoteAddress) {
-    repository.recordApiKeyUsage(apiKeyId, remoteAddress);
+    usageAggregator.record(apiKeyId, remoteAddress);
   }
 
   /**
@@ -165,6 +176,7 @@ public final class ApiKeyService {
 
     apiKey.retire(getAuthorityId(profile));
     apiKey.save();
+    cacheInvalidationBus.publish(CacheInvalidationBus.Event.API_KEY_RETIRED, apiKey.getKeyId());
 
     return apiKey;
   }
@@ -0,0 +1,103 @@
+package services.apikey;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.typesafe.config.Config;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.pekko.actor.ActorSystem;
+import org.apache.pekko.actor.Cancellable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import repository.ApiKeyRepository;
+import repository.ApiKeyRepository.ApiKeyUsage;
+import repository.DatabaseExecutionContext;
+
+/**
+ * Accumulates API key usage in memory and periodically writes it to the database in one batch.
+ *
+ * <p>Recording a call only updates in-memory counters, so API requests never wait on, or contend
+ * for, the database row of the key they were made with. The accumulated usage is written every
+ * {@code api_key_usage_flush_interval_seconds} and when the server shuts down. Usage recorded since
+ * the last write is lost if the server stops without shutting down cleanly, which is acceptable
+ * since it's not critical that the call count be perfectly accurate.
+ */
+@Singleton
+public final class ApiKeyUsageAggregator {
+
+  private static final Logger logger = LoggerFactory.getLogger(ApiKeyUsageAggregator.class);
+
+  private final ApiKeyRepository repository;
+  private final ConcurrentHashMap<String, PendingUsage> pendingUsages = new ConcurrentHashMap<>();
+  private final Cancellable scheduledFlush;
+
+  @Inject
+  public ApiKeyUsageAggregator(
+      ApiKeyRepository repository,
+      ActorSystem actorSystem,
+      Config config,
+      ApplicationLifecycle appLifecycle,
+      DatabaseExecutionContext executionContext) {
+    this.repository = checkNotNull(repository);
+    Duration flushInterval =
+        Duration.ofSeconds(config.getInt("api_key_usage_flush_interval_seconds"));
+    this.scheduledFlush =
+        actorSystem
+            .scheduler()
+            .scheduleAtFixedRate(
+                /* initialDelay= */ flushInterval,
+                /* interval= */ flushInterval,
+                this::flush,
+                executionContext);
+
+    appLifecycle.addStopHook(
+        () -> {
+          scheduledFlush.cancel();
+          flush();
+          return CompletableFuture.completedFuture(null);
+        });
+  }
+
+  /** Records a call made with the API key with {@code keyId} from {@code remoteAddress}. */
+  public void record(String keyId, String remoteAddress) {
+    PendingUsage usage = pendingUsages.computeIfAbsent(keyId, unused -> new PendingUsage());
+    usage.lastCallIpAddress = remoteAddress;
+    usage.callCount.increment();
+  }
+
+  /**
+   * Writes the usage recorded since the last flush to the database. If the write fails the usage is
+   * kept, and written by the next flush.
+   */
+  public synchronized void flush() {
+    ImmutableList.Builder<ApiKeyUsage> usages = ImmutableList.builder();
+    for (Map.Entry<String, PendingUsage> entry : pendingUsages.entrySet()) {
+      long callCount = entry.getValue().callCount.sumThenReset();
+      if (callCount > 0) {
+        usages.add(
+            new ApiKeyUsage(entry.getKey(), callCount, entry.getValue().lastCallIpAddress));
+      }
+    }
+
+    ImmutableList<ApiKeyUsage> flushed = usages.build();
+    try {
+      repository.recordApiKeyUsages(flushed);
+    } catch (RuntimeException e) {
+      logger.error("Error recording usage of {} API keys", flushed.size(), e);
+      flushed.forEach(usage -> pendingUsages.get(usage.keyId()).callCount.add(usage.callCount()));
+    }
+  }
+
+  /** The usage of one API key that hasn't been written to the database yet. */
+  private static final class PendingUsage {
+    private final LongAdder callCount = new LongAdder();
+    private volatile String lastCallIpAddress;
+  }
+}
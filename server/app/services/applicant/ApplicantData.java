@@ -61,7 +61,7 @@ public class ApplicantData extends CfJsonDocumentContext {
   }
 
   public void setPreferredLocale(Locale locale) {
-    checkLocked();
+    beforeMutation();
     this.preferredLocale = Optional.of(locale);
   }
 
@@ -80,7 +80,7 @@ public class ApplicantData extends CfJsonDocumentContext {
    *     couldn't be applied.
    */
   public void setFailedUpdates(ImmutableMap<Path, String> updates) {
-    checkLocked();
+    beforeMutation();
     failedUpdates = Optional.of(checkNotNull(updates));
   }
 
@@ -22,6 +22,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -36,6 +37,7 @@ import javax.inject.Inject;
 import models.ApplicantModel;
 import models.ApplicationEventModel;
 import models.ApplicationModel;
+import models.ApplicationSummaryModel;
 import models.DisplayMode;
 import models.EligibilityDetermination;
 import models.LifecycleStage;
@@ -72,6 +74,7 @@ import services.applicant.exception.ApplicationOutOfDateException;
 import services.applicant.exception.ApplicationSubmissionException;
 import services.applicant.exception.ProgramBlockNotFoundException;
 import services.applicant.predicate.JsonPathPredicateGeneratorFactory;
+import services.applicant.predicate.LeafResultCache;
 import services.applicant.question.AddressQuestion;
 import services.applicant.question.ApplicantQuestion;
 import services.applicant.question.DateQuestion;
@@ -404,8 +407,15 @@ public final class ApplicantService {
     Optional<Block> blockMaybe =
         roApplicantProgramService.getActiveBlock(blockBeforeUpdate.getId());
     if (forceUpdate || (blockMaybe.isPresent() && !blockMaybe.get().hasErrors())) {
+      // Staging only writes within the block's questions, so only those parts of the applicant
+      // data need to be written back. For enumerators that's the whole array of entities.
+      ImmutableSet<Path> changedPaths =
+          blockBeforeUpdate.getQuestions().stream()
+              .map(ApplicantQuestion::getContextualizedPath)
+              .map(Path::safeWithoutArrayReference)
+              .collect(ImmutableSet.toImmutableSet());
       return accountRepository
-          .updateApplicant(applicant)
+          .updateApplicantData(applicant, changedPaths)
           .thenApplyAsync(
               (finishedSaving) -> roApplicantProgramService, classLoaderExecutionContext.current());
     }
@@ -1143,6 +1153,44 @@ public final class ApplicantService {
         : Optional.empty();
   }
 
+  /**
+   * Returns whether an applicant is maybe eligible for each of {@code programDefinitions} based on
+   * their latest answers, keyed by program ID, in the same way as {@link
+   * #getApplicantMayBeEligibleStatus}.
+   *
+   * <p>The programs are evaluated together against one locked copy of the applicant's data, so a
+   * predicate condition that several of them share, such as one on a common intake question, is
+   * only evaluated once. Only the visibility of blocks with eligibility conditions is evaluated.
+   */
+  public ImmutableMap<Long, Optional<Boolean>> getApplicantMayBeEligibleStatuses(
+      ApplicantModel applicant, ImmutableList<ProgramDefinition> programDefinitions) {
+    Optional<ApplicantData> sharedApplicantData = Optional.empty();
+    LeafResultCache leafResults = new LeafResultCache();
+    Map<Long, Optional<Boolean>> statuses = new HashMap<>();
+    for (ProgramDefinition programDefinition : programDefinitions) {
+      if (!programDefinition.hasEligibilityEnabled()) {
+        statuses.putIfAbsent(programDefinition.id(), Optional.empty());
+        continue;
+      }
+      if (sharedApplicantData.isEmpty()) {
+        sharedApplicantData =
+            Optional.of(
+                ReadOnlyApplicantProgramService.lockedCopyOf(
+                    applicant.getApplicantData(), /* failedUpdates= */ ImmutableMap.of()));
+      }
+      ReadOnlyApplicantProgramService roAppProgramService =
+          ReadOnlyApplicantProgramService.forSharedApplicantData(
+              jsonPathPredicateGeneratorFactory,
+              applicant,
+              sharedApplicantData.get(),
+              programDefinition,
+              leafResults);
+      statuses.putIfAbsent(
+          programDefinition.id(), Optional.of(!roAppProgramService.isApplicationNotEligible()));
+    }
+    return ImmutableMap.copyOf(statuses);
+  }
+
   /**
    * Returns whether or not an application is eligible for a program. This uses the answers at the
    * time of the application rather than the applicant's latest answer to a question. Returns empty
@@ -1157,6 +1205,44 @@ public final class ApplicantService {
         : Optional.empty();
   }
 
+  /**
+   * Returns whether or not each summarized application is eligible for a program, keyed by
+   * application ID, as {@link #getApplicationEligibilityStatus} would.
+   *
+   * <p>The eligibility determined when an application was submitted is used if it was submitted to
+   * the same version of the program. The others are loaded and evaluated, all in one query.
+   */
+  public ImmutableMap<Long, Optional<Boolean>> getApplicationEligibilityStatuses(
+      ImmutableList<ApplicationSummaryModel> summaries, ProgramDefinition programDefinition) {
+    if (!programDefinition.hasEligibilityEnabled()) {
+      return summaries.stream()
+          .collect(ImmutableMap.toImmutableMap(summary -> summary.id, summary -> Optional.empty()));
+    }
+
+    Map<Long, Optional<Boolean>> statuses = new HashMap<>();
+    ImmutableList.Builder<Long> toEvaluate = ImmutableList.builder();
+    for (ApplicationSummaryModel summary : summaries) {
+      EligibilityDetermination determination = summary.getEligibilityDetermination();
+      boolean determined =
+          determination == EligibilityDetermination.ELIGIBLE
+              || determination == EligibilityDetermination.INELIGIBLE;
+      if (summary.getProgramId() == programDefinition.id() && determined) {
+        statuses.put(summary.id, Optional.of(determination == EligibilityDetermination.ELIGIBLE));
+      } else {
+        toEvaluate.add(summary.id);
+      }
+    }
+
+    ImmutableList<Long> applicationIds = toEvaluate.build();
+    if (!applicationIds.isEmpty()) {
+      for (ApplicationModel application : applicationRepository.getApplications(applicationIds)) {
+        statuses.put(
+            application.id, getApplicationEligibilityStatus(application, programDefinition));
+      }
+    }
+    return ImmutableMap.copyOf(statuses);
+  }
+
   private ApplicationPrograms relevantProgramsForApplicantInternal(
       ImmutableList<ProgramDefinition> activePrograms,
       ImmutableSet<ApplicationModel> applications,
@@ -1289,6 +1375,15 @@ public final class ApplicantService {
 
     Set<String> unappliedActivePrograms =
         Sets.difference(activeProgramNames.keySet(), programNamesWithApplications);
+    ImmutableMap<Long, Optional<Boolean>> unappliedProgramEligibility =
+        mostRecentApplicationsByProgram.isEmpty()
+            ? ImmutableMap.of()
+            : getApplicantMayBeEligibleStatuses(
+                applications.stream().findFirst().get().getApplicant(),
+                unappliedActivePrograms.stream()
+                    .map(activeProgramNames::get)
+                    .map(program -> findProgramWithId(allPrograms, program.id()))
+                    .collect(ImmutableList.toImmutableList()));
 
     unappliedActivePrograms.forEach(
         programName -> {
@@ -1299,9 +1394,8 @@ public final class ApplicantService {
               findProgramWithId(allPrograms, activeProgramNames.get(programName).id());
 
           if (!mostRecentApplicationsByProgram.isEmpty()) {
-            ApplicantModel applicant = applications.stream().findFirst().get().getApplicant();
             applicantProgramDataBuilder.setIsProgramMaybeEligible(
-                getApplicantMayBeEligibleStatus(applicant, program));
+                unappliedProgramEligibility.get(program.id()));
           }
 
           if (program.isCommonIntakeForm()) {
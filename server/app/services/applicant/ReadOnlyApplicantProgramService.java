@@ -1,23 +1,28 @@
 package services.applicant;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.prometheus.client.Counter;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import models.ApplicantModel;
 import services.LocalizedStrings;
 import services.Path;
+import services.applicant.predicate.CompiledPredicate;
 import services.applicant.predicate.JsonPathPredicateGenerator;
 import services.applicant.predicate.JsonPathPredicateGeneratorFactory;
-import services.applicant.predicate.PredicateEvaluator;
+import services.applicant.predicate.LeafResultCache;
 import services.applicant.question.ApplicantQuestion;
 import services.applicant.question.FileUploadQuestion;
 import services.program.BlockDefinition;
@@ -27,6 +32,7 @@ import services.program.ProgramType;
 import services.program.predicate.PredicateDefinition;
 import services.question.exceptions.QuestionNotFoundException;
 import services.question.types.EnumeratorQuestionDefinition;
+import services.question.types.QuestionDefinition;
 import services.question.types.QuestionType;
 
 /** Provides synchronous, read-only behavior relevant to an applicant for a specific program. */
@@ -34,6 +40,21 @@ public final class ReadOnlyApplicantProgramService {
 
   private static final String NOT_APPLICABLE = "N/A";
 
+  private static final Counter PREDICATE_EVALUATION_COUNT =
+      Counter.build()
+          .name("applicant_predicate_evaluations_total")
+          .help("Count of block visibility and eligibility predicates evaluated for applicants")
+          .labelNames("kind")
+          .register();
+
+  private static final Counter BLOCK_VISIBILITY_EVALUATION_COUNT =
+      Counter.build()
+          .name("applicant_program_block_visibility_evaluations_total")
+          .help(
+              "Count of times the visibility of a program's blocks was evaluated for an applicant,"
+                  + " usually once per request")
+          .register();
+
   /**
    * Note that even though {@link ApplicantData} is mutable, we can consider it immutable at this
    * point since there is no shared state between requests. In fact, we call {@link
@@ -46,9 +67,18 @@ public final class ReadOnlyApplicantProgramService {
 
   private final ProgramDefinition programDefinition;
   private final JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory;
+  private final ImmutableList<QuestionDefinition> programQuestions;
+  private final Map<String, JsonPathPredicateGenerator> predicateGeneratorsByBlockId =
+      new HashMap<>();
+  private final Optional<LeafResultCache> leafResults;
+
+  // The results below are memoized, and each is only computed by the first method that needs it.
+  private ImmutableList<Block> allBlockList;
   private ImmutableList<Block> allActiveBlockList;
   private ImmutableList<Block> allHiddenBlockList;
   private ImmutableList<Block> currentBlockList;
+  private final Map<String, Boolean> blockVisibility = new HashMap<>();
+  private final Map<String, Boolean> blockEligibility = new HashMap<>();
 
   public ReadOnlyApplicantProgramService(
       JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory,
@@ -69,13 +99,84 @@ public final class ReadOnlyApplicantProgramService {
       ApplicantData applicantData,
       ProgramDefinition programDefinition,
       ImmutableMap<Path, String> failedUpdates) {
+    this(
+        jsonPathPredicateGeneratorFactory,
+        applicant,
+        lockedCopyOf(applicantData, failedUpdates),
+        programDefinition,
+        /* leafResults= */ Optional.empty());
+  }
+
+  private ReadOnlyApplicantProgramService(
+      JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory,
+      ApplicantModel applicant,
+      ApplicantData lockedApplicantData,
+      ProgramDefinition programDefinition,
+      Optional<LeafResultCache> leafResults) {
+    checkArgument(lockedApplicantData.isLocked(), "The applicant data must be locked");
     this.jsonPathPredicateGeneratorFactory = checkNotNull(jsonPathPredicateGeneratorFactory);
     this.applicant = checkNotNull(applicant);
-    this.applicantData = new ApplicantData(checkNotNull(applicantData).asJsonString());
-    this.applicantData.setPreferredLocale(applicantData.preferredLocale());
-    this.applicantData.setFailedUpdates(failedUpdates);
-    this.applicantData.lock();
+    this.applicantData = lockedApplicantData;
     this.programDefinition = checkNotNull(programDefinition);
+    this.programQuestions =
+        programDefinition.streamQuestionDefinitions().collect(toImmutableList());
+    this.leafResults = checkNotNull(leafResults);
+  }
+
+  /**
+   * Creates a service that evaluates {@code lockedApplicantData} itself rather than a copy of it,
+   * so that one copy can be shared by the services for several programs. Those services also share
+   * the results of predicate leaf nodes through {@code leafResults}.
+   */
+  static ReadOnlyApplicantProgramService forSharedApplicantData(
+      JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory,
+      ApplicantModel applicant,
+      ApplicantData lockedApplicantData,
+      ProgramDefinition programDefinition,
+      LeafResultCache leafResults) {
+    return new ReadOnlyApplicantProgramService(
+        jsonPathPredicateGeneratorFactory,
+        applicant,
+        lockedApplicantData,
+        programDefinition,
+        Optional.of(leafResults));
+  }
+
+  /** Returns a locked copy of {@code applicantData} with the given failed updates. */
+  static ApplicantData lockedCopyOf(
+      ApplicantData applicantData, ImmutableMap<Path, String> failedUpdates) {
+    ApplicantData copy = new ApplicantData(checkNotNull(applicantData).asJsonString());
+    copy.setPreferredLocale(applicantData.preferredLocale());
+    copy.setFailedUpdates(failedUpdates);
+    copy.lock();
+    return copy;
+  }
+
+  /** Returns every block of the program, without evaluating their visibility. */
+  private ImmutableList<Block> getAllBlocks() {
+    if (allBlockList == null) {
+      allBlockList = getBlocks((block) -> true);
+    }
+    return allBlockList;
+  }
+
+  /**
+   * Evaluates the visibility of every block once, splitting them into the active and hidden block
+   * lists.
+   */
+  private void evaluateBlockVisibility() {
+    ImmutableList.Builder<Block> activeBlocks = ImmutableList.builder();
+    ImmutableList.Builder<Block> hiddenBlocks = ImmutableList.builder();
+    for (Block block : getAllBlocks()) {
+      if (isBlockActive(block)) {
+        activeBlocks.add(block);
+      } else {
+        hiddenBlocks.add(block);
+      }
+    }
+    allActiveBlockList = activeBlocks.build();
+    allHiddenBlockList = hiddenBlocks.build();
+    BLOCK_VISIBILITY_EVALUATION_COUNT.inc();
   }
 
   /** Returns the applicant model for this application. */
@@ -152,7 +253,11 @@ public final class ReadOnlyApplicantProgramService {
    * hasn't yet been completed.
    */
   public boolean isApplicationNotEligible() {
-    return getAllActiveBlocks().stream()
+    return getAllBlocks().stream()
+        // Only blocks with eligibility conditions can make the application ineligible, so the
+        // visibility of the other blocks doesn't need to be evaluated.
+        .filter(block -> block.getEligibilityDefinition().isPresent())
+        .filter(this::isBlockActive)
         .anyMatch(
             block ->
                 block.getQuestions().stream()
@@ -183,7 +288,13 @@ public final class ReadOnlyApplicantProgramService {
     if (predicate.isEmpty()) {
       return true;
     }
-    return evaluatePredicate(block, predicate.get());
+    Boolean eligible = blockEligibility.get(block.getId());
+    if (eligible == null) {
+      PREDICATE_EVALUATION_COUNT.labels("eligibility").inc();
+      eligible = evaluatePredicate(block, predicate.get());
+      blockEligibility.put(block.getId(), eligible);
+    }
+    return eligible;
   }
 
   /**
@@ -192,7 +303,7 @@ public final class ReadOnlyApplicantProgramService {
    * @return A stream of the questions in the program.
    */
   public Stream<ApplicantQuestion> getAllQuestions() {
-    return getBlocks((block) -> true).stream().flatMap((block) -> block.getQuestions().stream());
+    return getAllBlocks().stream().flatMap((block) -> block.getQuestions().stream());
   }
 
   /**
@@ -203,7 +314,7 @@ public final class ReadOnlyApplicantProgramService {
    */
   public ImmutableList<Block> getAllActiveBlocks() {
     if (allActiveBlockList == null) {
-      allActiveBlockList = getBlocks((block) -> showBlock(block));
+      evaluateBlockVisibility();
     }
     return allActiveBlockList;
   }
@@ -214,7 +325,7 @@ public final class ReadOnlyApplicantProgramService {
    */
   public ImmutableList<Block> getAllHiddenBlocks() {
     if (allHiddenBlockList == null) {
-      allHiddenBlockList = getBlocks((block) -> !showBlock(block));
+      evaluateBlockVisibility();
     }
     return allHiddenBlockList;
   }
@@ -247,14 +358,15 @@ public final class ReadOnlyApplicantProgramService {
   public ImmutableList<Block> getInProgressBlocks() {
     if (currentBlockList == null) {
       currentBlockList =
-          getBlocks(
-              block ->
-                  // Return all blocks that contain errors, were answered in this program, or
-                  // contain a static question.
-                  (!block.isAnsweredWithoutErrors()
+          getAllActiveBlocks().stream()
+              .filter(
+                  block ->
+                      // Return all blocks that contain errors, were answered in this program, or
+                      // contain a static question.
+                      !block.isAnsweredWithoutErrors()
                           || block.wasAnsweredInProgram(programDefinition.id())
                           || block.containsStatic())
-                      && showBlock(block));
+              .collect(toImmutableList());
     }
     return currentBlockList;
   }
@@ -398,7 +510,7 @@ public final class ReadOnlyApplicantProgramService {
    */
   public ImmutableList<AnswerData> getSummaryDataAllQuestions() {
     ImmutableList.Builder<AnswerData> builder = new ImmutableList.Builder<>();
-    ImmutableList<Block> blocks = getBlocks((block) -> true);
+    ImmutableList<Block> blocks = getAllBlocks();
     addDataToBuilder(blocks, builder, /* showAnswerText= */ true);
     return builder.build();
   }
@@ -609,6 +721,16 @@ public final class ReadOnlyApplicantProgramService {
     return blockListBuilder.build();
   }
 
+  /** Returns whether {@code block} is shown to the applicant, evaluating it at most once. */
+  private boolean isBlockActive(Block block) {
+    Boolean active = blockVisibility.get(block.getId());
+    if (active == null) {
+      active = showBlock(block);
+      blockVisibility.put(block.getId(), active);
+    }
+    return active;
+  }
+
   private boolean showBlock(Block block) {
     if (block.getRepeatedEntity().isPresent()) {
       // In repeated blocks, test if this block's parents are visible.
@@ -629,6 +751,7 @@ public final class ReadOnlyApplicantProgramService {
   }
 
   private boolean evaluateVisibility(Block block, PredicateDefinition predicate) {
+    PREDICATE_EVALUATION_COUNT.labels("visibility").inc();
     boolean evaluation = evaluatePredicate(block, predicate);
     return switch (predicate.action()) {
       case HIDE_BLOCK -> !evaluation;
@@ -639,10 +762,14 @@ public final class ReadOnlyApplicantProgramService {
 
   private boolean evaluatePredicate(Block block, PredicateDefinition predicate) {
     JsonPathPredicateGenerator predicateGenerator =
-        jsonPathPredicateGeneratorFactory.create(
-            this.programDefinition.streamQuestionDefinitions().collect(toImmutableList()),
-            block.getRepeatedEntity());
-    return new PredicateEvaluator(this.applicantData, predicateGenerator)
-        .evaluate(predicate.rootNode());
+        predicateGeneratorsByBlockId.computeIfAbsent(
+            block.getId(),
+            (blockId) ->
+                jsonPathPredicateGeneratorFactory.create(
+                    programQuestions, block.getRepeatedEntity()));
+    CompiledPredicate compiledPredicate = CompiledPredicate.forDefinition(predicate);
+    return leafResults.isPresent()
+        ? compiledPredicate.evaluate(this.applicantData, predicateGenerator, leafResults.get())
+        : compiledPredicate.evaluate(this.applicantData, predicateGenerator);
   }
 }
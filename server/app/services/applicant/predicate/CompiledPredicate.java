@@ -0,0 +1,469 @@
+package services.applicant.predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Splitter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.Path;
+import services.applicant.ApplicantData;
+import services.applicant.exception.InvalidPredicateException;
+import services.applicant.question.Scalar;
+import services.geo.ServiceAreaState;
+import services.program.predicate.LeafAddressServiceAreaExpressionNode;
+import services.program.predicate.LeafExpressionNode;
+import services.program.predicate.LeafOperationExpressionNode;
+import services.program.predicate.Operator;
+import services.program.predicate.PredicateDefinition;
+import services.program.predicate.PredicateExpressionNode;
+
+/**
+ * A predicate expression tree compiled into direct lookups and comparisons of {@link
+ * ApplicantData}, so that evaluating it doesn't format, parse and run a JsonPath filter for every
+ * leaf node.
+ *
+ * <p>Evaluation gives the same results as running the filters from {@link
+ * JsonPathPredicateGenerator} with {@link PredicateEvaluator}, including how JsonPath compares
+ * numbers with strings and treats missing answers. A leaf node whose compared value can't be
+ * compiled is evaluated with its JsonPath filter instead.
+ *
+ * <p>Compiled predicates are cached for as long as their {@link PredicateDefinition} is in use, so
+ * a definition held by a cached program is only compiled once.
+ */
+public final class CompiledPredicate {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompiledPredicate.class);
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final Pattern ARRAY_ELEMENT_SEGMENT = Pattern.compile("(.*)\\[(\\d+)]");
+
+  /**
+   * A missing or null value in the applicant data, which is neither equal to nor comparable with
+   * anything.
+   */
+  private static final Object ABSENT = new Object();
+
+  private static final LoadingCache<PredicateDefinition, CompiledPredicate> COMPILED_PREDICATES =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .build(
+              CacheLoader.from(
+                  (PredicateDefinition predicate) -> compile(predicate.rootNode())));
+
+  /** A compiled expression node. */
+  private interface Node {
+    boolean evaluate(
+        ApplicantData applicantData,
+        JsonPathPredicateGenerator predicateGenerator,
+        Optional<LeafResultCache> leafResults);
+  }
+
+  /** A compiled leaf node, which is evaluated without reusing previous results. */
+  private interface Leaf {
+    boolean evaluate(ApplicantData applicantData, JsonPathPredicateGenerator predicateGenerator);
+  }
+
+  /** A compiled condition on the value of a scalar, or on the object at a question's path. */
+  private interface Condition {
+    boolean test(Object value, JsonPathPredicateGenerator predicateGenerator);
+  }
+
+  private final Node root;
+
+  private CompiledPredicate(Node root) {
+    this.root = checkNotNull(root);
+  }
+
+  /** Returns the compiled form of {@code predicate}, compiling it if it hasn't been already. */
+  public static CompiledPredicate forDefinition(PredicateDefinition predicate) {
+    return COMPILED_PREDICATES.getUnchecked(checkNotNull(predicate));
+  }
+
+  /** Compiles an expression tree rooted at {@code node} without caching it. */
+  static CompiledPredicate compile(PredicateExpressionNode node) {
+    return new CompiledPredicate(compileNode(node));
+  }
+
+  /**
+   * Returns true if and only if the entire tree evaluates to true based on {@code applicantData}.
+   *
+   * @param predicateGenerator a generator for the program and repeated context the predicate is
+   *     evaluated in, which is used to find each question's path
+   */
+  public boolean evaluate(
+      ApplicantData applicantData, JsonPathPredicateGenerator predicateGenerator) {
+    return root.evaluate(applicantData, predicateGenerator, /* leafResults= */ Optional.empty());
+  }
+
+  /**
+   * Returns true if and only if the entire tree evaluates to true based on {@code applicantData},
+   * reusing the result of any leaf node that is already in {@code leafResults}.
+   *
+   * @param predicateGenerator a generator for the program and repeated context the predicate is
+   *     evaluated in, which is used to find each question's path
+   * @param leafResults results of leaf nodes previously evaluated against the same applicant data
+   */
+  public boolean evaluate(
+      ApplicantData applicantData,
+      JsonPathPredicateGenerator predicateGenerator,
+      LeafResultCache leafResults) {
+    return root.evaluate(applicantData, predicateGenerator, Optional.of(leafResults));
+  }
+
+  private static Node compileNode(PredicateExpressionNode node) {
+    return switch (node.getType()) {
+      case LEAF_OPERATION ->
+          memoize(node.getLeafOperationNode(), compileLeafNode(node.getLeafOperationNode()));
+      case LEAF_ADDRESS_SERVICE_AREA ->
+          memoize(
+              node.getLeafAddressNode(),
+              compileLeafAddressServiceAreaNode(node.getLeafAddressNode()));
+      case AND -> {
+        ImmutableList<Node> children =
+            node.getAndNode().children().stream()
+                .map(CompiledPredicate::compileNode)
+                .collect(ImmutableList.toImmutableList());
+        yield (applicantData, predicateGenerator, leafResults) ->
+            children.stream()
+                .allMatch(child -> child.evaluate(applicantData, predicateGenerator, leafResults));
+      }
+      case OR -> {
+        ImmutableList<Node> children =
+            node.getOrNode().children().stream()
+                .map(CompiledPredicate::compileNode)
+                .collect(ImmutableList.toImmutableList());
+        yield (applicantData, predicateGenerator, leafResults) ->
+            children.stream()
+                .anyMatch(child -> child.evaluate(applicantData, predicateGenerator, leafResults));
+      }
+    };
+  }
+
+  /**
+   * Wraps a compiled leaf node so that its result is taken from, or added to, the leaf results
+   * being shared for the applicant data, if there are any.
+   */
+  private static Node memoize(LeafExpressionNode node, Leaf leaf) {
+    return (applicantData, predicateGenerator, leafResults) -> {
+      if (leafResults.isEmpty()) {
+        return leaf.evaluate(applicantData, predicateGenerator);
+      }
+      Path path;
+      try {
+        path = predicateGenerator.getPath(node);
+      } catch (InvalidPredicateException e) {
+        // The leaf logs this and evaluates to false.
+        return leaf.evaluate(applicantData, predicateGenerator);
+      }
+      return leafResults
+          .get()
+          .get(node, path, () -> leaf.evaluate(applicantData, predicateGenerator));
+    };
+  }
+
+  private static Leaf compileLeafNode(LeafOperationExpressionNode node) {
+    Condition condition;
+    try {
+      condition = compileCondition(node);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Evaluating {} with JsonPath since it can't be compiled", node, e);
+      return (applicantData, predicateGenerator) -> {
+        try {
+          return applicantData.evalPredicate(predicateGenerator.fromLeafNode(node));
+        } catch (InvalidPredicateException invalid) {
+          LOGGER.error(
+              "InvalidPredicateException when evaluating LeafOperationExpressionNode {}: {}",
+              node,
+              invalid.getMessage());
+          return false;
+        }
+      };
+    }
+
+    String scalarKey = node.scalar().name().toLowerCase(Locale.ROOT);
+    return (applicantData, predicateGenerator) -> {
+      try {
+        return anyObjectMatches(
+            readPath(applicantData, predicateGenerator.getPath(node)),
+            object -> condition.test(readKey(object, scalarKey), predicateGenerator));
+      } catch (InvalidPredicateException e) {
+        LOGGER.error(
+            "InvalidPredicateException when evaluating LeafOperationExpressionNode {}: {}",
+            node,
+            e.getMessage());
+        return false;
+      }
+    };
+  }
+
+  private static Leaf compileLeafAddressServiceAreaNode(LeafAddressServiceAreaExpressionNode node) {
+    String serviceAreasKey = Scalar.SERVICE_AREAS.name().toLowerCase(Locale.ROOT);
+    String stateKey = Scalar.SERVICE_AREA_STATE.name().toLowerCase(Locale.ROOT);
+    String serviceAreaIdKey = Scalar.SERVICE_AREA_ID.name().toLowerCase(Locale.ROOT);
+    String matchingState =
+        node.operator() == Operator.IN_SERVICE_AREA
+            ? ServiceAreaState.IN_AREA.name()
+            : ServiceAreaState.NOT_IN_AREA.name();
+    String failedState = ServiceAreaState.FAILED.name();
+    String serviceAreaId = node.serviceAreaId();
+
+    return (applicantData, predicateGenerator) -> {
+      try {
+        Object address = readPath(applicantData, predicateGenerator.getPath(node));
+        return anyObjectMatches(
+            readKey(address, serviceAreasKey),
+            serviceArea -> {
+              Object state = readKey(serviceArea, stateKey);
+              return (jsonPathEquals(state, matchingState) || jsonPathEquals(state, failedState))
+                  && jsonPathEquals(readKey(serviceArea, serviceAreaIdKey), serviceAreaId);
+            });
+      } catch (InvalidPredicateException e) {
+        LOGGER.error(
+            "InvalidPredicateException when evaluating LeafAddressServiceAreaExpressionNode {}: {}",
+            node,
+            e.getMessage());
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Compiles the condition that the {@link JsonPathPredicateGenerator} formats for {@code node}.
+   * Note that age predicates compare the timestamp on the left, so they are reversed here.
+   */
+  private static Condition compileCondition(LeafOperationExpressionNode node) {
+    String value = node.comparedValue().value();
+    return switch (node.operator()) {
+      case EQUAL_TO -> compareWith(value, CompiledPredicate::jsonPathEquals);
+      case NOT_EQUAL_TO -> compareWith(value, (left, right) -> !jsonPathEquals(left, right));
+      case GREATER_THAN, IS_AFTER ->
+          compareWith(value, (left, right) -> compare(left, right, result -> result > 0));
+      case GREATER_THAN_OR_EQUAL_TO, IS_ON_OR_AFTER ->
+          compareWith(value, (left, right) -> compare(left, right, result -> result >= 0));
+      case LESS_THAN, IS_BEFORE ->
+          compareWith(value, (left, right) -> compare(left, right, result -> result < 0));
+      case LESS_THAN_OR_EQUAL_TO, IS_ON_OR_BEFORE ->
+          compareWith(value, (left, right) -> compare(left, right, result -> result <= 0));
+      case IN -> {
+        ImmutableList<Object> values = parseList(value);
+        yield (answer, unused) -> contains(values, answer);
+      }
+      case NOT_IN -> {
+        ImmutableList<Object> values = parseList(value);
+        yield (answer, unused) -> !contains(values, answer);
+      }
+      case ANY_OF -> {
+        ImmutableList<Object> values = parseList(value);
+        yield (answer, unused) ->
+            answer instanceof List<?> answers
+                && answers.stream().anyMatch(item -> contains(values, normalize(item)));
+      }
+      case NONE_OF -> {
+        ImmutableList<Object> values = parseList(value);
+        yield (answer, unused) ->
+            answer instanceof List<?> answers
+                && answers.stream().noneMatch(item -> contains(values, normalize(item)));
+      }
+      case SUBSET_OF -> {
+        ImmutableList<Object> values = parseList(value);
+        yield (answer, unused) ->
+            answer instanceof List<?> answers
+                && answers.stream().allMatch(item -> contains(values, normalize(item)));
+      }
+      case BETWEEN -> {
+        ImmutableList<Long> bounds = parseSortedLongs(value);
+        checkArgument(bounds.size() == 2);
+        BigDecimal lower = BigDecimal.valueOf(bounds.get(0));
+        BigDecimal upper = BigDecimal.valueOf(bounds.get(1));
+        yield (answer, unused) ->
+            compare(lower, answer, result -> result <= 0)
+                && compare(answer, upper, result -> result <= 0);
+      }
+      case AGE_BETWEEN -> {
+        ImmutableList<Long> ages = parseSortedLongs(value);
+        yield (answer, predicateGenerator) -> {
+          BigDecimal youngest =
+              BigDecimal.valueOf(
+                  predicateGenerator.getDateConverter().getDateTimestampFromAge(ages.get(0)));
+          BigDecimal oldest =
+              BigDecimal.valueOf(
+                  predicateGenerator.getDateConverter().getDateTimestampFromAge(ages.get(1)));
+          return compare(youngest, answer, result -> result >= 0)
+              && compare(oldest, answer, result -> result <= 0);
+        };
+      }
+      case AGE_OLDER_THAN -> {
+        double age = Double.parseDouble(value);
+        yield (answer, predicateGenerator) ->
+            compare(ageTimestamp(age, predicateGenerator), answer, result -> result >= 0);
+      }
+      case AGE_YOUNGER_THAN -> {
+        double age = Double.parseDouble(value);
+        yield (answer, predicateGenerator) ->
+            compare(ageTimestamp(age, predicateGenerator), answer, result -> result < 0);
+      }
+      default ->
+          throw new IllegalArgumentException(
+              String.format("Operator %s can't be compiled", node.operator()));
+    };
+  }
+
+  private static Condition compareWith(String value, BiPredicate<Object, Object> comparison) {
+    Object comparedValue = parseScalar(value);
+    return (answer, unused) -> comparison.test(answer, comparedValue);
+  }
+
+  private static BigDecimal ageTimestamp(
+      double age, JsonPathPredicateGenerator predicateGenerator) {
+    return BigDecimal.valueOf(predicateGenerator.getDateConverter().getDateTimestampFromAge(age));
+  }
+
+  /** Parses a JsonPath string or number literal. */
+  private static Object parseScalar(String value) {
+    if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+      return value.substring(1, value.length() - 1);
+    }
+    return new BigDecimal(value);
+  }
+
+  /** Parses a JsonPath list literal. */
+  private static ImmutableList<Object> parseList(String value) {
+    List<?> values;
+    try {
+      values = OBJECT_MAPPER.readValue(value, List.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException(String.format("%s is not a list", value), e);
+    }
+    return values.stream()
+        .map(CompiledPredicate::normalize)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Parses a list stored as "[123, 456]" into sorted longs. */
+  private static ImmutableList<Long> parseSortedLongs(String value) {
+    return Splitter.on(", ")
+        .splitToStream(value.substring(1, value.length() - 1))
+        .map(Long::parseLong)
+        .sorted()
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Returns the value at {@code path} in the applicant data, or {@link #ABSENT}. */
+  private static Object readPath(ApplicantData applicantData, Path path) {
+    Object value = applicantData.getDocumentContext().json();
+    for (String segment : path.segments()) {
+      Matcher arrayElement = ARRAY_ELEMENT_SEGMENT.matcher(segment);
+      if (arrayElement.matches()) {
+        value = readKey(value, arrayElement.group(1));
+        int index = Integer.parseInt(arrayElement.group(2));
+        value =
+            value instanceof List<?> list && index < list.size()
+                ? normalize(list.get(index))
+                : ABSENT;
+      } else {
+        value = readKey(value, segment);
+      }
+    }
+    return value;
+  }
+
+  /** Returns the property of a JSON object, or {@link #ABSENT} if there isn't one. */
+  private static Object readKey(Object object, String key) {
+    if (object instanceof Map<?, ?> map && map.containsKey(key)) {
+      return normalize(map.get(key));
+    }
+    return ABSENT;
+  }
+
+  /**
+   * Returns true if {@code value} is a JSON object that matches {@code predicate}, or is a list
+   * with an item that does, which is how a JsonPath filter is applied.
+   */
+  private static boolean anyObjectMatches(Object value, Predicate<Object> predicate) {
+    if (value instanceof Map) {
+      return predicate.test(value);
+    }
+    if (value instanceof List<?> list) {
+      return list.stream().anyMatch(predicate);
+    }
+    return false;
+  }
+
+  /** Converts numbers to the {@link BigDecimal}s that JsonPath compares. */
+  private static Object normalize(@Nullable Object value) {
+    if (value instanceof Number number) {
+      try {
+        return new BigDecimal(number.toString());
+      } catch (NumberFormatException e) {
+        return number;
+      }
+    }
+    return value == null ? ABSENT : value;
+  }
+
+  private static boolean contains(ImmutableList<Object> values, Object value) {
+    return values.stream().anyMatch(item -> jsonPathEquals(value, item));
+  }
+
+  /**
+   * Returns whether JsonPath considers {@code left} equal to {@code right}. A number equals a
+   * string that parses to the same number, and a string equals a number whose string form is the
+   * same.
+   */
+  private static boolean jsonPathEquals(Object left, Object right) {
+    if (left instanceof BigDecimal leftNumber) {
+      Optional<BigDecimal> rightNumber = asNumber(right);
+      return rightNumber.isPresent() && leftNumber.compareTo(rightNumber.get()) == 0;
+    }
+    if (left instanceof String leftString) {
+      return (right instanceof String || right instanceof BigDecimal)
+          && leftString.equals(right.toString());
+    }
+    return false;
+  }
+
+  private static Optional<BigDecimal> asNumber(Object value) {
+    if (value instanceof BigDecimal number) {
+      return Optional.of(number);
+    }
+    if (value instanceof String string) {
+      try {
+        return Optional.of(new BigDecimal(string));
+      } catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Compares two numbers or two strings the way JsonPath's relational operators do, returning
+   * whether {@code result} accepts the comparison. Any other values are never accepted.
+   */
+  private static boolean compare(Object left, Object right, IntPredicate result) {
+    if (left instanceof BigDecimal leftNumber && right instanceof BigDecimal rightNumber) {
+      return result.test(leftNumber.compareTo(rightNumber));
+    }
+    if (left instanceof String leftString && right instanceof String rightString) {
+      return result.test(leftString.compareTo(rightString));
+    }
+    return false;
+  }
+}
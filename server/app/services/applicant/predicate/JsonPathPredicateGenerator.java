@@ -170,7 +170,12 @@ public final class JsonPathPredicateGenerator {
             node.scalar().name().toLowerCase(Locale.ROOT)));
   }
 
-  private Path getPath(LeafExpressionNode node) throws InvalidPredicateException {
+  DateConverter getDateConverter() {
+    return dateConverter;
+  }
+
+  /** Returns the path of the question that {@code node} applies to, in the current context. */
+  Path getPath(LeafExpressionNode node) throws InvalidPredicateException {
     if (!questionsById.containsKey(node.questionId())) {
       // This means a predicate was incorrectly configured - we are depending upon a question that
       // does not appear anywhere in this program.
@@ -0,0 +1,48 @@
+package services.applicant.predicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import services.Path;
+import services.program.predicate.LeafExpressionNode;
+
+/**
+ * The results of predicate leaf nodes evaluated against one applicant's data, shared between the
+ * programs being evaluated for that applicant. Many programs have conditions on the same questions,
+ * such as those in the common intake form, so a leaf node that appears in several of them is only
+ * evaluated once.
+ *
+ * <p>Results are keyed by the leaf node and the path of the question it applies to, so the same
+ * node in a different repeated context is evaluated separately. An instance must only be used with
+ * one applicant's data, and only for as long as that data doesn't change, so it is not thread safe
+ * and is meant to live for a single request.
+ */
+public final class LeafResultCache {
+
+  private record Key(LeafExpressionNode node, Path path) {}
+
+  private final Map<Key, Boolean> results = new HashMap<>();
+  private int evaluationCount = 0;
+
+  /**
+   * Returns the result of {@code node} at {@code path}, running {@code evaluation} only if it
+   * hasn't been evaluated yet.
+   */
+  boolean get(LeafExpressionNode node, Path path, BooleanSupplier evaluation) {
+    Key key = new Key(checkNotNull(node), checkNotNull(path));
+    Boolean result = results.get(key);
+    if (result == null) {
+      result = evaluation.getAsBoolean();
+      evaluationCount++;
+      results.put(key, result);
+    }
+    return result;
+  }
+
+  /** Returns the number of distinct leaf nodes that have been evaluated. */
+  public int getEvaluationCount() {
+    return evaluationCount;
+  }
+}
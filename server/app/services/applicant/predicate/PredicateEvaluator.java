@@ -10,7 +10,13 @@ import services.program.predicate.LeafOperationExpressionNode;
 import services.program.predicate.OrNode;
 import services.program.predicate.PredicateExpressionNode;
 
-/** Evaluates complex predicates based on the given {@link ApplicantData}. */
+/**
+ * Evaluates complex predicates based on the given {@link ApplicantData} by running a JsonPath
+ * filter for each leaf node.
+ *
+ * <p>Applicants' predicates are evaluated with {@link CompiledPredicate}, which gives the same
+ * results without running JsonPath. This is kept as the reference that it's tested against.
+ */
 public final class PredicateEvaluator {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PredicateEvaluator.class);
@@ -1,26 +1,39 @@
 package services.export;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.typesafe.config.Config;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.inject.Inject;
 import models.ApplicantModel;
 import models.ApplicationModel;
 import models.QuestionTag;
+import org.apache.pekko.NotUsed;
+import org.apache.pekko.japi.Pair;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
+import repository.DatabaseExecutionContext;
+import repository.ExportServiceRepository;
 import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
 import services.DateConverter;
@@ -30,7 +43,9 @@ import services.applicant.ApplicantService;
 import services.applicant.ReadOnlyApplicantProgramService;
 import services.applicant.question.ApplicantQuestion;
 import services.export.enums.ColumnType;
+import services.pagination.PaginationResult;
 import services.pagination.SubmitTimeSequentialAccessPaginationSpec;
+import services.program.BlockDefinition;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 import services.program.ProgramQuestionDefinition;
@@ -50,10 +65,18 @@ public final class CsvExporterService {
   private final Config config;
   private final DateConverter dateConverter;
   private final CsvColumnFactory csvColumnFactory;
+  private final DatabaseExecutionContext databaseExecutionContext;
+  private final ExportServiceRepository exportServiceRepository;
 
   public static final ImmutableSet<QuestionType> NON_EXPORTED_QUESTION_TYPES =
       ImmutableSet.of(QuestionType.ENUMERATOR, QuestionType.STATIC);
 
+  /** The number of applications loaded from the database at a time when exporting a program. */
+  static final int EXPORT_PAGE_SIZE = 1000;
+
+  private static final SubmitTimeSequentialAccessPaginationSpec FIRST_EXPORT_PAGE_SPEC =
+      new SubmitTimeSequentialAccessPaginationSpec(EXPORT_PAGE_SIZE, Instant.MAX, Long.MAX_VALUE);
+
   @Inject
   public CsvExporterService(
       ProgramService programService,
@@ -61,59 +84,118 @@ public final class CsvExporterService {
       ApplicantService applicantService,
       Config config,
       DateConverter dateConverter,
-      CsvColumnFactory csvColumnFactory) {
+      CsvColumnFactory csvColumnFactory,
+      DatabaseExecutionContext databaseExecutionContext,
+      ExportServiceRepository exportServiceRepository) {
     this.programService = checkNotNull(programService);
     this.questionService = checkNotNull(questionService);
     this.applicantService = checkNotNull(applicantService);
     this.config = checkNotNull(config);
     this.dateConverter = dateConverter;
     this.csvColumnFactory = checkNotNull(csvColumnFactory);
+    this.databaseExecutionContext = checkNotNull(databaseExecutionContext);
+    this.exportServiceRepository = checkNotNull(exportServiceRepository);
   }
 
-  /** Return a string containing a CSV of all applications at all versions of particular program. */
-  public String getProgramAllVersionsCsv(long programId, SubmittedApplicationFilter filters)
-      throws ProgramNotFoundException {
+  /**
+   * Returns a {@link Source} that emits a CSV of all applications at all versions of a particular
+   * program.
+   *
+   * <p>Applications are loaded with keyset pagination {@value #EXPORT_PAGE_SIZE} at a time and
+   * each page is written out before the next one is loaded, so memory use is bounded by the page
+   * size rather than by the number of applications to the program. Pages are loaded on the {@link
+   * DatabaseExecutionContext} as the response is consumed. If a page fails to load or export, the
+   * source fails rather than completing, so that the download is aborted instead of ending early
+   * with what looks like a whole CSV.
+   */
+  public Source<ByteString, NotUsed> streamProgramAllVersionsCsv(
+      long programId, SubmittedApplicationFilter filters) throws ProgramNotFoundException {
     ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions =
-        programService.getAllVersionsFullProgramDefinition(programId).stream()
-            .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd));
+        getProgramDefinitionsForAllVersions(programId);
     ProgramDefinition currentProgram = programDefinitionsForAllVersions.get(programId);
-
-    ImmutableList<ApplicationModel> applications =
-        programService
-            .getSubmittedProgramApplicationsAllVersions(
-                programId,
-                SubmitTimeSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
-                filters)
-            .getPageContents();
-
     CsvExportConfig exportConfig =
         generateCsvConfig(
-            applications, programDefinitionsForAllVersions, currentProgram.hasEligibilityEnabled());
+            programId,
+            filters,
+            programDefinitionsForAllVersions,
+            currentProgram.hasEligibilityEnabled());
 
-    return exportCsv(
-        exportConfig,
-        applications,
-        // Use our local program definition cache when exporting applications,
-        // it's faster then the cache in the ProgramRepository.
-        programDefinitionsForAllVersions::get,
-        Optional.of(currentProgram));
+    // The exporter writes into this buffer, which is drained after every page. Pages are produced
+    // strictly one after another by unfoldAsync, so the buffer is never written concurrently.
+    StringWriter buffer = new StringWriter();
+    CsvExporter csvExporter;
+    try {
+      csvExporter = newCsvExporter(exportConfig, buffer);
+    } catch (IOException e) {
+      // Since it's an in-memory writer, this shouldn't happen.
+      throw new RuntimeException(e);
+    }
+
+    return Source.<Optional<SubmitTimeSequentialAccessPaginationSpec>, ByteString>unfoldAsync(
+        Optional.of(FIRST_EXPORT_PAGE_SPEC),
+        (Optional<SubmitTimeSequentialAccessPaginationSpec> paginationSpec) -> {
+          if (paginationSpec.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+          }
+          return supplyAsync(
+              () -> {
+                try {
+                  Optional<SubmitTimeSequentialAccessPaginationSpec> nextPaginationSpec =
+                      exportPage(
+                          csvExporter,
+                          programId,
+                          paginationSpec.get(),
+                          filters,
+                          programDefinitionsForAllVersions::get,
+                          Optional.of(currentProgram));
+                  if (nextPaginationSpec.isEmpty()) {
+                    csvExporter.close();
+                  }
+                  ByteString chunk =
+                      ByteString.fromString(buffer.toString(), StandardCharsets.UTF_8);
+                  buffer.getBuffer().setLength(0);
+                  return Optional.of(Pair.create(nextPaginationSpec, chunk));
+                } catch (IOException e) {
+                  throw new RuntimeException(e);
+                }
+              },
+              databaseExecutionContext);
+        });
+  }
+
+  private ImmutableMap<Long, ProgramDefinition> getProgramDefinitionsForAllVersions(
+      long programId) throws ProgramNotFoundException {
+    return programService.getAllVersionsFullProgramDefinition(programId).stream()
+        .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd));
   }
 
+  /**
+   * Builds the columns for every question in the submitted applications to the program.
+   *
+   * <p>The columns are derived from the program definitions of the versions that have matching
+   * applications, rather than from the applications themselves. The only thing read from the
+   * applications is the number of repeated entities they have, which is aggregated in the database
+   * by {@link ExportServiceRepository#getMaxRepeatedEntityCountsByProgram}. This makes column
+   * discovery cost proportional to the number of program versions instead of the number of
+   * applications.
+   */
   private CsvExportConfig generateCsvConfig(
-      ImmutableList<ApplicationModel> applications,
+      long programId,
+      SubmittedApplicationFilter filters,
       ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions,
-      boolean showEligibilityColumn)
-      throws ProgramNotFoundException {
+      boolean showEligibilityColumn) {
     Map<Path, ApplicantQuestion> uniqueQuestions = new HashMap<>();
 
-    applications.stream()
-        .flatMap(
-            app ->
+    buildExemplarApplicantData(programId, filters, programDefinitionsForAllVersions)
+        .forEach(
+            (programVersionId, exemplarApplicantData) ->
                 applicantService
                     .getReadOnlyApplicantProgramService(
-                        app, programDefinitionsForAllVersions.get(app.getProgram().id))
-                    .getAllQuestions())
-        .forEach(aq -> uniqueQuestions.putIfAbsent(aq.getContextualizedPath(), aq));
+                        exemplarApplicantData,
+                        programDefinitionsForAllVersions.get(programVersionId))
+                    .getAllQuestions()
+                    .forEach(
+                        aq -> uniqueQuestions.putIfAbsent(aq.getContextualizedPath(), aq)));
 
     ImmutableList<ApplicantQuestion> sortedUniqueQuestions =
         uniqueQuestions.values().stream()
@@ -127,6 +209,143 @@ public final class CsvExporterService {
     return buildColumnHeaders(sortedUniqueQuestions, showEligibilityColumn);
   }
 
+  /**
+   * Returns an {@link ApplicantData} for each program version with applications in the export. The
+   * applicant data has no answers, but at every enumerator path it has as many repeated entities as
+   * the largest number any exported application to that version has there. Its questions therefore
+   * have the union of the contextualized paths of the exported applications.
+   *
+   * <p>Repeated entity counts are queried one level of enumerator nesting at a time, since the
+   * paths of nested enumerators depend on the number of their parent entities.
+   */
+  private ImmutableMap<Long, ApplicantData> buildExemplarApplicantData(
+      long programId,
+      SubmittedApplicationFilter filters,
+      ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions) {
+    // The enumerator blocks whose repeated entities still need to be counted, keyed by program
+    // version and then by the contextualized path of the enumerator question.
+    Map<Long, Map<Path, BlockDefinition>> enumeratorsToCount = new HashMap<>();
+    for (ProgramDefinition programDefinition : programDefinitionsForAllVersions.values()) {
+      enumeratorsToCount.put(
+          programDefinition.id(),
+          programDefinition.getNonRepeatedBlockDefinitions().stream()
+              .filter(BlockDefinition::isEnumerator)
+              .collect(
+                  Collectors.toMap(
+                      block ->
+                          ApplicantData.APPLICANT_PATH.join(
+                              block.getEnumerationQuestionDefinition().getQuestionPathSegment()),
+                      block -> block,
+                      (first, second) -> first)));
+    }
+
+    Map<Long, ApplicantData> exemplars = new HashMap<>();
+    boolean isFirstLevel = true;
+    while (isFirstLevel || !enumeratorsToCount.isEmpty()) {
+      ImmutableMap<Long, ImmutableMap<Path, Integer>> countsByProgramVersion =
+          exportServiceRepository.getMaxRepeatedEntityCountsByProgram(
+              programId,
+              filters,
+              enumeratorsToCount.values().stream()
+                  .flatMap(enumerators -> enumerators.keySet().stream())
+                  .collect(ImmutableSet.toImmutableSet()));
+      if (isFirstLevel) {
+        // Only versions with exported applications contribute columns.
+        countsByProgramVersion
+            .keySet()
+            .forEach(programVersionId -> exemplars.put(programVersionId, new ApplicantData()));
+        isFirstLevel = false;
+      }
+
+      Map<Long, Map<Path, BlockDefinition>> nestedEnumeratorsToCount = new HashMap<>();
+      for (Map.Entry<Long, Map<Path, BlockDefinition>> entry : enumeratorsToCount.entrySet()) {
+        long programVersionId = entry.getKey();
+        if (!exemplars.containsKey(programVersionId)) {
+          continue;
+        }
+        ProgramDefinition programDefinition =
+            programDefinitionsForAllVersions.get(programVersionId);
+        ImmutableMap<Path, Integer> counts =
+            countsByProgramVersion.getOrDefault(programVersionId, ImmutableMap.of());
+        for (Map.Entry<Path, BlockDefinition> enumerator : entry.getValue().entrySet()) {
+          Path enumeratorPath = enumerator.getKey();
+          int count = counts.getOrDefault(enumeratorPath, 0);
+          if (count == 0) {
+            continue;
+          }
+          exemplars
+              .get(programVersionId)
+              .putRepeatedEntities(
+                  enumeratorPath,
+                  IntStream.range(0, count)
+                      .mapToObj(String::valueOf)
+                      .collect(ImmutableList.toImmutableList()));
+          for (BlockDefinition nestedEnumerator :
+              programDefinition.getBlockDefinitionsForEnumerator(enumerator.getValue().id())) {
+            if (!nestedEnumerator.isEnumerator()) {
+              continue;
+            }
+            for (int i = 0; i < count; i++) {
+              nestedEnumeratorsToCount
+                  .computeIfAbsent(programVersionId, id -> new HashMap<>())
+                  .putIfAbsent(
+                      enumeratorPath
+                          .atIndex(i)
+                          .join(
+                              nestedEnumerator
+                                  .getEnumerationQuestionDefinition()
+                                  .getQuestionPathSegment()),
+                      nestedEnumerator);
+            }
+          }
+        }
+      }
+      enumeratorsToCount = nestedEnumeratorsToCount;
+    }
+    return ImmutableMap.copyOf(exemplars);
+  }
+
+  /**
+   * Loads a single page of submitted applications to the program and writes them to the exporter.
+   *
+   * @return the pagination spec for the following page, or empty if this was the last page
+   */
+  private Optional<SubmitTimeSequentialAccessPaginationSpec> exportPage(
+      CsvExporter csvExporter,
+      long programId,
+      SubmitTimeSequentialAccessPaginationSpec paginationSpec,
+      SubmittedApplicationFilter filters,
+      Function<Long, ProgramDefinition> getProgramDefinition,
+      Optional<ProgramDefinition> currentProgram)
+      throws IOException {
+    PaginationResult<ApplicationModel> page =
+        programService.getSubmittedProgramApplicationsAllVersionsWithoutCount(
+            programId, paginationSpec, filters);
+    exportApplications(csvExporter, page.getPageContents(), getProgramDefinition, currentProgram);
+    return nextPageSpec(page);
+  }
+
+  /**
+   * Returns the spec for the page following {@code page}, keyed on the (submit time, id) of its
+   * last application, or empty if {@code page} is the last page.
+   */
+  private static Optional<SubmitTimeSequentialAccessPaginationSpec> nextPageSpec(
+      PaginationResult<ApplicationModel> page) {
+    if (!page.hasMorePages() || page.getPageContents().isEmpty()) {
+      return Optional.empty();
+    }
+    ApplicationModel lastApplication = Iterables.getLast(page.getPageContents());
+    return Optional.of(
+        new SubmitTimeSequentialAccessPaginationSpec(
+            EXPORT_PAGE_SIZE, lastApplication.getSubmitTime(), lastApplication.id));
+  }
+
+  private CsvExporter newCsvExporter(CsvExportConfig exportConfig, Writer writer)
+      throws IOException {
+    return new CsvExporter(
+        exportConfig.columns(), config.getString("play.http.secret.key"), writer, dateConverter);
+  }
+
   /**
    * Export a CSV using the provided CsvExportConfig and applications.
    *
@@ -142,31 +361,8 @@ public final class CsvExporterService {
       Optional<ProgramDefinition> currentProgram) {
     OutputStream inMemoryBytes = new ByteArrayOutputStream();
     try (Writer writer = new OutputStreamWriter(inMemoryBytes, StandardCharsets.UTF_8)) {
-      try (CsvExporter csvExporter =
-          new CsvExporter(
-              exportConfig.columns(),
-              config.getString("play.http.secret.key"),
-              writer,
-              dateConverter)) {
-        boolean shouldCheckEligibility =
-            currentProgram.isPresent() && currentProgram.get().hasEligibilityEnabled();
-
-        for (ApplicationModel application : applications) {
-          ProgramDefinition programDefForApplication =
-              getProgramDefinition.apply(application.getProgram().id);
-          ReadOnlyApplicantProgramService roApplicantService =
-              applicantService.getReadOnlyApplicantProgramService(
-                  application, programDefForApplication);
-
-          Optional<Boolean> optionalEligibilityStatus =
-              shouldCheckEligibility
-                  ? applicantService.getApplicationEligibilityStatus(
-                      application, programDefForApplication)
-                  : Optional.empty();
-
-          csvExporter.exportRecord(
-              application, roApplicantService, optionalEligibilityStatus, programDefForApplication);
-        }
+      try (CsvExporter csvExporter = newCsvExporter(exportConfig, writer)) {
+        exportApplications(csvExporter, applications, getProgramDefinition, currentProgram);
       }
     } catch (IOException e) {
       // Since it's an in-memory writer, this shouldn't happen.  Catch so that callers don't
@@ -176,6 +372,33 @@ public final class CsvExporterService {
     return inMemoryBytes.toString();
   }
 
+  private void exportApplications(
+      CsvExporter csvExporter,
+      ImmutableList<ApplicationModel> applications,
+      Function<Long, ProgramDefinition> getProgramDefinition,
+      Optional<ProgramDefinition> currentProgram)
+      throws IOException {
+    boolean shouldCheckEligibility =
+        currentProgram.isPresent() && currentProgram.get().hasEligibilityEnabled();
+
+    for (ApplicationModel application : applications) {
+      ProgramDefinition programDefForApplication =
+          getProgramDefinition.apply(application.getProgram().id);
+      ReadOnlyApplicantProgramService roApplicantService =
+          applicantService.getReadOnlyApplicantProgramService(
+              application, programDefForApplication);
+
+      Optional<Boolean> optionalEligibilityStatus =
+          shouldCheckEligibility
+              ? applicantService.getApplicationEligibilityStatus(
+                  application, programDefForApplication)
+              : Optional.empty();
+
+      csvExporter.exportRecord(
+          application, roApplicantService, optionalEligibilityStatus, programDefForApplication);
+    }
+  }
+
   /**
    * Produce the default {@link CsvExportConfig} for a list of {@link ApplicantQuestion}s. The
    * config includes all the questions, the application id, and the application submission time.
@@ -0,0 +1,64 @@
+package services.export;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.typesafe.config.Config;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import java.util.concurrent.Semaphore;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Limits how many applications export API requests this server instance loads from the database at
+ * once, across all API keys, so that partners paging through large programs at the same time
+ * can't use up the database thread pool that applicant requests also run on.
+ *
+ * <p>An export is in progress only while its page is loaded. It isn't tied to streaming the
+ * response, which may never happen if the client disconnects first, so that a permit can't leak.
+ *
+ * <p>Requests over {@code civiform_api_applications_list_max_concurrent_requests} are rejected
+ * rather than queued, so that they don't hold server resources while waiting.
+ */
+@Singleton
+public final class ExportConcurrencyLimiter {
+
+  private static final Counter REJECTED_EXPORTS =
+      Counter.build()
+          .name("api_export_rejected_requests_total")
+          .help("Count of applications export API requests rejected for exceeding the limit")
+          .register();
+  private static final Gauge EXPORTS_IN_PROGRESS =
+      Gauge.build()
+          .name("api_exports_in_progress")
+          .help("Number of applications export API requests loading from the database")
+          .register();
+
+  private final Semaphore permits;
+
+  @Inject
+  public ExportConcurrencyLimiter(Config config) {
+    this.permits =
+        new Semaphore(
+            checkNotNull(config).getInt("civiform_api_applications_list_max_concurrent_requests"));
+  }
+
+  /**
+   * Starts an export if fewer than the maximum are in progress, and returns whether it was started.
+   * Every started export must be finished with {@link #release()}.
+   */
+  public boolean tryAcquire() {
+    if (!permits.tryAcquire()) {
+      REJECTED_EXPORTS.inc();
+      return false;
+    }
+    EXPORTS_IN_PROGRESS.inc();
+    return true;
+  }
+
+  /** Finishes an export started by {@link #tryAcquire()}. */
+  public void release() {
+    EXPORTS_IN_PROGRESS.dec();
+    permits.release();
+  }
+}
@@ -0,0 +1,83 @@
+package services.export;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.Map;
+import javax.annotation.Nullable;
+import services.CfJsonDocumentContext;
+import services.program.ProgramDefinition;
+
+/**
+ * A precompiled plan for exporting applications to every version of a program as JSON.
+ *
+ * <p>The plan holds a template document with an entry for every question that has ever been in
+ * the program. Rather than copying the template for each application, an application's own
+ * document only contains its metadata and answers, and is merged with the template as it is
+ * written. Building an application's document therefore scales with the number of answers rather
+ * than the size of the template, and the template is never re-parsed.
+ *
+ * <p>A plan is immutable once compiled, so it may be cached and shared between exports.
+ */
+public final class JsonExportPlan {
+
+  private final ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions;
+  private final Object template;
+
+  JsonExportPlan(
+      ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions,
+      CfJsonDocumentContext template) {
+    this.programDefinitionsForAllVersions = checkNotNull(programDefinitionsForAllVersions);
+    this.template = checkNotNull(template).getDocumentContext().json();
+  }
+
+  /** Returns the program definition for the given version of the program. */
+  ProgramDefinition getProgramDefinition(long programVersionId) {
+    return checkNotNull(programDefinitionsForAllVersions.get(programVersionId));
+  }
+
+  /**
+   * Writes {@code application} to {@code jsonGenerator}, filling in any question that the
+   * application does not have an answer for from the template.
+   *
+   * <p>The output is the same as if the application's entries were put into a copy of the
+   * template: existing keys keep their position in the template, and keys the template doesn't
+   * have are appended in the order they were added to the application.
+   *
+   * @param jsonGenerator the generator to write to
+   * @param application the metadata and answers for a single application
+   */
+  void write(JsonGenerator jsonGenerator, CfJsonDocumentContext application) throws IOException {
+    writeMerged(jsonGenerator, template, application.getDocumentContext().json());
+  }
+
+  private static void writeMerged(
+      JsonGenerator jsonGenerator, @Nullable Object templateValue, @Nullable Object value)
+      throws IOException {
+    if (!(templateValue instanceof Map<?, ?> templateObject)
+        || !(value instanceof Map<?, ?> object)) {
+      // Values other than objects replace the template's value entirely.
+      jsonGenerator.writeObject(value);
+      return;
+    }
+
+    jsonGenerator.writeStartObject();
+    for (Map.Entry<?, ?> templateEntry : templateObject.entrySet()) {
+      jsonGenerator.writeFieldName((String) templateEntry.getKey());
+      if (object.containsKey(templateEntry.getKey())) {
+        writeMerged(jsonGenerator, templateEntry.getValue(), object.get(templateEntry.getKey()));
+      } else {
+        jsonGenerator.writeObject(templateEntry.getValue());
+      }
+    }
+    for (Map.Entry<?, ?> entry : object.entrySet()) {
+      if (!templateObject.containsKey(entry.getKey())) {
+        jsonGenerator.writeFieldName((String) entry.getKey());
+        jsonGenerator.writeObject(entry.getValue());
+      }
+    }
+    jsonGenerator.writeEndObject();
+  }
+}
@@ -2,10 +2,15 @@ package services.export;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.jayway.jsonpath.DocumentContext;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,6 +21,13 @@ import models.ApplicationModel;
 import models.LifecycleStage;
 import models.TrustedIntermediaryGroupModel;
 import org.apache.commons.lang3.NotImplementedException;
+import org.apache.pekko.NotUsed;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
+import org.apache.pekko.util.ByteStringBuilder;
+import play.cache.NamedCache;
+import play.cache.SyncCacheApi;
+import repository.ProgramRepository;
 import repository.SubmittedApplicationFilter;
 import services.CfJsonDocumentContext;
 import services.DateConverter;
@@ -39,18 +51,25 @@ public final class JsonExporterService {
   private final ProgramService programService;
   private final DateConverter dateConverter;
   private final QuestionJsonPresenter.Factory presenterFactory;
+  private final ProgramRepository programRepository;
+  private final SyncCacheApi exportPlanCache;
   private static final String EMPTY_VALUE = "";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
   @Inject
   JsonExporterService(
       ApplicantService applicantService,
       ProgramService programService,
       DateConverter dateConverter,
-      QuestionJsonPresenter.Factory presenterFactory) {
+      QuestionJsonPresenter.Factory presenterFactory,
+      ProgramRepository programRepository,
+      @NamedCache("json-export-plan") SyncCacheApi exportPlanCache) {
     this.applicantService = checkNotNull(applicantService);
     this.programService = checkNotNull(programService);
     this.dateConverter = dateConverter;
     this.presenterFactory = checkNotNull(presenterFactory);
+    this.programRepository = checkNotNull(programRepository);
+    this.exportPlanCache = checkNotNull(exportPlanCache);
   }
 
   /**
@@ -83,19 +102,93 @@ public final class JsonExporterService {
    */
   public String exportPage(
       ProgramDefinition programDefinition, PaginationResult<ApplicationModel> paginationResult) {
+    JsonExportPlan exportPlan = getExportPlan(programDefinition);
+    StringWriter writer = new StringWriter();
+
+    try (JsonGenerator jsonGenerator = OBJECT_MAPPER.createGenerator(writer)) {
+      jsonGenerator.writeStartArray();
+      for (ApplicationModel application : paginationResult.getPageContents()) {
+        writeApplication(jsonGenerator, application, exportPlan);
+      }
+      jsonGenerator.writeEndArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return writer.toString();
+  }
+
+  /**
+   * Streams a JSON list of applications to the given program, using the page of applications
+   * supplied.
+   *
+   * <p>The first application is converted to JSON before this returns, so that a page that can't
+   * be exported fails before a response is committed to. The rest are converted only when the
+   * stream is pulled, so at most one application's JSON document is held in memory at a time
+   * rather than the whole page. If one of them fails to convert, the stream fails rather than
+   * completing, so the response is aborted instead of ending as if it were whole.
+   *
+   * @param programDefinition the program definition of the exported applications
+   * @param paginationResult the page of applications to export
+   * @return a source emitting the bytes of a JSON array of applications
+   */
+  public Source<ByteString, NotUsed> streamPage(
+      ProgramDefinition programDefinition, PaginationResult<ApplicationModel> paginationResult) {
+    JsonExportPlan exportPlan = getExportPlan(programDefinition);
     ImmutableList<ApplicationModel> applications = paginationResult.getPageContents();
+    if (applications.isEmpty()) {
+      return Source.single(ByteString.fromString("[]"));
+    }
+
+    ByteString firstApplication = writeApplication(applications.get(0), exportPlan);
+    return Source.single(firstApplication)
+        .concat(
+            Source.from(applications.subList(1, applications.size()))
+                .map(application -> writeApplication(application, exportPlan)))
+        .intersperse(
+            ByteString.fromString("["), ByteString.fromString(","), ByteString.fromString("]"));
+  }
 
-    ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions =
-        programService.getAllVersionsFullProgramDefinition(programDefinition.id()).stream()
-            .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd));
+  /**
+   * Returns the {@link JsonExportPlan} for every version of the given program.
+   *
+   * <p>When every version's full program definition is cached, the set of versions can't change
+   * without a new version being published, so the plan is cached alongside them keyed by the
+   * version IDs.
+   */
+  private JsonExportPlan getExportPlan(ProgramDefinition programDefinition) {
+    ImmutableList<ProgramDefinition> programDefinitionsForAllVersions =
+        programService.getAllVersionsFullProgramDefinition(programDefinition.id());
+
+    boolean allVersionsCached =
+        programDefinitionsForAllVersions.stream()
+            .allMatch(
+                pd -> programRepository.getFullProgramDefinitionFromCache(pd.id()).isPresent());
+    if (!allVersionsCached) {
+      return compileExportPlan(programDefinitionsForAllVersions);
+    }
 
-    // Build a template JSON document of all possible questions that have ever been in the program.
+    String cacheKey =
+        programDefinitionsForAllVersions.stream()
+            .map(pd -> String.valueOf(pd.id()))
+            .sorted()
+            .collect(Collectors.joining(","));
+    return exportPlanCache.getOrElseUpdate(
+        cacheKey, () -> compileExportPlan(programDefinitionsForAllVersions));
+  }
+
+  /**
+   * Compiles a {@link JsonExportPlan} containing a template JSON document of all possible
+   * questions that have ever been in the program.
+   */
+  private JsonExportPlan compileExportPlan(
+      ImmutableList<ProgramDefinition> programDefinitionsForAllVersions) {
     // TODO(#8147): Reduce code duplication once we find a long term solution. Here we've moved the
     // template creation outside of the loop, so we don't rebuild it for each application, but as a
     // result we've duplicated the ApplicantQuestion -> questionEntries map -> add to JSON document
     // flow.
     Map<Path, ApplicantQuestion> answersToExport = new HashMap<>();
-    for (ProgramDefinition pd : programDefinitionsForAllVersions.values()) {
+    for (ProgramDefinition pd : programDefinitionsForAllVersions) {
       // We use an empty ApplicantData because these should all be exported as unanswered questions.
       applicantService
           .getReadOnlyApplicantProgramService(new ApplicantData(), pd)
@@ -117,26 +210,36 @@ public final class JsonExporterService {
     }
     CfJsonDocumentContext template = new CfJsonDocumentContext();
     exportApplicationEntriesToJsonApplication(template, entriesBuilder.build());
-    // TODO(#8147): I'm not sure if reading the template out into a string, just to re-parse it into
-    // a JsonData for each application, is more or less efficient than trying to clone a JsonData
-    // object.
-    String jsonStringTemplate = template.asJsonString();
-
-    // Then use the template when exporting each application.
-    DocumentContext jsonData =
-        applications.stream()
-            .map(
-                app ->
-                    buildApplicationExportData(
-                        app, programDefinitionsForAllVersions.get(app.getProgram().id)))
-            .collect(
-                Collectors.collectingAndThen(
-                    ImmutableList.toImmutableList(),
-                    appDataList ->
-                        convertApplicationExportDataListToJsonArray(
-                            appDataList, jsonStringTemplate)));
-
-    return jsonData.jsonString();
+
+    return new JsonExportPlan(
+        programDefinitionsForAllVersions.stream()
+            .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd)),
+        template);
+  }
+
+  /** Converts a single application to JSON and returns its UTF-8 encoded bytes. */
+  private ByteString writeApplication(ApplicationModel application, JsonExportPlan exportPlan) {
+    ByteStringBuilder builder = ByteString.createBuilder();
+
+    try (JsonGenerator jsonGenerator = OBJECT_MAPPER.createGenerator(builder.asOutputStream())) {
+      writeApplication(jsonGenerator, application, exportPlan);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return builder.result();
+  }
+
+  /** Converts a single application to JSON and writes it to {@code jsonGenerator}. */
+  private void writeApplication(
+      JsonGenerator jsonGenerator, ApplicationModel application, JsonExportPlan exportPlan)
+      throws IOException {
+    ApplicationExportData applicationExportData =
+        buildApplicationExportData(
+            application, exportPlan.getProgramDefinition(application.getProgram().id));
+    exportPlan.write(
+        jsonGenerator,
+        convertExportDataToJson(applicationExportData, new CfJsonDocumentContext()));
   }
 
   /**
@@ -152,7 +255,8 @@ public final class JsonExporterService {
         applicationExportData -> {
           applications.add(
               "$",
-              convertExportDataToJson(applicationExportData, jsonTemplate)
+              convertExportDataToJson(
+                      applicationExportData, new CfJsonDocumentContext(jsonTemplate))
                   .getDocumentContext()
                   .json());
         });
@@ -213,9 +317,7 @@ public final class JsonExporterService {
   }
 
   private CfJsonDocumentContext convertExportDataToJson(
-      ApplicationExportData applicationExportData, String jsonTemplate) {
-    CfJsonDocumentContext jsonApplication = new CfJsonDocumentContext(jsonTemplate);
-
+      ApplicationExportData applicationExportData, CfJsonDocumentContext jsonApplication) {
     jsonApplication.putString(Path.create("program_name"), applicationExportData.adminName());
     jsonApplication.putLong(Path.create("program_version_id"), applicationExportData.programId());
     jsonApplication.putLong(Path.create("applicant_id"), applicationExportData.applicantId());
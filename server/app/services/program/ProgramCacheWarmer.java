@@ -0,0 +1,109 @@
+package services.program;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.prometheus.client.Histogram;
+import java.util.concurrent.CompletableFuture;
+import javax.inject.Inject;
+import models.ProgramModel;
+import models.VersionModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.DatabaseExecutionContext;
+import repository.VersionRepository;
+import services.settings.SettingsManifest;
+
+/**
+ * Loads the active version's programs, questions and full program definitions into the caches, so
+ * that the first applicant requests a server instance handles don't have to load them.
+ */
+public final class ProgramCacheWarmer {
+  private static final Logger logger = LoggerFactory.getLogger(ProgramCacheWarmer.class);
+
+  private static final Histogram WARM_UP_TIME =
+      Histogram.build()
+          .name("program_cache_warm_up_time_seconds")
+          .help("Time taken to load the active programs into the caches at startup")
+          .register();
+
+  private final VersionRepository versionRepository;
+  private final ProgramService programService;
+  private final SettingsManifest settingsManifest;
+  private final DatabaseExecutionContext databaseExecutionContext;
+
+  @Inject
+  public ProgramCacheWarmer(
+      VersionRepository versionRepository,
+      ProgramService programService,
+      SettingsManifest settingsManifest,
+      DatabaseExecutionContext databaseExecutionContext) {
+    this.versionRepository = checkNotNull(versionRepository);
+    this.programService = checkNotNull(programService);
+    this.settingsManifest = checkNotNull(settingsManifest);
+    this.databaseExecutionContext = checkNotNull(databaseExecutionContext);
+  }
+
+  /**
+   * Loads the active version into the caches, loading each program's full definition in parallel.
+   * Failures are logged rather than thrown, since anything that isn't cached is loaded on demand.
+   *
+   * <p>First, any active program without a snapshot of its questions is given one, whether or not
+   * the caches are enabled. See {@link ProgramQuestionSnapshot}.
+   */
+  public void warm() {
+    try {
+      versionRepository.snapshotActiveProgramQuestions();
+    } catch (RuntimeException e) {
+      logger.warn("Failed to snapshot the questions of the active programs", e);
+    }
+
+    // Only warm the caches that are enabled: the version's questions are cached with the version
+    // cache, and full program definitions with the question cache. Loading a full definition
+    // also looks up the program, which is only worth doing if the program cache is enabled too.
+    boolean warmQuestions = settingsManifest.getVersionCacheEnabled();
+    boolean warmProgramDefinitions =
+        settingsManifest.getQuestionCacheEnabled() && settingsManifest.getProgramCacheEnabled();
+    if (!warmQuestions && !warmProgramDefinitions) {
+      return;
+    }
+
+    Histogram.Timer timer = WARM_UP_TIME.startTimer();
+    try {
+      VersionModel activeVersion = versionRepository.getActiveVersion();
+      CompletableFuture<?> questions =
+          warmQuestions
+              ? CompletableFuture.runAsync(
+                  () -> versionRepository.getQuestionsForVersion(activeVersion),
+                  databaseExecutionContext)
+              : CompletableFuture.completedFuture(null);
+      ImmutableList<ProgramModel> programs =
+          warmProgramDefinitions
+              ? versionRepository.getProgramsForVersion(activeVersion)
+              : ImmutableList.of();
+      CompletableFuture<?>[] programDefinitions =
+          programs.stream()
+              .map(
+                  program ->
+                      CompletableFuture.runAsync(
+                          () -> loadFullProgramDefinition(program.id), databaseExecutionContext))
+              .toArray(CompletableFuture<?>[]::new);
+      CompletableFuture.allOf(programDefinitions).join();
+      questions.join();
+      logger.info("Loaded {} active programs into the caches", programs.size());
+    } catch (RuntimeException e) {
+      logger.warn("Failed to load the active programs into the caches", e);
+    } finally {
+      logger.info("Program cache warm up took {} seconds", timer.observeDuration());
+    }
+  }
+
+  private void loadFullProgramDefinition(long programId) {
+    try {
+      programService.getFullProgramDefinition(programId);
+    } catch (ProgramNotFoundException e) {
+      // The program was removed from the active version while warming up.
+      logger.warn("Program {} not found while warming up the caches", programId);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package services.program;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.question.types.QuestionDefinition;
+import services.question.types.QuestionDefinitionBuilder;
+import services.question.types.QuestionType;
+
+/**
+ * Serializes the question definitions that a published program refers to, so that its full {@link
+ * ProgramDefinition} can be rebuilt without loading the questions in its version.
+ *
+ * <p>Everything else in a full program definition, such as its blocks, predicates and
+ * localizations, is already stored on the program's row. A published program's questions can no
+ * longer change, so a snapshot is taken once when it is published and stays valid for as long as
+ * the program itself is not changed.
+ */
+public final class ProgramQuestionSnapshot {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProgramQuestionSnapshot.class);
+  private static final ObjectMapper OBJECT_MAPPER =
+      new ObjectMapper().registerModule(new GuavaModule()).registerModule(new Jdk8Module());
+
+  /** A question definition and the properties that its JSON form leaves out. */
+  private record SnapshotQuestion(
+      @JsonProperty("definition") QuestionDefinition definition,
+      @JsonProperty("lastModifiedTime") Optional<String> lastModifiedTime,
+      @JsonProperty("concurrencyToken") Optional<UUID> concurrencyToken) {}
+
+  private ProgramQuestionSnapshot() {}
+
+  /**
+   * Returns a snapshot of the questions in a fully loaded {@code programDefinition}, or an empty
+   * value if any of them couldn't be loaded.
+   */
+  public static Optional<String> create(ProgramDefinition programDefinition) {
+    return create(
+        programDefinition,
+        programDefinition
+            .streamQuestionDefinitions()
+            .filter(question -> !question.getQuestionType().equals(QuestionType.NULL_QUESTION))
+            .collect(
+                ImmutableMap.toImmutableMap(
+                    QuestionDefinition::getId, question -> question, (first, second) -> first)));
+  }
+
+  /**
+   * Returns a snapshot of the questions in {@code programDefinition}, or an empty value if any of
+   * them aren't in {@code questionsById}.
+   */
+  public static Optional<String> create(
+      ProgramDefinition programDefinition, ImmutableMap<Long, QuestionDefinition> questionsById) {
+    ImmutableList.Builder<SnapshotQuestion> questions = ImmutableList.builder();
+    for (long questionId : programDefinition.getQuestionIdsInProgram()) {
+      QuestionDefinition question = questionsById.get(questionId);
+      if (question == null) {
+        logger.warn(
+            "Not creating a snapshot for program {} since question {} is missing",
+            programDefinition.id(),
+            questionId);
+        return Optional.empty();
+      }
+      questions.add(
+          new SnapshotQuestion(
+              question,
+              question.getLastModifiedTime().map(Instant::toString),
+              question.getConcurrencyToken()));
+    }
+    try {
+      return Optional.of(OBJECT_MAPPER.writeValueAsString(questions.build()));
+    } catch (JsonProcessingException e) {
+      logger.warn("Failed to create a snapshot for program {}", programDefinition.id(), e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Returns {@code programDefinition} with the question definitions from {@code snapshot} filled
+   * in, or an empty value if the snapshot can't be used.
+   *
+   * @param programDefinition the program definition stored on the program's row
+   * @param snapshot a snapshot created by {@link #create} for the same program
+   */
+  public static Optional<ProgramDefinition> load(
+      ProgramDefinition programDefinition, String snapshot) {
+    ImmutableMap<Long, QuestionDefinition> questionsById;
+    try {
+      questionsById =
+          OBJECT_MAPPER.readValue(snapshot, new TypeReference<ImmutableList<SnapshotQuestion>>() {})
+              .stream()
+              .map(ProgramQuestionSnapshot::restoreOmittedProperties)
+              .collect(ImmutableMap.toImmutableMap(QuestionDefinition::getId, q -> q));
+    } catch (JsonProcessingException | RuntimeException e) {
+      logger.warn("Failed to load the snapshot for program {}", programDefinition.id(), e);
+      return Optional.empty();
+    }
+
+    ImmutableList.Builder<BlockDefinition> blocks = ImmutableList.builder();
+    for (BlockDefinition block : programDefinition.blockDefinitions()) {
+      ImmutableList.Builder<ProgramQuestionDefinition> programQuestions = ImmutableList.builder();
+      for (ProgramQuestionDefinition programQuestion : block.programQuestionDefinitions()) {
+        QuestionDefinition question = questionsById.get(programQuestion.id());
+        if (question == null) {
+          return Optional.empty();
+        }
+        programQuestions.add(programQuestion.loadCompletely(programDefinition.id(), question));
+      }
+      blocks.add(block.toBuilder().setProgramQuestionDefinitions(programQuestions.build()).build());
+    }
+    return Optional.of(programDefinition.toBuilder().setBlockDefinitions(blocks.build()).build());
+  }
+
+  private static QuestionDefinition restoreOmittedProperties(SnapshotQuestion question) {
+    QuestionDefinitionBuilder builder =
+        new QuestionDefinitionBuilder(question.definition())
+            .setLastModifiedTime(question.lastModifiedTime().map(Instant::parse));
+    question.concurrencyToken().ifPresent(builder::setConcurrencyToken);
+    return builder.unsafeBuild();
+  }
+}
@@ -28,6 +28,7 @@ import java.util.stream.IntStream;
 import models.AccountModel;
 import models.ApplicationModel;
 import models.ApplicationStep;
+import models.ApplicationSummaryModel;
 import models.CategoryModel;
 import models.DisplayMode;
 import models.ProgramModel;
@@ -310,9 +311,17 @@ public final class ProgramService {
           .thenApply(ProgramDefinition::orderBlockDefinitions);
     }
 
+    // Published programs have a snapshot of their questions, so the questions in the version don't
+    // need to be loaded. Programs published before snapshots were taken are given one by the
+    // ProgramCacheWarmer at startup, not here, so that reading a program never writes to it.
     ProgramDefinition programDefinition =
-        syncProgramDefinitionQuestions(
-            programRepository.getShallowProgramDefinition(program), maxVersionForProgram);
+        programRepository
+            .getFullProgramDefinitionFromSnapshot(program)
+            .orElseGet(
+                () ->
+                    syncProgramDefinitionQuestions(
+                        programRepository.getShallowProgramDefinition(program),
+                        maxVersionForProgram));
 
     // It is safe to set the program definition cache, since we have already checked that it is
     // not a draft program.
@@ -1835,6 +1844,31 @@ public final class ProgramService {
         programId, paginationSpec, filters);
   }
 
+  /**
+   * Like {@link #getSubmittedProgramApplicationsAllVersions}, but without counting the number of
+   * pages, for exports that only page through the applications in sequence.
+   */
+  public PaginationResult<ApplicationModel> getSubmittedProgramApplicationsAllVersionsWithoutCount(
+      long programId, BasePaginationSpec paginationSpec, SubmittedApplicationFilter filters) {
+    return programRepository.getApplicationsForAllProgramVersionsWithoutCount(
+        programId, paginationSpec, filters);
+  }
+
+  /**
+   * Get the summaries of all submitted applications for this program and all other previous and
+   * future versions of it that match the specified filters, for listing them without loading the
+   * applications themselves.
+   *
+   * @param paginationSpec the pagination spec to apply to the query.
+   * @param filters a set of filters to apply to the examined applications.
+   */
+  public PaginationResult<ApplicationSummaryModel>
+      getSubmittedProgramApplicationSummariesAllVersions(
+          long programId, BasePaginationSpec paginationSpec, SubmittedApplicationFilter filters) {
+    return programRepository.getApplicationSummariesForAllProgramVersions(
+        programId, paginationSpec, filters);
+  }
+
   private static ImmutableSet<CiviFormError> validateBlockDefinition(
       BlockDefinition blockDefinition) {
     ImmutableSet.Builder<CiviFormError> errors = ImmutableSet.builder();
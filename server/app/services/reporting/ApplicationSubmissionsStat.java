@@ -56,15 +56,29 @@ public abstract class ApplicationSubmissionsStat {
   /** The 99th percentile average of the submission time - creation time. */
   public abstract double submissionDurationSeconds99p();
 
+  /** The stats of the submission durations in {@code histogram}. */
+  static ApplicationSubmissionsStat fromHistogram(
+      String programName,
+      String enUSLocalizedProgramName,
+      Optional<Timestamp> timestamp,
+      SubmissionDurationHistogram histogram) {
+    return create(
+        programName,
+        enUSLocalizedProgramName,
+        timestamp,
+        histogram.count(),
+        histogram.percentileSeconds(0.25),
+        histogram.percentileSeconds(0.5),
+        histogram.percentileSeconds(0.75),
+        histogram.percentileSeconds(0.99));
+  }
+
+  /** Merges the submission durations of several programs or months into one stat. */
   static final class Aggregator {
     private final String programName;
     private final String enUSLocalizedProgramName;
     private final Optional<Timestamp> timestamp;
-    private long count = 0;
-    private double p25WithWeights = 0;
-    private double p50WithWeights = 0;
-    private double p75WithWeights = 0;
-    private double p99WithWeights = 0;
+    private SubmissionDurationHistogram histogram = SubmissionDurationHistogram.empty();
 
     Aggregator(String programName, String enUSLocalizedProgramName, Timestamp timestamp) {
       this.programName = Preconditions.checkNotNull(programName);
@@ -78,24 +92,12 @@ public abstract class ApplicationSubmissionsStat {
       this.timestamp = Optional.empty();
     }
 
-    void update(ApplicationSubmissionsStat stat) {
-      count += stat.applicationCount();
-      p25WithWeights += stat.submissionDurationSeconds25p() * stat.applicationCount();
-      p50WithWeights += stat.submissionDurationSeconds50p() * stat.applicationCount();
-      p75WithWeights += stat.submissionDurationSeconds75p() * stat.applicationCount();
-      p99WithWeights += stat.submissionDurationSeconds99p() * stat.applicationCount();
+    void update(MonthlySubmissionHistogram monthlySubmissions) {
+      histogram = histogram.merge(monthlySubmissions.histogram());
     }
 
     ApplicationSubmissionsStat getAggregateStat() {
-      return ApplicationSubmissionsStat.create(
-          programName,
-          enUSLocalizedProgramName,
-          timestamp,
-          count,
-          p25WithWeights / count,
-          p50WithWeights / count,
-          p75WithWeights / count,
-          p99WithWeights / count);
+      return fromHistogram(programName, enUSLocalizedProgramName, timestamp, histogram);
     }
   }
 }
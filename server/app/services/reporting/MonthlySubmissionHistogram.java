@@ -0,0 +1,37 @@
+package services.reporting;
+
+import com.google.auto.value.AutoValue;
+import java.sql.Timestamp;
+import java.util.Optional;
+
+/** The submission durations of the applications submitted to a program in a given month. */
+@AutoValue
+public abstract class MonthlySubmissionHistogram {
+
+  public static MonthlySubmissionHistogram create(
+      String programName,
+      String enUSLocalizedProgramName,
+      Timestamp month,
+      SubmissionDurationHistogram histogram) {
+    return new AutoValue_MonthlySubmissionHistogram(
+        programName, enUSLocalizedProgramName, month, histogram);
+  }
+
+  /** The name of the program the applications were submitted for. */
+  public abstract String programName();
+
+  /** The localized name of the program the applications were submitted for. */
+  public abstract String enUSLocalizedProgramName();
+
+  /** A timestamp representing the month they were submitted. */
+  public abstract Timestamp month();
+
+  /** The durations between creating and submitting each application. */
+  public abstract SubmissionDurationHistogram histogram();
+
+  /** The stats for the program in the month. */
+  public ApplicationSubmissionsStat toStat() {
+    return ApplicationSubmissionsStat.fromHistogram(
+        programName(), enUSLocalizedProgramName(), Optional.of(month()), histogram());
+  }
+}
@@ -19,7 +19,6 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
-import java.util.stream.Stream;
 import javax.inject.Inject;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
@@ -55,9 +54,10 @@ public final class ReportingService {
   /**
    * Application stats in two groups: one grouped by program, one grouped by submission month.
    *
-   * <p>Historic monthly stats are stored in a postgres materialized view, but stats for the current
-   * month are queried directly in the database. Since that is an unbounded number of rows to scan
-   * we cache the result in server memory.
+   * <p>Stats are computed from a histogram of submission durations that is stored for each program
+   * and month and updated as applications are submitted, so loading them reads one row per program
+   * and month. The result is still cached in server memory, so the dashboard may be up to an hour
+   * behind.
    */
   public MonthlyStats getMonthlyStats() {
     return reportingDataCache.getOrElseUpdate(
@@ -166,38 +166,29 @@ public final class ReportingService {
   }
 
   private MonthlyStats queryAndCollateMonthlyStats() {
-    ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth =
-        reportingRepository.loadMonthlyReportingView();
-    ImmutableList<ApplicationSubmissionsStat> submissionsThisMonth =
-        reportingRepository.loadThisMonthReportingData();
+    ImmutableList<MonthlySubmissionHistogram> submissionsByProgramByMonth =
+        reportingRepository.loadMonthlySubmissionHistograms();
 
     return MonthlyStats.create(
-        Stream.concat(submissionsByProgramByMonth.stream(), submissionsThisMonth.stream())
+        submissionsByProgramByMonth.stream()
+            .map(MonthlySubmissionHistogram::toStat)
             .collect(ImmutableList.toImmutableList()),
-        monthlySubmissionsAggregated(submissionsByProgramByMonth, submissionsThisMonth),
-        totalSubmissionsByProgram(submissionsByProgramByMonth, submissionsThisMonth));
+        monthlySubmissionsAggregated(submissionsByProgramByMonth),
+        totalSubmissionsByProgram(submissionsByProgramByMonth));
   }
 
   /** Monthly application submission stats for all programs. */
   private ImmutableList<ApplicationSubmissionsStat> monthlySubmissionsAggregated(
-      ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth,
-      ImmutableList<ApplicationSubmissionsStat> submissionsThisMonth) {
+      ImmutableList<MonthlySubmissionHistogram> submissionsByProgramByMonth) {
     Map<Timestamp, ApplicationSubmissionsStat.Aggregator> aggregators = new HashMap<>();
 
-    Stream.concat(submissionsByProgramByMonth.stream(), submissionsThisMonth.stream())
-        .forEach(
-            stat -> {
-              ApplicationSubmissionsStat.Aggregator aggregator;
-              if (aggregators.containsKey(stat.timestamp().get())) {
-                aggregator = aggregators.get(stat.timestamp().get());
-              } else {
-                aggregator =
-                    new ApplicationSubmissionsStat.Aggregator("All", "All", stat.timestamp().get());
-                aggregators.put(stat.timestamp().get(), aggregator);
-              }
-
-              aggregator.update(stat);
-            });
+    submissionsByProgramByMonth.forEach(
+        submissions ->
+            aggregators
+                .computeIfAbsent(
+                    submissions.month(),
+                    month -> new ApplicationSubmissionsStat.Aggregator("All", "All", month))
+                .update(submissions));
 
     return aggregators.values().stream()
         .map(ApplicationSubmissionsStat.Aggregator::getAggregateStat)
@@ -207,25 +198,18 @@ public final class ReportingService {
 
   /** Total application submission stats for each program. */
   private ImmutableList<ApplicationSubmissionsStat> totalSubmissionsByProgram(
-      ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth,
-      ImmutableList<ApplicationSubmissionsStat> submissionsThisMonth) {
+      ImmutableList<MonthlySubmissionHistogram> submissionsByProgramByMonth) {
     Map<String, ApplicationSubmissionsStat.Aggregator> aggregators = new HashMap<>();
 
-    Stream.concat(submissionsByProgramByMonth.stream(), submissionsThisMonth.stream())
-        .forEach(
-            stat -> {
-              ApplicationSubmissionsStat.Aggregator aggregator;
-              if (aggregators.containsKey(stat.programName())) {
-                aggregator = aggregators.get(stat.programName());
-              } else {
-                aggregator =
-                    new ApplicationSubmissionsStat.Aggregator(
-                        stat.programName(), stat.enUSLocalizedProgramName());
-                aggregators.put(stat.programName(), aggregator);
-              }
-
-              aggregator.update(stat);
-            });
+    submissionsByProgramByMonth.forEach(
+        submissions ->
+            aggregators
+                .computeIfAbsent(
+                    submissions.programName(),
+                    programName ->
+                        new ApplicationSubmissionsStat.Aggregator(
+                            programName, submissions.enUSLocalizedProgramName()))
+                .update(submissions));
 
     return aggregators.values().stream()
         .map(ApplicationSubmissionsStat.Aggregator::getAggregateStat)
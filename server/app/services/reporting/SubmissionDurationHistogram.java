@@ -0,0 +1,101 @@
+package services.reporting;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Counts of application submission durations in buckets whose width grows exponentially, so that
+ * any percentile of the durations can be estimated to within about 2.5% from a fixed number of
+ * counters.
+ *
+ * <p>Histograms for different programs or months can be merged by adding their counts, which lets
+ * the reporting dashboard total up stored monthly histograms instead of rescanning applications.
+ * Bucket 0 holds durations under a second, and bucket {@code i} holds durations in [{@code
+ * GROWTH_FACTOR^(i-1)}, {@code GROWTH_FACTOR^i}) seconds. The last bucket also holds every longer
+ * duration.
+ */
+public final class SubmissionDurationHistogram {
+
+  /** The ratio between the upper and lower bound of each bucket after the first. */
+  public static final double GROWTH_FACTOR = 1.05;
+
+  /** The number of buckets, which covers durations of up to about 15 months. */
+  public static final int BUCKET_COUNT = 360;
+
+  private final long[] counts;
+
+  private SubmissionDurationHistogram(long[] counts) {
+    checkArgument(
+        counts.length == BUCKET_COUNT,
+        "Expected %s buckets but got %s",
+        BUCKET_COUNT,
+        counts.length);
+    this.counts = counts;
+  }
+
+  /** A histogram with the given count in each bucket. */
+  public static SubmissionDurationHistogram of(long[] counts) {
+    return new SubmissionDurationHistogram(Arrays.copyOf(counts, counts.length));
+  }
+
+  /** A histogram with no durations. */
+  public static SubmissionDurationHistogram empty() {
+    return new SubmissionDurationHistogram(new long[BUCKET_COUNT]);
+  }
+
+  /** A histogram with the durations of both this and {@code other}. */
+  public SubmissionDurationHistogram merge(SubmissionDurationHistogram other) {
+    long[] merged = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      merged[i] = counts[i] + other.counts[i];
+    }
+    return new SubmissionDurationHistogram(merged);
+  }
+
+  /** The number of durations in the histogram. */
+  public long count() {
+    return Arrays.stream(counts).sum();
+  }
+
+  /**
+   * Estimates the duration in seconds at {@code fraction} of the way through the sorted durations,
+   * interpolating between neighbouring durations like Postgres's {@code percentile_cont}. Each
+   * duration is taken to be the geometric midpoint of its bucket.
+   */
+  public double percentileSeconds(double fraction) {
+    checkArgument(fraction >= 0 && fraction <= 1, "Fraction %s is not in [0, 1]", fraction);
+    long count = count();
+    if (count == 0) {
+      return 0;
+    }
+    double rank = fraction * (count - 1);
+    long lowerRank = (long) Math.floor(rank);
+    double lower = secondsAtRank(lowerRank);
+    double upper = secondsAtRank(Math.min(lowerRank + 1, count - 1));
+    return lower + (rank - lowerRank) * (upper - lower);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof SubmissionDurationHistogram histogram
+        && Arrays.equals(counts, histogram.counts);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(counts);
+  }
+
+  private double secondsAtRank(long rank) {
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += counts[i];
+      if (seen > rank) {
+        return i == 0 ? 0 : Math.pow(GROWTH_FACTOR, i - 0.5);
+      }
+    }
+    throw new IllegalStateException(
+        String.format("Rank %d is out of range for %d durations", rank, seen));
+  }
+}
@@ -12,7 +12,9 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.mvc.Http;
@@ -24,6 +26,9 @@ public abstract class AbstractSettingsManifest {
   private final Config config;
   private static final Logger LOGGER = LoggerFactory.getLogger("SettingsManifest");
 
+  private final AtomicReference<CompiledSettings> compiledSettings = new AtomicReference<>();
+  private volatile @Nullable CompiledSettings compiledConfigSettings;
+
   public AbstractSettingsManifest(Config config) {
     this.config = checkNotNull(config);
   }
@@ -118,15 +123,12 @@ public abstract class AbstractSettingsManifest {
   }
 
   protected boolean getBool(String variableName, Http.RequestHeader request) {
-    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
-      LOGGER.warn(
-          String.format(
-              "Settings not found on request when looking up value for %s", variableName));
-      return getBool(variableName);
-    }
-
-    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
+    CompiledSettings settings = getCompiledSettings(variableName, request);
+    return settings.getBool(
+        variableName, () -> resolveBool(variableName, settings.getWritableSettings()));
+  }
 
+  private boolean resolveBool(String variableName, ImmutableMap<String, String> writableSettings) {
     return writableSettings.containsKey(variableName)
         ? writableSettings.get(variableName).equals("true")
         : getBool(variableName);
@@ -146,15 +148,13 @@ public abstract class AbstractSettingsManifest {
   }
 
   protected Optional<String> getString(String variableName, Http.RequestHeader request) {
-    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
-      LOGGER.warn(
-          String.format(
-              "Settings not found on request when looking up value for %s", variableName));
-      return getString(variableName);
-    }
-
-    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
+    CompiledSettings settings = getCompiledSettings(variableName, request);
+    return settings.getString(
+        variableName, () -> resolveString(variableName, settings.getWritableSettings()));
+  }
 
+  private Optional<String> resolveString(
+      String variableName, ImmutableMap<String, String> writableSettings) {
     return writableSettings.containsKey(variableName)
         ? Optional.of(writableSettings.get(variableName))
         : getString(variableName);
@@ -174,15 +174,13 @@ public abstract class AbstractSettingsManifest {
   }
 
   protected Optional<Integer> getInt(String variableName, Http.RequestHeader request) {
-    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
-      LOGGER.warn(
-          String.format(
-              "Settings not found on request when looking up value for %s", variableName));
-      return getInt(variableName);
-    }
-
-    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
+    CompiledSettings settings = getCompiledSettings(variableName, request);
+    return settings.getInt(
+        variableName, () -> resolveInt(variableName, settings.getWritableSettings()));
+  }
 
+  private Optional<Integer> resolveInt(
+      String variableName, ImmutableMap<String, String> writableSettings) {
     return writableSettings.containsKey(variableName)
         ? Optional.of(Integer.parseInt(writableSettings.get(variableName)))
         : getInt(variableName);
@@ -203,15 +201,13 @@ public abstract class AbstractSettingsManifest {
 
   protected Optional<ImmutableList<String>> getListOfStrings(
       String variableName, Http.RequestHeader request) {
-    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
-      LOGGER.warn(
-          String.format(
-              "Settings not found on request when looking up value for %s", variableName));
-      return getListOfStrings(variableName);
-    }
-
-    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
+    CompiledSettings settings = getCompiledSettings(variableName, request);
+    return settings.getListOfStrings(
+        variableName, () -> resolveListOfStrings(variableName, settings.getWritableSettings()));
+  }
 
+  private Optional<ImmutableList<String>> resolveListOfStrings(
+      String variableName, ImmutableMap<String, String> writableSettings) {
     if (!writableSettings.containsKey(variableName)) {
       return getListOfStrings(variableName);
     }
@@ -231,6 +227,54 @@ public abstract class AbstractSettingsManifest {
         name -> ImmutableList.copyOf(config.getStringList(name)), getHoconName(variableName));
   }
 
+  /**
+   * Returns the compiled values of the settings on {@code request}, compiling them if they are a
+   * different map from the last ones compiled. Requests share the map of the current settings
+   * snapshot, so they are compiled about once per settings update.
+   */
+  private CompiledSettings getCompiledSettings(String variableName, Http.RequestHeader request) {
+    if (!request.attrs().containsKey(CIVIFORM_SETTINGS_ATTRIBUTE_KEY)) {
+      LOGGER.warn(
+          String.format(
+              "Settings not found on request when looking up value for %s", variableName));
+      @Nullable CompiledSettings configSettings = compiledConfigSettings;
+      if (configSettings == null) {
+        configSettings = compile(ImmutableMap.of());
+        compiledConfigSettings = configSettings;
+      }
+      return configSettings;
+    }
+
+    var writableSettings = request.attrs().get(CIVIFORM_SETTINGS_ATTRIBUTE_KEY);
+    @Nullable CompiledSettings current = compiledSettings.get();
+    if (current != null && current.isCompiledFrom(writableSettings)) {
+      return current;
+    }
+    CompiledSettings compiled = compile(writableSettings);
+    compiledSettings.set(compiled);
+    return compiled;
+  }
+
+  private CompiledSettings compile(ImmutableMap<String, String> writableSettings) {
+    CompiledSettings.Builder builder = CompiledSettings.builder(writableSettings);
+    for (SettingDescription settingDescription : getAllSettingDescriptions()) {
+      String name = settingDescription.variableName();
+      try {
+        switch (settingDescription.settingType()) {
+          case BOOLEAN -> builder.putBool(name, resolveBool(name, writableSettings));
+          case INT -> builder.putInt(name, resolveInt(name, writableSettings));
+          case LIST_OF_STRINGS ->
+              builder.putListOfStrings(name, resolveListOfStrings(name, writableSettings));
+          case ENUM, STRING -> builder.putString(name, resolveString(name, writableSettings));
+        }
+      } catch (RuntimeException e) {
+        // Left uncompiled, so that each lookup fails as it would have without compiling.
+        LOGGER.warn(String.format("Could not compile the value of setting %s", name), e);
+      }
+    }
+    return builder.build();
+  }
+
   private <T> Optional<T> getConfigVal(Function<String, T> configGetter, String hoconName) {
     try {
       return Optional.of(configGetter.apply(hoconName));
@@ -0,0 +1,106 @@
+package services.settings;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The typed value of every setting in a {@link AbstractSettingsManifest}, resolved once from a map
+ * of stored settings and the HOCON config, so that looking one up is a single map read rather than
+ * a parse.
+ *
+ * <p>A setting whose value could not be resolved isn't compiled, and the manifest falls back to
+ * resolving it on each lookup.
+ */
+final class CompiledSettings {
+
+  private final ImmutableMap<String, String> writableSettings;
+  private final ImmutableMap<String, Boolean> bools;
+  private final ImmutableMap<String, Optional<String>> strings;
+  private final ImmutableMap<String, Optional<Integer>> ints;
+  private final ImmutableMap<String, Optional<ImmutableList<String>>> listsOfStrings;
+
+  private CompiledSettings(Builder builder) {
+    this.writableSettings = builder.writableSettings;
+    this.bools = builder.bools.buildKeepingLast();
+    this.strings = builder.strings.buildKeepingLast();
+    this.ints = builder.ints.buildKeepingLast();
+    this.listsOfStrings = builder.listsOfStrings.buildKeepingLast();
+  }
+
+  static Builder builder(ImmutableMap<String, String> writableSettings) {
+    return new Builder(writableSettings);
+  }
+
+  /** True if these were compiled from the same {@code writableSettings} instance. */
+  boolean isCompiledFrom(ImmutableMap<String, String> writableSettings) {
+    return this.writableSettings == writableSettings;
+  }
+
+  /** The stored settings these were compiled from. */
+  ImmutableMap<String, String> getWritableSettings() {
+    return writableSettings;
+  }
+
+  boolean getBool(String variableName, BooleanSupplier fallback) {
+    Boolean value = bools.get(variableName);
+    return value != null ? value : fallback.getAsBoolean();
+  }
+
+  Optional<String> getString(String variableName, Supplier<Optional<String>> fallback) {
+    Optional<String> value = strings.get(variableName);
+    return value != null ? value : fallback.get();
+  }
+
+  Optional<Integer> getInt(String variableName, Supplier<Optional<Integer>> fallback) {
+    Optional<Integer> value = ints.get(variableName);
+    return value != null ? value : fallback.get();
+  }
+
+  Optional<ImmutableList<String>> getListOfStrings(
+      String variableName, Supplier<Optional<ImmutableList<String>>> fallback) {
+    Optional<ImmutableList<String>> value = listsOfStrings.get(variableName);
+    return value != null ? value : fallback.get();
+  }
+
+  static final class Builder {
+    private final ImmutableMap<String, String> writableSettings;
+    private final ImmutableMap.Builder<String, Boolean> bools = ImmutableMap.builder();
+    private final ImmutableMap.Builder<String, Optional<String>> strings = ImmutableMap.builder();
+    private final ImmutableMap.Builder<String, Optional<Integer>> ints = ImmutableMap.builder();
+    private final ImmutableMap.Builder<String, Optional<ImmutableList<String>>> listsOfStrings =
+        ImmutableMap.builder();
+
+    private Builder(ImmutableMap<String, String> writableSettings) {
+      this.writableSettings = checkNotNull(writableSettings);
+    }
+
+    Builder putBool(String variableName, boolean value) {
+      bools.put(variableName, value);
+      return this;
+    }
+
+    Builder putString(String variableName, Optional<String> value) {
+      strings.put(variableName, value);
+      return this;
+    }
+
+    Builder putInt(String variableName, Optional<Integer> value) {
+      ints.put(variableName, value);
+      return this;
+    }
+
+    Builder putListOfStrings(String variableName, Optional<ImmutableList<String>> value) {
+      listsOfStrings.put(variableName, value);
+      return this;
+    }
+
+    CompiledSettings build() {
+      return new CompiledSettings(this);
+    }
+  }
+}
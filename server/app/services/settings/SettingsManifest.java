@@ -895,6 +895,15 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getBool("CIVIFORM_API_KEYS_BAN_GLOBAL_SUBNET");
   }
 
+  /**
+   * How often, in seconds, each server writes the call counts and last caller IP addresses of API
+   * keys to the database. Usage since the last write is lost if a server stops without shutting
+   * down cleanly. Default value is 10.
+   */
+  public Optional<Integer> getCiviformApiKeyUsageFlushIntervalSeconds() {
+    return getInt("CIVIFORM_API_KEY_USAGE_FLUSH_INTERVAL_SECONDS");
+  }
+
   /**
    * An integer specifying the maximum number of entries returned in a page of results for the
    * applications export API.
@@ -903,6 +912,31 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getInt("CIVIFORM_API_APPLICATIONS_LIST_MAX_PAGE_SIZE");
   }
 
+  /**
+   * The number of requests per second each API key may make to each server, on average. Requests
+   * over the limit are rejected with HTTP status 429. Set to 0, the default, to disable the limit.
+   */
+  public Optional<Integer> getCiviformApiKeyRateLimitRequestsPerSecond() {
+    return getInt("CIVIFORM_API_KEY_RATE_LIMIT_REQUESTS_PER_SECOND");
+  }
+
+  /**
+   * The number of requests an API key that has been idle may make to each server at once, before
+   * CIVIFORM_API_KEY_RATE_LIMIT_REQUESTS_PER_SECOND applies. Default value is 100.
+   */
+  public Optional<Integer> getCiviformApiKeyRateLimitBurst() {
+    return getInt("CIVIFORM_API_KEY_RATE_LIMIT_BURST");
+  }
+
+  /**
+   * The number of requests to the applications export API that each server loads from the database
+   * at once, across all API keys. Further requests are rejected with HTTP status 429 until one
+   * finishes. Default value is 4.
+   */
+  public Optional<Integer> getCiviformApiApplicationsListMaxConcurrentRequests() {
+    return getInt("CIVIFORM_API_APPLICATIONS_LIST_MAX_CONCURRENT_REQUESTS");
+  }
+
   /**
    * An integer specifying the polling interval in seconds for the durable job system. A smaller
    * number here increases the polling frequency, which results in jobs running sooner when they are
@@ -929,6 +963,15 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getInt("DURABLE_JOBS_THREAD_POOL_SIZE");
   }
 
+  /**
+   * The number of workers that run durable jobs in parallel on each server, so that a long running
+   * job doesn't delay the others. Each worker needs two threads, so DURABLE_JOBS_THREAD_POOL_SIZE
+   * must be at least twice this number. Default value is 1.
+   */
+  public Optional<Integer> getDurableJobsWorkerCount() {
+    return getInt("DURABLE_JOBS_WORKER_COUNT");
+  }
+
   /**
    * The amount of time, in minutes, that a session lasts. The default is 600 minutes, or 10 hours.
    * Note that there isn't yet messaging on the frontend to notify a user when their session is
@@ -2086,13 +2129,48 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                           /* isRequired= */ false,
                           SettingType.BOOLEAN,
                           SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "CIVIFORM_API_KEY_USAGE_FLUSH_INTERVAL_SECONDS",
+                          "How often, in seconds, each server writes the call counts and last"
+                              + " caller IP addresses of API keys to the database. Usage since the"
+                              + " last write is lost if a server stops without shutting down"
+                              + " cleanly. Default value is 10.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
                       SettingDescription.create(
                           "CIVIFORM_API_APPLICATIONS_LIST_MAX_PAGE_SIZE",
                           "An integer specifying the maximum number of entries returned in a page"
                               + " of results for the applications export API.",
                           /* isRequired= */ false,
                           SettingType.INT,
-                          SettingMode.ADMIN_READABLE))))
+                          SettingMode.ADMIN_READABLE),
+                      SettingDescription.create(
+                          "CIVIFORM_API_KEY_RATE_LIMIT_REQUESTS_PER_SECOND",
+                          "The number of requests per second each API key may make to each server,"
+                              + " on average. Requests over the limit are rejected with HTTP"
+                              + " status 429. Set to 0, the default, to disable the limit.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "CIVIFORM_API_KEY_RATE_LIMIT_BURST",
+                          "The number of requests an API key that has been idle may make to each"
+                              + " server at once, before"
+                              + " CIVIFORM_API_KEY_RATE_LIMIT_REQUESTS_PER_SECOND applies. Default"
+                              + " value is 100.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "CIVIFORM_API_APPLICATIONS_LIST_MAX_CONCURRENT_REQUESTS",
+                          "The number of requests to the applications export API that each server"
+                              + " loads from the database at once, across all API keys. Further"
+                              + " requests are rejected with HTTP status 429 until one finishes."
+                              + " Default value is 4.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
+                          SettingMode.HIDDEN))))
           .put(
               "Durable Jobs",
               SettingsSection.create(
@@ -2125,6 +2203,15 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                               + " parallel. Default value is 1.",
                           /* isRequired= */ false,
                           SettingType.INT,
+                          SettingMode.HIDDEN),
+                      SettingDescription.create(
+                          "DURABLE_JOBS_WORKER_COUNT",
+                          "The number of workers that run durable jobs in parallel on each server,"
+                              + " so that a long running job doesn't delay the others. Each worker"
+                              + " needs two threads, so DURABLE_JOBS_THREAD_POOL_SIZE must be at"
+                              + " least twice this number. Default value is 1.",
+                          /* isRequired= */ false,
+                          SettingType.INT,
                           SettingMode.HIDDEN))))
           .put(
               "Session Management",
@@ -32,9 +32,10 @@ import services.ColorUtil;
  * <p>Each time an admin updates the server settings using the admin UI, a SettingsGroup is saved.
  * The latest snapshot is used to provide settings for a given request to the server.
  *
- * <p>On each incoming request, the most recent SettingsGroup is loaded and its settings map stored
- * in the attributes of the incoming {@link play.mvc.Http.Request} object for ease of access
- * throughout the request lifecycle.
+ * <p>On each incoming request, the settings map of the most recent SettingsGroup is stored in the
+ * attributes of the incoming {@link play.mvc.Http.Request} object for ease of access throughout
+ * the request lifecycle. The map is held in memory by {@link SettingsSnapshotHolder} between
+ * updates, so requests don't need to load it from the database.
  */
 public final class SettingsService {
 
@@ -46,28 +47,35 @@ public final class SettingsService {
 
   private final SettingsGroupRepository settingsGroupRepository;
   private final SettingsManifest settingsManifest;
+  private final SettingsSnapshotHolder settingsSnapshotHolder;
 
   @Inject
   public SettingsService(
-      SettingsGroupRepository settingsGroupRepository, SettingsManifest settingsManifest) {
+      SettingsGroupRepository settingsGroupRepository,
+      SettingsManifest settingsManifest,
+      SettingsSnapshotHolder settingsSnapshotHolder) {
     this.settingsGroupRepository = checkNotNull(settingsGroupRepository);
     this.settingsManifest = checkNotNull(settingsManifest);
+    this.settingsSnapshotHolder = checkNotNull(settingsSnapshotHolder);
   }
 
   /**
-   * Load settings stored in the database. If the admin has never updated any settings this returns
-   * an empty map.
+   * Load the current settings, from memory if they haven't been updated since they were last
+   * loaded. If the admin has never updated any settings this returns an empty map.
    */
   public CompletionStage<Optional<ImmutableMap<String, String>>> loadSettings() {
+    return settingsSnapshotHolder.getSettings(this::loadSettingsFromDatabase);
+  }
+
+  private CompletionStage<Optional<ImmutableMap<String, String>>> loadSettingsFromDatabase() {
     return settingsGroupRepository
         .getCurrentSettings()
         .thenApply(maybeSettingsGroup -> maybeSettingsGroup.map(SettingsGroupModel::getSettings));
   }
 
   /**
-   * Loads the server settings from the database and returns a new request that has the settings in
-   * the request attributes. If no settings are found an error is logged and the request argument is
-   * returned.
+   * Returns a new request that has the current server settings in the request attributes. If no
+   * settings are found an error is logged and the request argument is returned.
    */
   public CompletionStage<Http.RequestHeader> applySettingsToRequest(Http.RequestHeader request) {
     return loadSettings()
@@ -98,7 +106,8 @@ public final class SettingsService {
    */
   public SettingsGroupUpdateResult updateSettings(
       ImmutableMap<String, String> newSettings, String papertrail) {
-    var maybeExistingSettings = loadSettings().toCompletableFuture().join();
+    // Read from the database, since another server instance may have just updated the settings.
+    var maybeExistingSettings = loadSettingsFromDatabase().toCompletableFuture().join();
 
     if (maybeExistingSettings.map(newSettings::equals).orElse(false)) {
       return SettingsGroupUpdateResult.noChange();
@@ -114,6 +123,7 @@ public final class SettingsService {
 
     var newSettingsGroup = new SettingsGroupModel(newSettings, papertrail);
     newSettingsGroup.save();
+    settingsSnapshotHolder.publishUpdate(newSettingsGroup.id);
 
     return SettingsGroupUpdateResult.success();
   }
@@ -286,6 +296,7 @@ public final class SettingsService {
 
     var group = new SettingsGroupModel(settings, "system");
     group.save();
+    settingsSnapshotHolder.publishUpdate(group.id);
 
     LOGGER.info("Migrated {} settings from config to database.", settings.size());
 
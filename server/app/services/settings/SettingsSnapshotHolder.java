@@ -0,0 +1,76 @@
+package services.settings;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import repository.CacheInvalidationBus;
+
+/**
+ * Holds a snapshot of the current server settings in memory, so that they only need to be loaded
+ * from the database once per update rather than on every request.
+ *
+ * <p>The snapshot is dropped whenever any server instance updates the settings, via the {@link
+ * CacheInvalidationBus}. A load that was in flight when the snapshot was dropped is not held, since
+ * it may have read the previous settings.
+ */
+@Singleton
+public final class SettingsSnapshotHolder {
+
+  private record Snapshot(long generation, ImmutableMap<String, String> settings) {}
+
+  private final CacheInvalidationBus cacheInvalidationBus;
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+  @Inject
+  public SettingsSnapshotHolder(CacheInvalidationBus cacheInvalidationBus) {
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
+    cacheInvalidationBus.subscribe(
+        CacheInvalidationBus.Event.SETTINGS_UPDATED, unusedKey -> invalidate());
+  }
+
+  /**
+   * Returns the held settings, or loads them with {@code loader} and holds them if none are held.
+   * If the loader finds no settings then nothing is held.
+   */
+  CompletionStage<Optional<ImmutableMap<String, String>>> getSettings(
+      Supplier<CompletionStage<Optional<ImmutableMap<String, String>>>> loader) {
+    long currentGeneration = generation.get();
+    @Nullable Snapshot current = snapshot.get();
+    if (current != null && current.generation() == currentGeneration) {
+      return CompletableFuture.completedFuture(Optional.of(current.settings()));
+    }
+    return loader
+        .get()
+        .thenApply(
+            settings -> {
+              settings.ifPresent(
+                  loaded ->
+                      snapshot.compareAndSet(current, new Snapshot(currentGeneration, loaded)));
+              return settings;
+            });
+  }
+
+  /**
+   * Drops the held settings on every server instance once the current transaction commits, after
+   * the settings group with {@code settingsGroupId} was saved.
+   */
+  void publishUpdate(long settingsGroupId) {
+    cacheInvalidationBus.publish(
+        CacheInvalidationBus.Event.SETTINGS_UPDATED, String.valueOf(settingsGroupId));
+  }
+
+  /** Drops the held settings on this server instance. */
+  public void invalidate() {
+    generation.incrementAndGet();
+  }
+}
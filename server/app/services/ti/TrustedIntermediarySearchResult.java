@@ -5,24 +5,24 @@ import java.util.Optional;
 import models.AccountModel;
 
 /**
- * Holds list of account after filtering out the account list per the SearchParamaters
+ * Holds a page of the accounts after filtering out the account list per the SearchParamaters
  *
- * <p>If the filtering attempt was successful, contains the filtered accounts.
+ * <p>If the filtering attempt was successful, contains a page of the filtered accounts and the
+ * total number of accounts that matched.
  *
- * <p>If the filtering attempt was not successful, contains all the accounts of the TIGroup along
- * with the error message of why the filtering failed.
+ * <p>If the filtering attempt was not successful, contains a page of all the accounts of the
+ * TIGroup along with the error message of why the filtering failed.
  */
 public final record TrustedIntermediarySearchResult(
-    ImmutableList<AccountModel> accounts, Optional<String> errorMessage) {
+    ImmutableList<AccountModel> accounts, int totalCount, Optional<String> errorMessage) {
 
-  public TrustedIntermediarySearchResult(
-      ImmutableList<AccountModel> accounts, Optional<String> errorMessage) {
-    this.accounts = accounts;
-    this.errorMessage = errorMessage;
+  public TrustedIntermediarySearchResult(ImmutableList<AccountModel> accounts, int totalCount) {
+    this(accounts, totalCount, Optional.empty());
   }
 
-  public TrustedIntermediarySearchResult(ImmutableList<AccountModel> accounts) {
-    this(accounts, Optional.empty());
+  /** Returns this result with the error message of why the filtering failed. */
+  public TrustedIntermediarySearchResult withErrorMessage(String errorMessage) {
+    return new TrustedIntermediarySearchResult(accounts, totalCount, Optional.of(errorMessage));
   }
 
   public boolean isSuccessful() {
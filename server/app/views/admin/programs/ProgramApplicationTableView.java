@@ -24,6 +24,7 @@ import static j2html.TagCreator.tr;
 import annotations.BindingAnnotations;
 import auth.CiviFormProfile;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import controllers.admin.routes;
 import j2html.TagCreator;
@@ -36,7 +37,7 @@ import j2html.tags.specialized.TableTag;
 import j2html.tags.specialized.TheadTag;
 import j2html.tags.specialized.TrTag;
 import java.util.Optional;
-import models.ApplicationModel;
+import models.ApplicationSummaryModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.i18n.Messages;
@@ -104,7 +105,7 @@ public class ProgramApplicationTableView extends BaseHtmlView {
       StatusDefinitions activeStatusDefinitions,
       ImmutableList<String> allPossibleProgramApplicationStatuses,
       PageNumberPaginationSpec paginationSpec,
-      PaginationResult<ApplicationModel> paginatedApplications,
+      PaginationResult<ApplicationSummaryModel> paginatedApplications,
       ProgramApplicationListView.RenderFilterParams filterParams,
       Optional<Boolean> showDownloadModal,
       Optional<String> message) {
@@ -359,13 +360,17 @@ public class ProgramApplicationTableView extends BaseHtmlView {
   }
 
   private DivTag renderApplicationTable(
-      ImmutableList<ApplicationModel> applications,
+      ImmutableList<ApplicationSummaryModel> applications,
       boolean displayStatus,
       StatusDefinitions statusDefinitions,
       ProgramDefinition program,
       Http.Request request,
       Optional<String> message) {
     boolean hasEligibilityEnabled = program.hasEligibilityEnabled();
+    ImmutableMap<Long, Optional<Boolean>> eligibilityStatuses =
+        hasEligibilityEnabled
+            ? applicantService.getApplicationEligibilityStatuses(applications, program)
+            : ImmutableMap.of();
     SelectTag dropdownTag =
         select()
             .withName("statusText")
@@ -415,8 +420,8 @@ public class ProgramApplicationTableView extends BaseHtmlView {
                                 displayStatus,
                                 statusDefinitions.getDefaultStatus(),
                                 hasEligibilityEnabled,
-                                applicantService.getApplicationEligibilityStatus(
-                                    application, program)))));
+                                eligibilityStatuses.getOrDefault(
+                                    application.id, Optional.empty())))));
     if (displayStatus) {
 
       return div(
@@ -461,7 +466,7 @@ public class ProgramApplicationTableView extends BaseHtmlView {
   }
 
   private TrTag renderApplicationRowItem(
-      ApplicationModel application,
+      ApplicationSummaryModel application,
       boolean displayStatus,
       Optional<StatusDefinitions.Status> defaultStatus,
       boolean hasEligibilityEnabled,
@@ -469,8 +474,7 @@ public class ProgramApplicationTableView extends BaseHtmlView {
     String applicantNameWithApplicationId =
         String.format(
             "%s (%d)",
-            applicantUtils.getApplicantNameEnUs(
-                application.getApplicant().getApplicantDisplayName()),
+            applicantUtils.getApplicantNameEnUs(application.getApplicantName()),
             application.id);
     String applicationStatus =
         application
@@ -505,10 +509,10 @@ public class ProgramApplicationTableView extends BaseHtmlView {
         .with(td(renderSubmitTime(application)).withClass(ReferenceClasses.BT_DATE));
   }
 
-  private ATag renderApplicationLink(String text, ApplicationModel application) {
+  private ATag renderApplicationLink(String text, ApplicationSummaryModel application) {
     String viewLink =
         controllers.admin.routes.AdminApplicationController.show(
-                application.getProgram().id, application.id)
+                application.getProgramId(), application.id)
             .url();
 
     return new LinkElement()
@@ -520,7 +524,7 @@ public class ProgramApplicationTableView extends BaseHtmlView {
         .asAnchorText();
   }
 
-  private SpanTag renderSubmitTime(ApplicationModel application) {
+  private SpanTag renderSubmitTime(ApplicationSummaryModel application) {
     try {
       return span()
           .withText(dateConverter.renderDateTimeHumanReadable(application.getSubmitTime()));
@@ -0,0 +1,6 @@
+# --- !Ups
+
+ALTER TABLE programs ADD COLUMN IF NOT EXISTS question_snapshot JSONB;
+
+# --- !Downs
+ALTER TABLE programs DROP COLUMN IF EXISTS question_snapshot;
@@ -0,0 +1,9 @@
+# --- Index the accounts managed by trusted intermediary groups and their newest applicants
+
+# --- !Ups
+CREATE INDEX IF NOT EXISTS index_accounts_managed_by_group_id ON accounts (managed_by_group_id);
+CREATE INDEX IF NOT EXISTS index_applicants_account_id_when_created ON applicants (account_id, when_created DESC);
+
+# --- !Downs
+DROP INDEX IF EXISTS index_accounts_managed_by_group_id;
+DROP INDEX IF EXISTS index_applicants_account_id_when_created;
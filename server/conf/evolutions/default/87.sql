@@ -0,0 +1,19 @@
+# --- Add a normalized search column for searching applications by applicant
+
+# --- !Ups
+-- Each searchable form of the applicant's email and name, lowercased and separated by newlines so
+-- that a search term can't match across two of them.
+ALTER TABLE applicants ADD COLUMN IF NOT EXISTS search_text varchar GENERATED ALWAYS AS (
+  lower(
+    coalesce(email_address, '') || E'\n' ||
+    coalesce(first_name || ' ' || last_name, '') || E'\n' ||
+    coalesce(last_name || ' ' || first_name, '') || E'\n' ||
+    coalesce(last_name || ', ' || first_name, ''))
+) STORED;
+CREATE INDEX IF NOT EXISTS index_applicants_search_text ON applicants USING gin (search_text gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS index_applications_submitter_email ON applications USING gin (lower(submitter_email) gin_trgm_ops);
+
+# --- !Downs
+DROP INDEX IF EXISTS index_applications_submitter_email;
+DROP INDEX IF EXISTS index_applicants_search_text;
+ALTER TABLE applicants DROP COLUMN IF EXISTS search_text;
@@ -0,0 +1,45 @@
+# --- Add a summary of each submitted application for the admin application list
+
+# --- !Ups
+-- One row per submitted application, written when it is submitted and when its status changes, so
+-- that listing a program's applications doesn't need to load the applicant or the application data.
+CREATE TABLE IF NOT EXISTS application_summary (
+  id bigint PRIMARY KEY REFERENCES applications (id) ON DELETE CASCADE,
+  program_id bigint NOT NULL,
+  applicant_id bigint NOT NULL,
+  applicant_name varchar,
+  submitter_email varchar,
+  submit_time timestamp,
+  latest_status varchar,
+  eligibility_determination varchar DEFAULT 'NOT_COMPUTED' NOT NULL
+);
+CREATE INDEX IF NOT EXISTS index_application_summary_by_program_submit_time ON application_summary (program_id, submit_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS index_application_summary_latest_status ON application_summary (latest_status);
+CREATE INDEX IF NOT EXISTS index_application_summary_submitter_email ON application_summary USING gin (lower(submitter_email) gin_trgm_ops);
+
+-- The applicant name matches ApplicantModel#getApplicantDisplayName.
+INSERT INTO application_summary (id, program_id, applicant_id, applicant_name, submitter_email, submit_time, latest_status, eligibility_determination)
+SELECT
+  applications.id,
+  applications.program_id,
+  applications.applicant_id,
+  coalesce(
+    CASE
+      WHEN applicants.first_name IS NULL THEN NULL
+      WHEN applicants.last_name IS NULL THEN applicants.first_name
+      ELSE applicants.last_name || ', ' || applicants.first_name
+    END,
+    applicants.email_address,
+    accounts.email_address),
+  applications.submitter_email,
+  applications.submit_time,
+  applications.latest_status,
+  applications.eligibility_determination
+FROM applications
+INNER JOIN applicants ON applicants.id = applications.applicant_id
+LEFT JOIN accounts ON accounts.id = applicants.account_id
+WHERE applications.lifecycle_stage IN ('active', 'obsolete')
+ON CONFLICT (id) DO NOTHING;
+
+# --- !Downs
+DROP TABLE IF EXISTS application_summary;
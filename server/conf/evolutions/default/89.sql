@@ -0,0 +1,13 @@
+# --- Add checkpoints for durable jobs that run in chunks
+
+# --- !Ups
+-- Keyed by the ID of the persisted durable job. There is deliberately no foreign key: the job
+-- runner holds a lock on the job's row while the job runs, which a foreign key check would wait on.
+CREATE TABLE IF NOT EXISTS persisted_durable_job_checkpoints (
+  id bigint PRIMARY KEY,
+  checkpoint varchar NOT NULL,
+  update_time timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+# --- !Downs
+DROP TABLE IF EXISTS persisted_durable_job_checkpoints;
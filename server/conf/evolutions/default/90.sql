@@ -0,0 +1,82 @@
+# --- Keep monthly submission stats up to date as applications are submitted
+
+# --- !Ups
+-- One row per program and month. submission_duration_histogram holds the counts of a
+-- services.reporting.SubmissionDurationHistogram: bucket 0 counts submissions that took under a
+-- second, and bucket i counts those that took between 1.05^(i-1) and 1.05^i seconds.
+CREATE TABLE IF NOT EXISTS monthly_submission_stats (
+  id BIGSERIAL PRIMARY KEY,
+  program_name varchar NOT NULL,
+  submit_month timestamp NOT NULL,
+  application_count bigint NOT NULL,
+  submission_duration_histogram bigint[] NOT NULL,
+  CONSTRAINT monthly_submission_stats_program_month UNIQUE (program_name, submit_month)
+);
+
+WITH bucket_counts AS (
+  SELECT
+    programs.name AS program_name,
+    date_trunc('month', applications.submit_time) AS submit_month,
+    LEAST(359, CASE WHEN coalesce(extract(epoch FROM applications.submission_duration), 0) < 1
+      THEN 0 ELSE 1 + floor(ln(extract(epoch FROM applications.submission_duration)) / ln(1.05))::int
+      END) AS bucket,
+    count(*) AS application_count
+  FROM applications
+  INNER JOIN programs ON applications.program_id = programs.id
+  WHERE applications.lifecycle_stage IN ('active', 'obsolete')
+    AND applications.submit_time IS NOT NULL
+  GROUP BY 1, 2, 3
+)
+INSERT INTO monthly_submission_stats
+  (program_name, submit_month, application_count, submission_duration_histogram)
+SELECT
+  months.program_name,
+  months.submit_month,
+  months.application_count,
+  ARRAY(
+    SELECT coalesce(bucket_counts.application_count, 0)
+    FROM generate_series(0, 359) AS buckets(bucket)
+    LEFT JOIN bucket_counts
+      ON bucket_counts.bucket = buckets.bucket
+      AND bucket_counts.program_name = months.program_name
+      AND bucket_counts.submit_month = months.submit_month
+    ORDER BY buckets.bucket)
+FROM
+  (SELECT program_name, submit_month, sum(application_count)::bigint AS application_count
+  FROM bucket_counts
+  GROUP BY 1, 2) AS months;
+
+DROP MATERIALIZED VIEW IF EXISTS monthly_submissions_reporting_view;
+
+# --- !Downs
+DROP TABLE IF EXISTS monthly_submission_stats;
+
+CREATE MATERIALIZED VIEW IF NOT EXISTS monthly_submissions_reporting_view AS
+  SELECT
+  programs.name AS program_name,
+  active_program.en_us_localized_name AS en_us_localized_name,
+  date_trunc('month', applications.submit_time) AS submit_month,
+  count(*),
+  percentile_cont(0.25) WITHIN GROUP (
+  ORDER BY applications.submission_duration) AS p25,
+  percentile_cont(0.5) WITHIN GROUP (
+  ORDER BY applications.submission_duration) AS p50,
+  percentile_cont(0.75) WITHIN GROUP (
+  ORDER BY applications.submission_duration) AS p75,
+  percentile_cont(0.99) WITHIN GROUP (
+  ORDER BY applications.submission_duration) AS p99
+  FROM applications
+  INNER JOIN programs ON applications.program_id = programs.id
+  INNER JOIN
+  (SELECT
+    p.name,
+    ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}') AS en_us_localized_name
+    FROM programs p
+    INNER JOIN versions_programs vp ON
+    vp.programs_id = p.id
+    INNER JOIN versions v ON
+    vp.versions_id = v.id WHERE v.lifecycle_stage IN ('active')) AS active_program
+  ON active_program.name = programs.name
+WHERE applications.lifecycle_stage IN ('active', 'obsolete')
+GROUP BY programs.name, active_program.en_us_localized_name, DATE_TRUNC('month', applications.submit_time)
+ORDER BY programs.name,active_program.en_us_localized_name, DATE_TRUNC('month', applications.submit_time) DESC;
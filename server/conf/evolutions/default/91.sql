@@ -0,0 +1,18 @@
+# --- Index the lowercased display name for searching the clients of trusted intermediaries
+
+# --- !Ups
+-- The applicant's part of the display name that trusted intermediaries search their clients by,
+-- lowercased. It is null if the applicant has neither a first name nor an email address, in which
+-- case the display name comes from the account. This is an expression index rather than a stored
+-- column so that applicants isn't rewritten; AccountRepository must query the same expression.
+CREATE INDEX IF NOT EXISTS index_applicants_search_display_name ON applicants USING gin ((
+  lower(
+    CASE
+      WHEN first_name IS NULL THEN email_address
+      WHEN last_name IS NULL THEN first_name
+      ELSE last_name || ', ' || first_name
+    END)
+) gin_trgm_ops);
+
+# --- !Downs
+DROP INDEX IF EXISTS index_applicants_search_display_name;
@@ -127,7 +127,8 @@ public class ApiAuthenticatorTest {
     var authenticator =
         new ApiAuthenticator(
             injector.getProvider(ApiKeyService.class),
-            new ClientIpResolver(MOCK_SETTINGS_MANIFEST));
+            new ClientIpResolver(MOCK_SETTINGS_MANIFEST),
+            injector.getInstance(ApiKeyCredentialCache.class));
     apiKey.setSubnet("3.3.3.3/32");
     apiKey.save();
 
@@ -197,7 +198,8 @@ public class ApiAuthenticatorTest {
     var authenticator =
         new ApiAuthenticator(
             injector.getProvider(ApiKeyService.class),
-            new ClientIpResolver(MOCK_SETTINGS_MANIFEST));
+            new ClientIpResolver(MOCK_SETTINGS_MANIFEST),
+            injector.getInstance(ApiKeyCredentialCache.class));
 
     apiKey.setSubnet("2.2.2.2/30,3.3.3.3/32");
     apiKey.save();
@@ -226,7 +228,8 @@ public class ApiAuthenticatorTest {
     var authenticator =
         new ApiAuthenticator(
             injector.getProvider(ApiKeyService.class),
-            new ClientIpResolver(MOCK_SETTINGS_MANIFEST));
+            new ClientIpResolver(MOCK_SETTINGS_MANIFEST),
+            injector.getInstance(ApiKeyCredentialCache.class));
 
     apiKey.setSubnet("2.2.2.2/30,3.3.3.3/32");
     apiKey.save();
@@ -264,6 +267,48 @@ public class ApiAuthenticatorTest {
         "Invalid secret for key ID: " + keyId);
   }
 
+  @Test
+  public void validate_afterSecretIsCached_invalidSecretIsStillRejected() {
+    Http.Request request =
+        fakeRequestBuilder().rawCredentials(validRawCredentials).remoteAddress("1.1.1.1").build();
+    apiAuthenticator.validate(
+        new CallContext(new PlayWebContext(request), MOCK_SESSION_STORE),
+        new UsernamePasswordCredentials(keyId, secret));
+
+    assertBadCredentialsException(
+        fakeRequestBuilder()
+            .rawCredentials(keyId + ":" + "notthesecret")
+            .remoteAddress("1.1.1.1")
+            .build(),
+        new UsernamePasswordCredentials(keyId, "notthesecret"),
+        "Invalid secret for key ID: " + keyId);
+    // The cached secret is still accepted.
+    apiAuthenticator.validate(
+        new CallContext(new PlayWebContext(request), MOCK_SESSION_STORE),
+        new UsernamePasswordCredentials(keyId, secret));
+  }
+
+  @Test
+  public void validate_afterSubnetsAreCached_ipNotInSubnetIsStillRejected() {
+    apiKey.setSubnet("2.2.2.2/30,3.3.3.3/32");
+    apiKey.save();
+    apiAuthenticator.validate(
+        new CallContext(
+            new PlayWebContext(
+                fakeRequestBuilder()
+                    .rawCredentials(validRawCredentials)
+                    .remoteAddress("2.2.2.1")
+                    .build()),
+            MOCK_SESSION_STORE),
+        new UsernamePasswordCredentials(keyId, secret));
+
+    assertBadCredentialsException(
+        fakeRequestBuilder().rawCredentials(validRawCredentials).remoteAddress("4.4.4.4").build(),
+        String.format(
+            "Resolved IP 4.4.4.4 is not in allowed range for key ID: %s, which is \"%s\"",
+            keyId, "2.2.2.2/30,3.3.3.3/32"));
+  }
+
   private void assertBadCredentialsException(Http.Request request, String expectedMessage) {
     assertBadCredentialsException(
         request, new UsernamePasswordCredentials(keyId, secret), expectedMessage);
@@ -0,0 +1,63 @@
+package auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+
+public class Ipv4SubnetTest {
+
+  @Test
+  public void contains_singleAddress() {
+    Ipv4Subnet subnet = Ipv4Subnet.parse("3.3.3.3/32");
+
+    assertThat(subnet.contains("3.3.3.3")).isTrue();
+    assertThat(subnet.contains("3.3.3.4")).isFalse();
+  }
+
+  @Test
+  public void contains_includesNetworkAndBroadcastAddresses() {
+    Ipv4Subnet subnet = Ipv4Subnet.parse("2.2.2.2/30");
+
+    assertThat(subnet.contains("2.2.2.0")).isTrue();
+    assertThat(subnet.contains("2.2.2.3")).isTrue();
+    assertThat(subnet.contains("2.2.2.4")).isFalse();
+    assertThat(subnet.contains("2.2.1.255")).isFalse();
+  }
+
+  @Test
+  public void contains_highAddresses() {
+    Ipv4Subnet subnet = Ipv4Subnet.parse("192.168.0.0/16");
+
+    assertThat(subnet.contains("192.168.255.255")).isTrue();
+    assertThat(subnet.contains("192.169.0.0")).isFalse();
+  }
+
+  @Test
+  public void contains_globalSubnet_containsEveryAddress() {
+    Ipv4Subnet subnet = Ipv4Subnet.parse("0.0.0.0/0");
+
+    assertThat(subnet.contains("0.0.0.0")).isTrue();
+    assertThat(subnet.contains("255.255.255.255")).isTrue();
+  }
+
+  @Test
+  public void contains_invalidAddress_throws() {
+    Ipv4Subnet subnet = Ipv4Subnet.parse("0.0.0.0/0");
+
+    assertThatThrownBy(() -> subnet.contains("1.1.1")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> subnet.contains("1.1.1.256"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> subnet.contains("1..1.1"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> subnet.contains("::1")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void parse_invalidRange_throws() {
+    assertThatThrownBy(() -> Ipv4Subnet.parse("1.1.1.1"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> Ipv4Subnet.parse("1.1.1.1/33"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -3,11 +3,14 @@ package controllers;
 import static org.assertj.core.api.Assertions.assertThat;
 import static services.export.JsonPrettifier.asPrettyJsonString;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import controllers.api.ApiPaginationTokenPayload;
 import controllers.api.ApiPaginationTokenSerializer;
 import controllers.api.ApiPayloadWrapper;
 import java.util.Optional;
+import org.apache.pekko.stream.javadsl.Source;
+import org.apache.pekko.util.ByteString;
 import org.junit.Test;
 import repository.ResetPostgres;
 
@@ -65,4 +68,31 @@ public class ApiPayloadWrapperTest extends ResetPostgres {
             }"""
                 .formatted(expectedToken));
   }
+
+  @Test
+  public void wrapPayloadSource_matchesWrapPayloadString() {
+    String payload = "[{\"United States\":\"New York City\"},{\"Canada\":\"Toronto\"}]";
+
+    ApiPaginationTokenPayload fakeToken =
+        new ApiPaginationTokenPayload(
+            new ApiPaginationTokenPayload.PageSpec("fakeOffsetId", 1),
+            ImmutableMap.of("key", "value"));
+    ApiPayloadWrapper apiPayloadWrapper = instanceOf(ApiPayloadWrapper.class);
+
+    for (Optional<ApiPaginationTokenPayload> token :
+        ImmutableList.of(Optional.of(fakeToken), Optional.<ApiPaginationTokenPayload>empty())) {
+      String result =
+          apiPayloadWrapper
+              .wrapPayload(
+                  Source.from(ImmutableList.of(payload.substring(0, 10), payload.substring(10)))
+                      .map(ByteString::fromString),
+                  token)
+              .runFold(ByteString.emptyByteString(), ByteString::concat, mat)
+              .toCompletableFuture()
+              .join()
+              .utf8String();
+
+      assertThat(result).isEqualTo(apiPayloadWrapper.wrapPayload(payload, token));
+    }
+  }
 }
@@ -23,6 +23,7 @@ import play.mvc.Http;
 import play.mvc.Result;
 import services.applicant.JsonPathProvider;
 import services.export.AbstractExporterTest;
+import services.export.ExportConcurrencyLimiter;
 
 public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
 
@@ -66,7 +67,7 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
     Result result = doRequest(requestUrl);
     assertThat(result.status()).isEqualTo(HttpStatus.SC_OK);
 
-    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result));
+    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result, mat));
     assertThat(resultJson.read("payload.length()", Integer.class)).isEqualTo(1);
     assertThat(resultJson.read("payload[0].application_id", Long.class))
         .isEqualTo(februaryApplication.id);
@@ -86,7 +87,7 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
     Result result = doRequest(firstRequestUrl);
     assertThat(result.status()).isEqualTo(HttpStatus.SC_OK);
 
-    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result));
+    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result, mat));
     assertThat(resultJson.read("payload.length()", Integer.class)).isEqualTo(2);
     assertThat(resultJson.read("payload[0].application_id", Long.class))
         .isEqualTo(marchApplication.id);
@@ -108,7 +109,7 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
     Result result = doRequest(firstRequestUrl);
     assertThat(result.status()).isEqualTo(HttpStatus.SC_OK);
 
-    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result));
+    DocumentContext resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result, mat));
     String nextPageToken = resultJson.read("nextPageToken", String.class);
     assertThat(nextPageToken).isNotBlank();
 
@@ -124,7 +125,7 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
     result = doRequest(secondRequestUrl);
     assertThat(result.status()).isEqualTo(HttpStatus.SC_OK);
 
-    resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result));
+    resultJson = JsonPathProvider.getJsonPath().parse(contentAsString(result, mat));
     nextPageToken = resultJson.read("$.nextPageToken", String.class);
     assertThat(nextPageToken).isNull();
     assertThat(resultJson.read("payload[0].application_id", Long.class))
@@ -150,6 +151,68 @@ public class ProgramApplicationsApiControllerTest extends AbstractExporterTest {
         .hasMessage("API key key-id does not have access to test-program");
   }
 
+  @Test
+  public void list_tooManyConcurrentExports_returnsTooManyRequests() {
+    String requestUrl =
+        controllers.api.routes.ProgramApplicationsApiController.list(
+                fakeProgramWithEnumerator.getSlug(),
+                /* fromDate= */ Optional.empty(),
+                /* toDate= */ Optional.empty(),
+                /* nextPageToken= */ Optional.empty(),
+                /* pageSize= */ Optional.empty())
+            .url();
+    ExportConcurrencyLimiter exportConcurrencyLimiter = instanceOf(ExportConcurrencyLimiter.class);
+    int startedExports = 0;
+    while (exportConcurrencyLimiter.tryAcquire()) {
+      startedExports++;
+    }
+
+    try {
+      Result result = doRequest(requestUrl);
+      assertThat(result.status()).isEqualTo(Http.Status.TOO_MANY_REQUESTS);
+      assertThat(result.header(Http.HeaderNames.RETRY_AFTER)).isPresent();
+    } finally {
+      for (int i = 0; i < startedExports; i++) {
+        exportConcurrencyLimiter.release();
+      }
+    }
+
+    assertThat(doRequest(requestUrl).status()).isEqualTo(HttpStatus.SC_OK);
+  }
+
+  @Test
+  public void list_responseNotConsumed_releasesExportPermit() {
+    String requestUrl =
+        controllers.api.routes.ProgramApplicationsApiController.list(
+                fakeProgramWithEnumerator.getSlug(),
+                /* fromDate= */ Optional.empty(),
+                /* toDate= */ Optional.empty(),
+                /* nextPageToken= */ Optional.empty(),
+                /* pageSize= */ Optional.empty())
+            .url();
+    ExportConcurrencyLimiter exportConcurrencyLimiter = instanceOf(ExportConcurrencyLimiter.class);
+    int startedExports = 0;
+    while (exportConcurrencyLimiter.tryAcquire()) {
+      startedExports++;
+    }
+    // Leave one export for the requests.
+    exportConcurrencyLimiter.release();
+    startedExports--;
+
+    try {
+      // Each response is dropped without its body being streamed, as when a client disconnects.
+      assertThat(doRequest(requestUrl).status()).isEqualTo(HttpStatus.SC_OK);
+      assertThat(doRequest(requestUrl).status()).isEqualTo(HttpStatus.SC_OK);
+
+      assertThat(exportConcurrencyLimiter.tryAcquire()).isTrue();
+      exportConcurrencyLimiter.release();
+    } finally {
+      for (int i = 0; i < startedExports; i++) {
+        exportConcurrencyLimiter.release();
+      }
+    }
+  }
+
   private Result doRequest(String requestUrl) {
     return route(
         app,
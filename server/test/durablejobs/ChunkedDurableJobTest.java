@@ -0,0 +1,101 @@
+package durablejobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import models.JobType;
+import models.PersistedDurableJobModel;
+import org.junit.Before;
+import org.junit.Test;
+import repository.PersistedDurableJobRepository;
+import repository.ResetPostgres;
+
+public class ChunkedDurableJobTest extends ResetPostgres {
+
+  private PersistedDurableJobRepository persistedDurableJobRepository;
+  private PersistedDurableJobModel persistedDurableJob;
+
+  @Before
+  public void setUp() {
+    persistedDurableJobRepository = instanceOf(PersistedDurableJobRepository.class);
+    persistedDurableJob =
+        new PersistedDurableJobModel(
+            DurableJobName.TEST.getJobNameString(), JobType.RUN_ONCE, Instant.now());
+    persistedDurableJob.save();
+  }
+
+  @Test
+  public void run_processesEveryChunkAndDeletesCheckpoint() {
+    List<Integer> processedChunks = new ArrayList<>();
+
+    new CountingJob(/* chunkCount= */ 3, /* failAtChunk= */ -1, processedChunks).run();
+
+    assertThat(processedChunks).containsExactly(0, 1, 2);
+    assertThat(persistedDurableJobRepository.getCheckpoint(persistedDurableJob.id)).isEmpty();
+  }
+
+  @Test
+  public void run_afterFailure_resumesFromLastCheckpoint() {
+    List<Integer> processedChunks = new ArrayList<>();
+
+    assertThatThrownBy(
+            () -> new CountingJob(/* chunkCount= */ 4, /* failAtChunk= */ 2, processedChunks).run())
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(processedChunks).containsExactly(0, 1);
+    assertThat(persistedDurableJobRepository.getCheckpoint(persistedDurableJob.id)).contains("2");
+
+    new CountingJob(/* chunkCount= */ 4, /* failAtChunk= */ -1, processedChunks).run();
+
+    assertThat(processedChunks).containsExactly(0, 1, 2, 3);
+    assertThat(persistedDurableJobRepository.getCheckpoint(persistedDurableJob.id)).isEmpty();
+  }
+
+  @Test
+  public void cancel_stopsAfterChunkInProgress() {
+    List<Integer> processedChunks = new ArrayList<>();
+    CountingJob job = new CountingJob(/* chunkCount= */ 4, /* failAtChunk= */ -1, processedChunks);
+    job.cancelAtChunk = 1;
+
+    job.run();
+
+    assertThat(processedChunks).containsExactly(0, 1);
+    assertThat(persistedDurableJobRepository.getCheckpoint(persistedDurableJob.id)).contains("2");
+  }
+
+  /** A job whose checkpoint is the number of the next chunk to process. */
+  private final class CountingJob extends ChunkedDurableJob {
+    private final int chunkCount;
+    private final int failAtChunk;
+    private final List<Integer> processedChunks;
+    private int cancelAtChunk = -1;
+
+    CountingJob(int chunkCount, int failAtChunk, List<Integer> processedChunks) {
+      super(persistedDurableJobRepository);
+      this.chunkCount = chunkCount;
+      this.failAtChunk = failAtChunk;
+      this.processedChunks = processedChunks;
+    }
+
+    @Override
+    public PersistedDurableJobModel getPersistedDurableJob() {
+      return persistedDurableJob;
+    }
+
+    @Override
+    protected Optional<String> processChunk(Optional<String> checkpoint) {
+      int chunk = checkpoint.map(Integer::parseInt).orElse(0);
+      if (chunk == failAtChunk) {
+        throw new IllegalStateException("Failed chunk " + chunk);
+      }
+      processedChunks.add(chunk);
+      if (chunk == cancelAtChunk) {
+        cancel();
+      }
+      return chunk + 1 < chunkCount ? Optional.of(String.valueOf(chunk + 1)) : Optional.empty();
+    }
+  }
+}
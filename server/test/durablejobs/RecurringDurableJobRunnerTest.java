@@ -12,6 +12,10 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import models.JobType;
 import models.PersistedDurableJobModel;
@@ -22,6 +26,7 @@ import org.mockito.Mockito;
 import play.api.inject.BindingKey;
 import repository.PersistedDurableJobRepository;
 import repository.ResetPostgres;
+import scala.concurrent.ExecutionContext$;
 import services.email.EmailSendClient;
 import support.TestRetry;
 
@@ -145,6 +150,77 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
     Mockito.verifyNoInteractions(emailSendClientMock);
   }
 
+  @Test
+  public void runJobs_withSeveralWorkers_runsReadyJobsInParallel() {
+    Config config =
+        ConfigFactory.parseMap(
+            ImmutableMap.of(
+                "it_email_address",
+                "test@example.com",
+                "base_url",
+                "https://civiform-test.dev",
+                "durable_jobs.job_timeout_minutes",
+                0,
+                "durable_jobs.poll_interval_seconds",
+                0,
+                "durable_jobs.worker_count",
+                2,
+                "durable_jobs.dispatcher.thread-pool-executor.fixed-pool-size",
+                4));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    DurableJobExecutionContext executionContext = Mockito.mock(DurableJobExecutionContext.class);
+    Mockito.when(executionContext.current())
+        .thenReturn(ExecutionContext$.MODULE$.fromExecutor(executor));
+    RecurringDurableJobRunner runner =
+        new RecurringDurableJobRunner(
+            config,
+            executionContext,
+            durableJobRegistry,
+            instanceOf(PersistedDurableJobRepository.class),
+            () ->
+                instanceOf(
+                    new BindingKey<>(LocalDateTime.class)
+                        .qualifiedWith(BindingAnnotations.Now.class)),
+            emailSendClientMock,
+            instanceOf(ZoneId.class));
+
+    // Each job waits for the other to start, so they only both succeed if they run at once.
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.RECURRING,
+        (persistedDurableJob) ->
+            makeTestJob(
+                persistedDurableJob,
+                () -> {
+                  bothStarted.countDown();
+                  try {
+                    if (!bothStarted.await(/* timeout= */ 2000L, TimeUnit.MILLISECONDS)) {
+                      throw new RuntimeException("the other job didn't start");
+                    }
+                  } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                  }
+                }));
+
+    PersistedDurableJobModel jobA = createPersistedJobToExecute();
+    PersistedDurableJobModel jobB = createPersistedJobToExecute();
+
+    try {
+      runner.runJobs();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    jobA.refresh();
+    jobB.refresh();
+    assertThat(jobA.getSuccessTime()).isPresent();
+    assertThat(jobB.getSuccessTime()).isPresent();
+    // Each job was only leased by one worker.
+    assertThat(jobA.getRemainingAttempts()).isEqualTo(2);
+    assertThat(jobB.getRemainingAttempts()).isEqualTo(2);
+  }
+
   @Test
   public void runJobs_jobNotFound_deletesJobFromDb() {
     PersistedDurableJobModel job = createPersistedJobToExecute();
@@ -17,6 +17,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import repository.AccountRepository;
 import repository.ApplicationRepository;
+import repository.PersistedDurableJobRepository;
 import repository.ResetPostgres;
 import services.Path;
 import services.applicant.ApplicantData;
@@ -305,10 +306,13 @@ public class ConvertAddressServiceAreaToArrayJobTest extends ResetPostgres {
         Path.create("applicant.enumerator_one[1].applicant_address_child"), newApplicationData);
   }
 
-  private static void runJob() {
+  private void runJob() {
+    PersistedDurableJobModel persistedDurableJob =
+        new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now());
+    persistedDurableJob.save();
     ConvertAddressServiceAreaToArrayJob job =
         new ConvertAddressServiceAreaToArrayJob(
-            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
+            instanceOf(PersistedDurableJobRepository.class), persistedDurableJob);
 
     job.run();
   }
@@ -12,6 +12,7 @@ import models.LifecycleStage;
 import models.PersistedDurableJobModel;
 import models.ProgramModel;
 import org.junit.Test;
+import repository.PersistedDurableJobRepository;
 import repository.ResetPostgres;
 import services.applicant.ApplicantData;
 import services.applicant.RepeatedEntity;
@@ -587,9 +588,12 @@ public class CopyFileKeyForMultipleFileUploadTest extends ResetPostgres {
   }
 
   private void runJob() {
+    PersistedDurableJobModel persistedDurableJob =
+        new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now());
+    persistedDurableJob.save();
     CopyFileKeyForMultipleFileUpload job =
         new CopyFileKeyForMultipleFileUpload(
-            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
+            instanceOf(PersistedDurableJobRepository.class), persistedDurableJob);
 
     job.run();
   }
@@ -2,6 +2,7 @@ package models;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.ebean.DB;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
@@ -42,6 +43,34 @@ public class ApplicantModelTest extends ResetPostgres {
     assertThat(applicant.getApplicantData().readString(path)).hasValue("1/1/2021");
   }
 
+  @Test
+  public void readingApplicantData_doesNotMarkApplicantDirty() {
+    ApplicantModel applicant = new ApplicantModel();
+    applicant.getApplicantData().putString(Path.create("$.applicant.birthDate"), "1/1/2021");
+    applicant.save();
+
+    applicant = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    applicant.getApplicantData().readString(Path.create("$.applicant.birthDate"));
+
+    assertThat(DB.beanState(applicant).isDirty()).isFalse();
+  }
+
+  @Test
+  public void persistsChangesToTheApplicantData_afterEarlierSave() {
+    ApplicantModel applicant = new ApplicantModel();
+    Path path = Path.create("$.applicant.birthDate");
+    applicant.getApplicantData().putString(path, "1/1/2021");
+    applicant.save();
+
+    applicant.getApplicantData().putString(path, "2/2/2022");
+    assertThat(DB.beanState(applicant).isDirty()).isTrue();
+    applicant.save();
+
+    applicant = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    assertThat(applicant.getApplicantData().readString(path)).hasValue("2/2/2022");
+  }
+
   @Test
   public void storesAndRetrievesPreferredLocale() {
     // Default to English
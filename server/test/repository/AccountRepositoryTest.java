@@ -9,9 +9,11 @@ import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
+import io.ebean.DB;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -22,6 +24,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import models.AccountModel;
 import models.ApplicantModel;
 import models.LifecycleStage;
@@ -30,7 +33,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
 import services.CiviFormError;
+import services.Path;
 import services.program.ProgramDefinition;
+import services.question.QuestionAnswerer;
 import services.settings.SettingsManifest;
 import services.ti.EmailAddressExistsException;
 import support.ProgramBuilder;
@@ -240,6 +245,108 @@ public class AccountRepositoryTest extends ResetPostgres {
     assertThat(a.getDateOfBirth().get().toString()).isEqualTo("2021-01-01");
   }
 
+  @Test
+  public void updateApplicantData_patchesOnlyChangedPaths() {
+    ApplicantModel applicant = new ApplicantModel();
+    applicant.getApplicantData().putString(Path.create("applicant.name.first_name"), "Alice");
+    applicant.getApplicantData().putString(Path.create("applicant.color.text"), "blue");
+    repo.insertApplicant(applicant).toCompletableFuture().join();
+    applicant = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    applicant.getApplicantData().putString(Path.create("applicant.name.first_name"), "Bob");
+    applicant.getApplicantData().maybeDelete(Path.create("applicant.color"));
+    applicant.getApplicantData().putString(Path.create("applicant.pet.text"), "cat");
+    repo.updateApplicantData(
+            applicant,
+            ImmutableSet.of(
+                Path.create("applicant.name"),
+                Path.create("applicant.color"),
+                Path.create("applicant.pet")))
+        .toCompletableFuture()
+        .join();
+
+    assertThat(applicant.hasUnsavedApplicantData()).isFalse();
+    ApplicantModel found = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    assertThat(found.getApplicantData().readString(Path.create("applicant.name.first_name")))
+        .hasValue("Bob");
+    assertThat(found.getApplicantData().hasPath(Path.create("applicant.color"))).isFalse();
+    assertThat(found.getApplicantData().readString(Path.create("applicant.pet.text")))
+        .hasValue("cat");
+  }
+
+  @Test
+  public void updateApplicantData_concurrentUpdatesToDifferentBlocks_keepsBothAnswers() {
+    ApplicantModel applicant = new ApplicantModel();
+    applicant.getApplicantData().putString(Path.create("applicant.name.first_name"), "Alice");
+    applicant.getApplicantData().putString(Path.create("applicant.color.text"), "blue");
+    repo.insertApplicant(applicant).toCompletableFuture().join();
+    // Each request loads its own copy of the applicant and answers a different block.
+    ApplicantModel firstRequest =
+        repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    ApplicantModel secondRequest =
+        repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    firstRequest.getApplicantData().putString(Path.create("applicant.name.first_name"), "Bob");
+    secondRequest.getApplicantData().putString(Path.create("applicant.color.text"), "green");
+
+    CompletableFuture<Void> firstUpdate =
+        repo.updateApplicantData(firstRequest, ImmutableSet.of(Path.create("applicant.name")))
+            .toCompletableFuture();
+    CompletableFuture<Void> secondUpdate =
+        repo.updateApplicantData(secondRequest, ImmutableSet.of(Path.create("applicant.color")))
+            .toCompletableFuture();
+    CompletableFuture.allOf(firstUpdate, secondUpdate).join();
+
+    ApplicantModel found = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    assertThat(found.getApplicantData().readString(Path.create("applicant.name.first_name")))
+        .hasValue("Bob");
+    assertThat(found.getApplicantData().readString(Path.create("applicant.color.text")))
+        .hasValue("green");
+    // Each request's bean matches what it wrote, and isn't left with changes to save again.
+    assertThat(DB.getDefault().beanState(firstRequest).isDirty()).isFalse();
+    assertThat(DB.getDefault().beanState(secondRequest).isDirty()).isFalse();
+  }
+
+  @Test
+  public void updateApplicantData_enumeratorEntityNameWithSpecialCharacters() {
+    Path householdMembers = Path.create("applicant.household_members[]");
+    String entityName = "Jane \"JJ\" Doe, {Jr.} \\ [0]";
+    ApplicantModel applicant = new ApplicantModel();
+    applicant.getApplicantData().putString(Path.create("applicant.name.first_name"), "Alice");
+    QuestionAnswerer.answerEnumeratorQuestion(
+        applicant.getApplicantData(), householdMembers, ImmutableList.of("Sam"));
+    repo.insertApplicant(applicant).toCompletableFuture().join();
+    applicant = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    QuestionAnswerer.answerEnumeratorQuestion(
+        applicant.getApplicantData(), householdMembers, ImmutableList.of("Sam", entityName));
+    repo.updateApplicantData(
+            applicant, ImmutableSet.of(householdMembers.safeWithoutArrayReference()))
+        .toCompletableFuture()
+        .join();
+
+    ApplicantModel found = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    assertThat(found.getApplicantData().readRepeatedEntities(householdMembers))
+        .containsExactly("Sam", entityName);
+    assertThat(found.getApplicantData().readString(Path.create("applicant.name.first_name")))
+        .hasValue("Alice");
+  }
+
+  @Test
+  public void updateApplicantData_missingParent_fallsBackToFullUpdate() {
+    ApplicantModel applicant = new ApplicantModel();
+    repo.insertApplicant(applicant).toCompletableFuture().join();
+    applicant = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    Path path = Path.create("applicant.household_members[0].name.first_name");
+    applicant.getApplicantData().putString(path, "Alice");
+    repo.updateApplicantData(applicant, ImmutableSet.of(path.parentPath()))
+        .toCompletableFuture()
+        .join();
+
+    ApplicantModel found = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    assertThat(found.getApplicantData().readString(path)).hasValue("Alice");
+  }
+
   @Test
   public void lookupApplicantSync_returnsEmptyOptionalWhenApplicantNotFound() {
     Optional<ApplicantModel> found = repo.lookupApplicantSync(1L);
@@ -349,7 +456,9 @@ public class AccountRepositoryTest extends ResetPostgres {
     oldUsedGuest.setWhenCreated(timeInPast).save();
     oldUnusedAuthenticated.setWhenCreated(timeInPast).save();
 
-    var numberDeleted = repo.deleteUnusedGuestAccounts(5);
+    ImmutableList<Long> deletedApplicantIds =
+        repo.deleteUnusedGuestAccounts(
+            /* minAgeInDays= */ 5, /* afterApplicantId= */ 0L, /* limit= */ 10);
     var remainingApplicants = repo.listApplicants().toCompletableFuture().join();
     var remainingAccounts = repo.listAccounts();
 
@@ -365,10 +474,36 @@ public class AccountRepositoryTest extends ResetPostgres {
     assertThat(remainingApplicants).doesNotContain(oldUnusedGuest);
     assertThat(remainingAccounts).doesNotContain(oldUnusedGuest.getAccount());
 
-    assertThat(numberDeleted).isEqualTo(1);
+    assertThat(deletedApplicantIds).containsExactly(oldUnusedGuest.id);
     assertThat(remainingApplicants).hasSize(3);
   }
 
+  @Test
+  public void deleteUnusedGuestAccounts_deletesUpToLimitAfterApplicantId() {
+    Instant timeInPast =
+        LocalDateTime.now(Clock.systemUTC()).minus(10, ChronoUnit.DAYS).toInstant(ZoneOffset.UTC);
+    ApplicantModel firstGuest = resourceCreator.insertApplicantWithAccount();
+    ApplicantModel secondGuest = resourceCreator.insertApplicantWithAccount();
+    ApplicantModel thirdGuest = resourceCreator.insertApplicantWithAccount();
+    firstGuest.setWhenCreated(timeInPast).save();
+    secondGuest.setWhenCreated(timeInPast).save();
+    thirdGuest.setWhenCreated(timeInPast).save();
+
+    assertThat(
+            repo.deleteUnusedGuestAccounts(
+                /* minAgeInDays= */ 5, /* afterApplicantId= */ firstGuest.id, /* limit= */ 1))
+        .containsExactly(secondGuest.id);
+    assertThat(
+            repo.deleteUnusedGuestAccounts(
+                /* minAgeInDays= */ 5, /* afterApplicantId= */ secondGuest.id, /* limit= */ 1))
+        .containsExactly(thirdGuest.id);
+    assertThat(
+            repo.deleteUnusedGuestAccounts(
+                /* minAgeInDays= */ 5, /* afterApplicantId= */ thirdGuest.id, /* limit= */ 1))
+        .isEmpty();
+    assertThat(repo.listApplicants().toCompletableFuture().join()).containsExactly(firstGuest);
+  }
+
   @Test
   public void addIdTokenAndPrune() {
     when(mockSettingsManifest.getSessionReplayProtectionEnabled()).thenReturn(false);
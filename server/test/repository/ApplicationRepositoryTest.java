@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import auth.ProgramAcls;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.ebean.DB;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Locale;
@@ -14,6 +15,7 @@ import models.AccountModel;
 import models.ApplicantModel;
 import models.ApplicationModel;
 import models.ApplicationStep;
+import models.ApplicationSummaryModel;
 import models.DisplayMode;
 import models.EligibilityDetermination;
 import models.LifecycleStage;
@@ -24,6 +26,7 @@ import org.junit.Test;
 import services.DateConverter;
 import services.Path;
 import services.applicant.exception.DuplicateApplicationException;
+import services.application.ApplicationEventDetails.StatusEvent;
 import services.program.ProgramType;
 import support.CfTestHelpers;
 
@@ -192,6 +195,69 @@ public class ApplicationRepositoryTest extends ResetPostgres {
         .isEqualTo(LifecycleStage.ACTIVE);
   }
 
+  @Test
+  public void submitApplication_writesSummaryThatFollowsStatusChanges() {
+    ApplicantModel applicant = saveApplicant("Alice");
+    ProgramModel program = createDraftProgram("Program");
+    ApplicationModel app =
+        repo.submitApplication(
+                applicant,
+                program,
+                Optional.of("ti@example.com"),
+                EligibilityDetermination.INELIGIBLE)
+            .toCompletableFuture()
+            .join();
+
+    ApplicationSummaryModel summary = DB.getDefault().find(ApplicationSummaryModel.class, app.id);
+    assertThat(summary.getProgramId()).isEqualTo(program.id);
+    assertThat(summary.getApplicantName()).contains("Alice");
+    assertThat(summary.getSubmitterEmail()).contains("ti@example.com");
+    assertThat(summary.getSubmitTime().truncatedTo(ChronoUnit.MILLIS))
+        .isEqualTo(app.getSubmitTime().truncatedTo(ChronoUnit.MILLIS));
+    assertThat(summary.getLatestStatus()).isEmpty();
+    assertThat(summary.getEligibilityDetermination())
+        .isEqualTo(EligibilityDetermination.INELIGIBLE);
+
+    ApplicationEventRepository eventRepository = instanceOf(ApplicationEventRepository.class);
+    eventRepository.insertStatusEvents(
+        ImmutableList.of(app),
+        Optional.empty(),
+        StatusEvent.builder().setStatusText("Approved").setEmailSent(false).build());
+    summary.refresh();
+    assertThat(summary.getLatestStatus()).contains("Approved");
+
+    eventRepository.insertStatusEvents(
+        ImmutableList.of(app),
+        Optional.empty(),
+        StatusEvent.builder().setStatusText("").setEmailSent(false).build());
+    summary.refresh();
+    assertThat(summary.getLatestStatus()).isEmpty();
+  }
+
+  @Test
+  public void submitApplication_writesSummaryOfUnsubmittedApplicationItMakesObsolete() {
+    ApplicantModel applicant = saveApplicant("Alice");
+    ProgramModel program = createDraftProgram("Program");
+    // An ACTIVE application without a submit time, see
+    // https://github.com/civiform/civiform/issues/3227.
+    ApplicationModel unsubmitted =
+        ApplicationModel.create(applicant, program, LifecycleStage.ACTIVE);
+
+    repo.submitApplication(
+            applicant, program, Optional.empty(), EligibilityDetermination.NOT_COMPUTED)
+        .toCompletableFuture()
+        .join();
+
+    unsubmitted.refresh();
+    assertThat(unsubmitted.getLifecycleStage()).isEqualTo(LifecycleStage.OBSOLETE);
+    ApplicationSummaryModel summary =
+        DB.getDefault().find(ApplicationSummaryModel.class, unsubmitted.id);
+    assertThat(summary).isNotNull();
+    assertThat(summary.getProgramId()).isEqualTo(program.id);
+    assertThat(summary.getSubmitTime().truncatedTo(ChronoUnit.MILLIS))
+        .isEqualTo(unsubmitted.getSubmitTime().truncatedTo(ChronoUnit.MILLIS));
+  }
+
   @Test
   public void submitApplication_duplicateSubmissionsThrowsException() {
     ApplicantModel applicant = saveApplicant("Alice");
@@ -4,12 +4,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.Locale;
+import java.util.Optional;
+import models.ApplicantModel;
 import models.LifecycleStage;
+import models.ProgramModel;
 import models.QuestionModel;
 import org.junit.Before;
 import org.junit.Test;
 import services.LocalizedStrings;
+import services.Path;
 import services.question.QuestionOption;
 import services.question.QuestionService;
 import services.question.types.MultiOptionQuestionDefinition;
@@ -145,6 +151,27 @@ public class ExportServiceRepositoryTest extends ResetPostgres {
         .hasMessage("Draft questions cannot be exported");
   }
 
+  @Test
+  public void getMaxRepeatedEntityCountsByProgram_searchesLikeTheApplicationList() {
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount(Optional.of("a@b.com"));
+    applicant.setFirstName("OneFirst");
+    applicant.setLastName("OneLast");
+    applicant.setEmailAddress("one@email.com");
+    applicant.setPhoneNumber("1234567890");
+    applicant.save();
+    resourceCreator.insertActiveApplication(applicant, program);
+
+    for (String search :
+        ImmutableList.of("onefirst onelast", "ONELAST, ONEFIRST", "ONE@email", "(456) 789")) {
+      assertThat(getMaxRepeatedEntityCountsForSearch(program, search).keySet())
+          .as(search)
+          .containsExactly(program.id);
+    }
+    // A search doesn't match across the email address and name.
+    assertThat(getMaxRepeatedEntityCountsForSearch(program, "com onefirst")).isEmpty();
+  }
+
   // TODO(#5957): Structuring this using the Builder pattern would make this easier to extend or
   // customize
   private QuestionModel createMultiSelectQuestion(
@@ -168,4 +195,15 @@ public class ExportServiceRepositoryTest extends ResetPostgres {
             MultiOptionQuestionDefinition.MultiOptionQuestionType.CHECKBOX);
     return testQuestionBank.maybeSave(definition, stage);
   }
+
+  private ImmutableMap<Long, ImmutableMap<Path, Integer>> getMaxRepeatedEntityCountsForSearch(
+      ProgramModel program, String search) {
+    return repo.getMaxRepeatedEntityCountsByProgram(
+        program.id,
+        SubmittedApplicationFilter.builder()
+            .setSearchNameFragment(Optional.of(search))
+            .setSubmitTimeFilter(TimeFilter.EMPTY)
+            .build(),
+        ImmutableSet.of());
+  }
 }
@@ -111,6 +111,17 @@ public class ProgramRepositoryTest extends ResetPostgres {
     assertThat(programCache.get(String.valueOf(two.id))).hasValue(found);
   }
 
+  @Test
+  public void lookupProgram_draftExists_doesNotUseCache() {
+    Mockito.when(mockSettingsManifest.getProgramCacheEnabled()).thenReturn(true);
+    ProgramModel draft = resourceCreator.insertDraftProgram("draft");
+
+    Optional<ProgramModel> found = repo.lookupProgram(draft.id).toCompletableFuture().join();
+
+    assertThat(found).isPresent();
+    assertThat(programCache.get(String.valueOf(draft.id))).isEmpty();
+  }
+
   @Test
   public void setFullProgramDefinitionFromCache_doesNotSetWhenDraft() {
     Mockito.when(mockSettingsManifest.getQuestionCacheEnabled()).thenReturn(true);
@@ -368,6 +379,111 @@ public class ProgramRepositoryTest extends ResetPostgres {
     assertThat(versionsByProgramCache.get(String.valueOf(program.id)).get()).isEqualTo(versions);
   }
 
+  @Test
+  public void getApplicationsForAllProgramVersions_unfiltered_usesCachedVersionIds() {
+    Mockito.when(mockSettingsManifest.getProgramCacheEnabled()).thenReturn(true);
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    makeApplicantWithAccountAndApplication("First", "Last", "one@email.com", "1234567890", program);
+    PageNumberPaginationSpec paginationSpec =
+        new PageNumberPaginationSpec(/* pageSize= */ 1, PageNumberPaginationSpec.OrderByEnum.ID);
+    String versionIdsKey = "version-ids:" + program.id;
+    versionsByProgramCache.remove(versionIdsKey);
+
+    PaginationResult<ApplicationModel> result =
+        repo.getApplicationsForAllProgramVersions(
+            program.id, paginationSpec, SubmittedApplicationFilter.EMPTY);
+
+    assertThat(result.getPageContents()).hasSize(1);
+    assertThat(result.getNumPages()).isEqualTo(1);
+    assertThat(versionsByProgramCache.<ImmutableSet<Long>>get(versionIdsKey))
+        .hasValue(ImmutableSet.of(program.id));
+
+    // Later pages are looked up with the cached version IDs rather than the database.
+    versionsByProgramCache.set(versionIdsKey, ImmutableSet.<Long>of());
+    assertThat(
+            repo.getApplicationsForAllProgramVersions(
+                    program.id, paginationSpec, SubmittedApplicationFilter.EMPTY)
+                .getPageContents())
+        .isEmpty();
+  }
+
+  @Test
+  public void getApplicationsForAllProgramVersions_unfiltered_countsNewlySubmittedApplications() {
+    Mockito.when(mockSettingsManifest.getProgramCacheEnabled()).thenReturn(true);
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    makeApplicantWithAccountAndApplication("First", "Last", "one@email.com", "1234567890", program);
+    PageNumberPaginationSpec paginationSpec =
+        new PageNumberPaginationSpec(/* pageSize= */ 1, PageNumberPaginationSpec.OrderByEnum.ID);
+    assertThat(
+            repo.getApplicationsForAllProgramVersions(
+                    program.id, paginationSpec, SubmittedApplicationFilter.EMPTY)
+                .getNumPages())
+        .isEqualTo(1);
+
+    makeApplicantWithAccountAndApplication("Two", "Last", "two@email.com", "2345678901", program);
+
+    assertThat(
+            repo.getApplicationsForAllProgramVersions(
+                    program.id, paginationSpec, SubmittedApplicationFilter.EMPTY)
+                .getNumPages())
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void getApplicationsForAllProgramVersionsWithoutCount_hasNextPageButNoPageCount() {
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    makeApplicantWithAccountAndApplication("First", "Last", "one@email.com", "1234567890", program);
+    makeApplicantWithAccountAndApplication("Two", "Last", "two@email.com", "2345678901", program);
+
+    PaginationResult<ApplicationModel> result =
+        repo.getApplicationsForAllProgramVersionsWithoutCount(
+            program.id,
+            new RowIdSequentialAccessPaginationSpec(/* pageSize= */ 1, Long.MAX_VALUE),
+            SubmittedApplicationFilter.EMPTY);
+
+    assertThat(result.getPageContents()).hasSize(1);
+    assertThat(result.hasMorePages()).isTrue();
+    assertThat(result.getNumPages()).isEqualTo(0);
+  }
+
+  @Test
+  public void getApplicationsForAllProgramVersions_publishInvalidatesCachedVersionIds() {
+    Mockito.when(mockSettingsManifest.getProgramCacheEnabled()).thenReturn(true);
+    // The cache that is invalidated when a new version is published.
+    SyncCacheApi namedVersionsByProgramCache =
+        instanceOf(
+            new BindingKey<>(SyncCacheApi.class)
+                .qualifiedWith(new NamedCacheImpl("program-versions"))
+                .asScala());
+    ProgramRepository cachingRepo =
+        new ProgramRepository(
+            instanceOf(DatabaseExecutionContext.class),
+            Providers.of(versionRepo),
+            mockSettingsManifest,
+            programCache,
+            programDefCache,
+            namedVersionsByProgramCache);
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    makeApplicantWithAccountAndApplication("First", "Last", "one@email.com", "1234567890", program);
+    String versionIdsKey = "version-ids:" + program.id;
+    cachingRepo.getApplicationsForAllProgramVersions(
+        program.id,
+        new PageNumberPaginationSpec(/* pageSize= */ 1, PageNumberPaginationSpec.OrderByEnum.ID),
+        SubmittedApplicationFilter.EMPTY);
+    assertThat(namedVersionsByProgramCache.get(versionIdsKey)).isPresent();
+
+    ProgramModel newVersion = repo.createOrUpdateDraft(program);
+    versionRepo.publishNewSynchronizedVersion();
+
+    assertThat(namedVersionsByProgramCache.get(versionIdsKey)).isEmpty();
+    cachingRepo.getApplicationsForAllProgramVersions(
+        program.id,
+        new PageNumberPaginationSpec(/* pageSize= */ 1, PageNumberPaginationSpec.OrderByEnum.ID),
+        SubmittedApplicationFilter.EMPTY);
+    assertThat(namedVersionsByProgramCache.<ImmutableSet<Long>>get(versionIdsKey))
+        .hasValue(ImmutableSet.of(program.id, newVersion.id));
+  }
+
   @Test
   public void returnsAllAdmins() throws ProgramNotFoundException {
     ProgramModel withAdmins = resourceCreator.insertActiveProgram("with admins");
@@ -502,6 +618,40 @@ public class ProgramRepositoryTest extends ResetPostgres {
         .containsExactly(emailOne);
   }
 
+  @Test
+  public void getApplicationsForAllProgramVersions_searchesEachFormOfTheName() {
+    ProgramModel program = resourceCreator.insertActiveProgram("test program");
+    String emailOne = "one@email.com";
+    makeApplicantWithAccountAndApplication("OneFirst", "OneLast", emailOne, "1234567890", program);
+
+    for (String search :
+        ImmutableList.of(
+            "onefirst onelast", "OneLast OneFirst", "ONELAST, ONEFIRST", "ONE@email")) {
+      assertThat(
+              repo.getApplicationsForAllProgramVersions(
+                      program.id,
+                      RowIdSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+                      SubmittedApplicationFilter.builder()
+                          .setSearchNameFragment(Optional.of(search))
+                          .setSubmitTimeFilter(TimeFilter.EMPTY)
+                          .build())
+                  .getPageContents())
+          .as(search)
+          .hasSize(1);
+    }
+    // A search doesn't match across the email address and name.
+    assertThat(
+            repo.getApplicationsForAllProgramVersions(
+                    program.id,
+                    RowIdSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+                    SubmittedApplicationFilter.builder()
+                        .setSearchNameFragment(Optional.of("com onefirst"))
+                        .setSubmitTimeFilter(TimeFilter.EMPTY)
+                        .build())
+                .getPageContents())
+        .isEmpty();
+  }
+
   private void makeApplicantWithAccountAndApplication(
       String firstName, String lastName, String email, String phoneNumber, ProgramModel program) {
 
@@ -786,6 +936,7 @@ public class ProgramRepositoryTest extends ResetPostgres {
 
     assertThat(paginationResult.getNumPages()).isEqualTo(2);
     assertThat(paginationResult.getPageContents().size()).isEqualTo(2);
+    assertThat(paginationResult.hasMorePages()).isTrue();
 
     assertThat(paginationResult.getPageContents().get(0).getApplicant()).isEqualTo(applicantTwo);
     assertThat(paginationResult.getPageContents().get(1).getApplicant()).isEqualTo(applicantOne);
@@ -801,6 +952,7 @@ public class ProgramRepositoryTest extends ResetPostgres {
 
     assertThat(paginationResult.getNumPages()).isEqualTo(2);
     assertThat(paginationResult.getPageContents().size()).isEqualTo(1);
+    assertThat(paginationResult.hasMorePages()).isFalse();
 
     assertThat(paginationResult.getPageContents().get(0).getApplicant()).isEqualTo(applicantThree);
   }
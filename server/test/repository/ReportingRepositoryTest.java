@@ -2,11 +2,13 @@ package repository;
 
 import static java.time.ZoneOffset.UTC;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
 
 import com.google.common.collect.ImmutableList;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.Optional;
 import models.ApplicantModel;
 import models.ApplicationModel;
@@ -16,6 +18,7 @@ import org.apache.commons.lang3.tuple.Triple;
 import org.junit.Before;
 import org.junit.Test;
 import services.reporting.ApplicationSubmissionsStat;
+import services.reporting.MonthlySubmissionHistogram;
 import support.ProgramBuilder;
 
 public class ReportingRepositoryTest extends ResetPostgres {
@@ -36,7 +39,7 @@ public class ReportingRepositoryTest extends ResetPostgres {
   }
 
   @Test
-  public void monthlyReportingView() {
+  public void recordSubmission_updatesHistogramsByProgramAndMonth() {
     Instant lastMonth = testClock.instant().minus(40, ChronoUnit.DAYS);
     Instant twoMonthsAgo = testClock.instant().minus(70, ChronoUnit.DAYS);
 
@@ -48,11 +51,12 @@ public class ReportingRepositoryTest extends ResetPostgres {
         .stream()
         .forEach(
             applicationSpec ->
-                createFakeApplication(
-                    programA,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
+                repo.recordSubmission(
+                    createFakeApplication(
+                        programA,
+                        applicationSpec.getLeft(),
+                        applicationSpec.getMiddle(),
+                        applicationSpec.getRight())));
 
     ImmutableList.of(
             Triple.of(LifecycleStage.ACTIVE, twoMonthsAgo, twoMonthsAgo.plusSeconds(100)),
@@ -62,47 +66,36 @@ public class ReportingRepositoryTest extends ResetPostgres {
         .stream()
         .forEach(
             applicationSpec ->
-                createFakeApplication(
-                    programB,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
-
-    repo.refreshMonthlyReportingView();
-
-    assertThat(repo.loadMonthlyReportingView())
-        .containsExactly(
-            // The expected values here have submission duration percentile stats calculated from
-            // the submitted (i.e. active and obsolete) applications.
-            ApplicationSubmissionsStat.create(
-                "fake-program-a",
-                "Fake Program A",
-                getMonthTimestamp(lastMonth),
-                3L,
-                300,
-                500,
-                750,
-                990),
-            ApplicationSubmissionsStat.create(
-                "fake-program-b",
-                "Fake Program B",
-                getMonthTimestamp(twoMonthsAgo),
-                3L,
-                300,
-                500,
-                750,
-                990));
+                repo.recordSubmission(
+                    createFakeApplication(
+                        programB,
+                        applicationSpec.getLeft(),
+                        applicationSpec.getMiddle(),
+                        applicationSpec.getRight())));
+
+    ImmutableList<ApplicationSubmissionsStat> stats =
+        repo.loadMonthlySubmissionHistograms().stream()
+            .map(MonthlySubmissionHistogram::toStat)
+            .sorted(Comparator.comparing(ApplicationSubmissionsStat::programName))
+            .collect(ImmutableList.toImmutableList());
+
+    // Only the submitted (i.e. active and obsolete) applications are counted. The exact
+    // percentiles of their durations are 300, 500, 750 and 990 seconds.
+    assertThat(stats).hasSize(2);
+    assertStat(stats.get(0), "fake-program-a", "Fake Program A", getMonthTimestamp(lastMonth));
+    assertStat(stats.get(1), "fake-program-b", "Fake Program B", getMonthTimestamp(twoMonthsAgo));
   }
 
   @Test
-  public void loadThisMonthReportingData() {
+  public void rebuildLastMonthSubmissionStats_recomputesOnlyLastMonth() {
+    Instant lastMonth = testClock.instant().minus(20, ChronoUnit.DAYS);
     Instant today = testClock.instant();
 
     ImmutableList.of(
-            Triple.of(LifecycleStage.ACTIVE, today, today.plusSeconds(100)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(1000)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(500)),
-            Triple.of(LifecycleStage.DRAFT, today, today.plusSeconds(1)))
+            Triple.of(LifecycleStage.ACTIVE, lastMonth, lastMonth.plusSeconds(100)),
+            Triple.of(LifecycleStage.OBSOLETE, lastMonth, lastMonth.plusSeconds(1000)),
+            Triple.of(LifecycleStage.OBSOLETE, lastMonth, lastMonth.plusSeconds(500)),
+            Triple.of(LifecycleStage.DRAFT, lastMonth, lastMonth.plusSeconds(1)))
         .stream()
         .forEach(
             applicationSpec ->
@@ -111,43 +104,38 @@ public class ReportingRepositoryTest extends ResetPostgres {
                     applicationSpec.getLeft(),
                     applicationSpec.getMiddle(),
                     applicationSpec.getRight()));
+    // Only this month's application is recorded, so last month starts off without stats.
+    repo.recordSubmission(
+        createFakeApplication(programA, LifecycleStage.ACTIVE, today, today.plusSeconds(100)));
+
+    repo.rebuildLastMonthSubmissionStats();
+
+    ImmutableList<ApplicationSubmissionsStat> stats =
+        repo.loadMonthlySubmissionHistograms().stream()
+            .map(MonthlySubmissionHistogram::toStat)
+            .sorted(Comparator.comparing(stat -> stat.timestamp().get()))
+            .collect(ImmutableList.toImmutableList());
+
+    assertThat(stats).hasSize(2);
+    assertStat(stats.get(0), "fake-program-a", "Fake Program A", getMonthTimestamp(lastMonth));
+    assertThat(stats.get(1).timestamp()).isEqualTo(getMonthTimestamp(today));
+    assertThat(stats.get(1).applicationCount()).isEqualTo(1L);
+  }
 
-    ImmutableList.of(
-            Triple.of(LifecycleStage.ACTIVE, today, today.plusSeconds(100)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(1000)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(500)),
-            Triple.of(LifecycleStage.DRAFT, today, today.plusSeconds(1)))
-        .stream()
-        .forEach(
-            applicationSpec ->
-                createFakeApplication(
-                    programB,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
-
-    assertThat(repo.loadThisMonthReportingData())
-        .containsExactly(
-            // The expected values here have submission duration percentile stats calculated from
-            // the submitted (i.e. active and obsolete) applications.
-            ApplicationSubmissionsStat.create(
-                "fake-program-a",
-                "Fake Program A",
-                getMonthTimestamp(today),
-                3L,
-                300,
-                500,
-                750,
-                990),
-            ApplicationSubmissionsStat.create(
-                "fake-program-b",
-                "Fake Program B",
-                getMonthTimestamp(today),
-                3L,
-                300,
-                500,
-                750,
-                990));
+  /** Asserts that a stat is for three applications that took 100, 500 and 1000 seconds. */
+  private static void assertStat(
+      ApplicationSubmissionsStat stat,
+      String programName,
+      String localizedProgramName,
+      Optional<Timestamp> month) {
+    assertThat(stat.programName()).isEqualTo(programName);
+    assertThat(stat.enUSLocalizedProgramName()).isEqualTo(localizedProgramName);
+    assertThat(stat.timestamp()).isEqualTo(month);
+    assertThat(stat.applicationCount()).isEqualTo(3L);
+    assertThat(stat.submissionDurationSeconds25p()).isCloseTo(300, withinPercentage(2.5));
+    assertThat(stat.submissionDurationSeconds50p()).isCloseTo(500, withinPercentage(2.5));
+    assertThat(stat.submissionDurationSeconds75p()).isCloseTo(750, withinPercentage(2.5));
+    assertThat(stat.submissionDurationSeconds99p()).isCloseTo(990, withinPercentage(2.5));
   }
 
   private static Optional<Timestamp> getMonthTimestamp(Instant lastMonth) {
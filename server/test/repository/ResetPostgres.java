@@ -18,6 +18,7 @@ import play.Application;
 import play.api.inject.BindingKey;
 import play.test.Helpers;
 import services.settings.SettingsService;
+import services.settings.SettingsSnapshotHolder;
 import support.ProgramBuilder;
 import support.ResourceCreator;
 import support.TestQuestionBank;
@@ -66,6 +67,8 @@ public class ResetPostgres {
     Models.truncate(database);
     VersionModel newActiveVersion = new VersionModel(LifecycleStage.ACTIVE);
     newActiveVersion.save();
+    instanceOf(ActiveVersionHolder.class).invalidate();
+    instanceOf(SettingsSnapshotHolder.class).invalidate();
     instanceOf(SettingsService.class).migrateConfigValuesToSettingsGroup();
   }
 
@@ -56,7 +56,50 @@ public class VersionRepositoryTest extends ResetPostgres {
             instanceOf(DatabaseExecutionContext.class),
             mockSettingsManifest,
             questionsByVersionCache,
-            programsByVersionCache);
+            programsByVersionCache,
+            instanceOf(ActiveVersionHolder.class),
+            instanceOf(CacheInvalidationBus.class));
+  }
+
+  @Test
+  public void getActiveVersion_withVersionCache_isRefreshedOnPublish() {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(true);
+    VersionModel originalActive = versionRepository.getActiveVersion();
+    assertThat(versionRepository.getActiveVersion().id).isEqualTo(originalActive.id);
+
+    ProgramBuilder.newDraftProgram("program").build();
+    VersionModel draft = versionRepository.getDraftVersionOrCreate();
+    versionRepository.publishNewSynchronizedVersion();
+
+    VersionModel newActive = versionRepository.getActiveVersion();
+    assertThat(newActive.id).isEqualTo(draft.id);
+    assertThat(newActive.getLifecycleStage()).isEqualTo(LifecycleStage.ACTIVE);
+  }
+
+  @Test
+  public void getActiveVersion_withVersionCache_isRefreshedOnPublishFromAnotherInstance()
+      throws InterruptedException {
+    Mockito.when(mockSettingsManifest.getVersionCacheEnabled()).thenReturn(true);
+    VersionModel originalActive = versionRepository.getActiveVersion();
+
+    // Simulate another server instance publishing by changing the versions directly and sending
+    // the notification.
+    VersionModel draft = versionRepository.getDraftVersionOrCreate();
+    try (Transaction transaction = DB.getDefault().beginTransaction()) {
+      originalActive.setLifecycleStage(LifecycleStage.OBSOLETE).save();
+      draft.setLifecycleStage(LifecycleStage.ACTIVE).save();
+      instanceOf(CacheInvalidationBus.class)
+          .publish(CacheInvalidationBus.Event.VERSION_PUBLISHED, String.valueOf(draft.id));
+      transaction.commit();
+    }
+
+    // The notification is delivered asynchronously.
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!versionRepository.getActiveVersion().id.equals(draft.id)
+        && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    assertThat(versionRepository.getActiveVersion().id).isEqualTo(draft.id);
   }
 
   @Test
@@ -51,6 +51,27 @@ public class CfJsonDocumentContextTest {
         .testEquals();
   }
 
+  @Test
+  public void mutations_incrementMutationCountAndNotifyListener() {
+    CfJsonDocumentContext data = new CfJsonDocumentContext();
+    Path path = Path.create("applicant.target");
+    int[] notifications = {0};
+    data.setMutationListener(() -> notifications[0]++);
+
+    data.readString(path);
+    data.hasPath(path);
+    assertThat(data.getMutationCount()).isEqualTo(0);
+    assertThat(notifications[0]).isEqualTo(0);
+
+    data.putString(path, "hello");
+    assertThat(data.getMutationCount()).isGreaterThan(0);
+    assertThat(notifications[0]).isGreaterThan(0);
+
+    long countAfterPut = data.getMutationCount();
+    data.readString(path);
+    assertThat(data.getMutationCount()).isEqualTo(countAfterPut);
+  }
+
   @Test
   public void overwriteDataAtSamePath_succeeds() {
     CfJsonDocumentContext data = new CfJsonDocumentContext();
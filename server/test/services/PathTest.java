@@ -17,6 +17,17 @@ public class PathTest {
     assertThat(Path.create("    $.applicant  ").toString()).isEqualTo("applicant");
   }
 
+  @Test
+  public void asJsonbPathLiteral() {
+    assertThat(Path.create("applicant.children[2].favorite_color").asJsonbPathLiteral())
+        .isEqualTo("{\"applicant\",\"children\",\"2\",\"favorite_color\"}");
+    assertThat(Path.create("applicant.children[].jobs").asJsonbPathLiteral())
+        .isEqualTo("{\"applicant\",\"children\",\"jobs\"}");
+    assertThat(Path.create("applicant.a, {\"b\"}\\ c[1]").asJsonbPathLiteral())
+        .isEqualTo("{\"applicant\",\"a, {\\\"b\\\"}\\\\ c\",\"1\"}");
+    assertThat(Path.empty().asJsonbPathLiteral()).isEqualTo("{}");
+  }
+
   @Test
   public void segments_emptyPath() {
     assertThat(Path.empty().segments()).isEmpty();
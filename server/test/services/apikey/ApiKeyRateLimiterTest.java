@@ -0,0 +1,69 @@
+package services.apikey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class ApiKeyRateLimiterTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  @Test
+  public void tryAcquire_allowsBurstThenRejects() {
+    ApiKeyRateLimiter rateLimiter =
+        new ApiKeyRateLimiter(/* requestsPerSecond= */ 2, /* burst= */ 3, nanoTime::get);
+
+    assertThat(rateLimiter.tryAcquire("key-id")).isEmpty();
+    assertThat(rateLimiter.tryAcquire("key-id")).isEmpty();
+    assertThat(rateLimiter.tryAcquire("key-id")).isEmpty();
+
+    assertThat(rateLimiter.tryAcquire("key-id")).contains(Duration.ofMillis(500));
+  }
+
+  @Test
+  public void tryAcquire_refillsAtRate() {
+    ApiKeyRateLimiter rateLimiter =
+        new ApiKeyRateLimiter(/* requestsPerSecond= */ 2, /* burst= */ 1, nanoTime::get);
+    assertThat(rateLimiter.tryAcquire("key-id")).isEmpty();
+    assertThat(rateLimiter.tryAcquire("key-id")).isPresent();
+
+    nanoTime.addAndGet(Duration.ofMillis(250).toNanos());
+    assertThat(rateLimiter.tryAcquire("key-id")).contains(Duration.ofMillis(250));
+
+    nanoTime.addAndGet(Duration.ofMillis(250).toNanos());
+    assertThat(rateLimiter.tryAcquire("key-id")).isEmpty();
+  }
+
+  @Test
+  public void tryAcquire_refillIsCappedAtBurst() {
+    ApiKeyRateLimiter rateLimiter =
+        new ApiKeyRateLimiter(/* requestsPerSecond= */ 10, /* burst= */ 2, nanoTime::get);
+    nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+
+    assertThat(rateLimiter.tryAcquire("key-id")).isEmpty();
+    assertThat(rateLimiter.tryAcquire("key-id")).isEmpty();
+    assertThat(rateLimiter.tryAcquire("key-id")).isPresent();
+  }
+
+  @Test
+  public void tryAcquire_limitsEachKeySeparately() {
+    ApiKeyRateLimiter rateLimiter =
+        new ApiKeyRateLimiter(/* requestsPerSecond= */ 1, /* burst= */ 1, nanoTime::get);
+
+    assertThat(rateLimiter.tryAcquire("key-a")).isEmpty();
+    assertThat(rateLimiter.tryAcquire("key-a")).isPresent();
+    assertThat(rateLimiter.tryAcquire("key-b")).isEmpty();
+  }
+
+  @Test
+  public void tryAcquire_zeroRate_neverRejects() {
+    ApiKeyRateLimiter rateLimiter =
+        new ApiKeyRateLimiter(/* requestsPerSecond= */ 0, /* burst= */ 0, nanoTime::get);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(rateLimiter.tryAcquire("key-id")).isEmpty();
+    }
+  }
+}
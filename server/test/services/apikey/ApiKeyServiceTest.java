@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static support.FakeRequestBuilder.fakeRequestBuilder;
 
+import auth.ApiKeyGrants;
 import auth.ApiKeyGrants.Permission;
 import auth.CiviFormProfile;
 import auth.CiviFormProfileData;
@@ -282,6 +283,28 @@ public class ApiKeyServiceTest extends ResetPostgres {
     assertThat(apiKey.getRetiredTime()).isPresent();
   }
 
+  @Test
+  public void retireApiKey_removesTheKeyFromTheCache() {
+    resourceCreator.insertActiveProgram("test program");
+
+    ApiKeyModel apiKey =
+        apiKeyService
+            .createApiKey(
+                buildForm(
+                    ImmutableMap.of(
+                        "keyName", "test key 1",
+                        "expiration", "2020-01-30",
+                        "subnet", "0.0.0.1/32",
+                        "grant-program-read[test-program]", "true")),
+                adminProfile)
+            .getApiKey();
+    assertThat(apiKeyService.findByKeyIdWithCache(apiKey.getKeyId()).get().isRetired()).isFalse();
+
+    apiKeyService.retireApiKey(apiKey.id, adminProfile);
+
+    assertThat(apiKeyService.findByKeyIdWithCache(apiKey.getKeyId()).get().isRetired()).isTrue();
+  }
+
   @Test
   public void retireApiKey_keyAlreadyRetired_throws() {
     resourceCreator.insertActiveProgram("test program");
@@ -529,6 +552,36 @@ public class ApiKeyServiceTest extends ResetPostgres {
         .isInstanceOf(RuntimeException.class);
   }
 
+  @Test
+  public void recordApiKeyUsage_writesAccumulatedUsageWhenFlushed() {
+    ApiKeyModel apiKey =
+        new ApiKeyModel(new ApiKeyGrants())
+            .setName("test key")
+            .setKeyId("usage-key-id")
+            .setCreatedBy("test@example.com")
+            .setSaltedKeySecret("secret")
+            .setSubnet("0.0.0.1/32")
+            .setExpiration(Instant.now().plusSeconds(60 * 60 * 24)); // 1 day in the future.
+    apiKeyRepository.insert(apiKey).toCompletableFuture().join();
+
+    apiKeyService.recordApiKeyUsage("usage-key-id", "1.1.1.1");
+    apiKeyService.recordApiKeyUsage("usage-key-id", "2.2.2.2");
+    apiKeyService.recordApiKeyUsage("usage-key-id", "3.3.3.3");
+
+    // Usage is only written to the database when it's flushed.
+    assertThat(apiKeyRepository.lookupApiKey("usage-key-id").toCompletableFuture().join())
+        .hasValueSatisfying(key -> assertThat(key.getCallCount()).isEqualTo(0L));
+
+    instanceOf(ApiKeyUsageAggregator.class).flush();
+    apiKeyService.recordApiKeyUsage("usage-key-id", "4.4.4.4");
+    instanceOf(ApiKeyUsageAggregator.class).flush();
+
+    ApiKeyModel updatedKey =
+        apiKeyRepository.lookupApiKey("usage-key-id").toCompletableFuture().join().get();
+    assertThat(updatedKey.getCallCount()).isEqualTo(4L);
+    assertThat(updatedKey.getLastCallIpAddress()).contains("4.4.4.4");
+  }
+
   private DynamicForm buildForm(ImmutableMap<String, String> formContents) {
     return formFactory.form().bindFromRequest(fakeRequestBuilder().bodyForm(formContents).build());
   }
@@ -4374,6 +4374,72 @@ public class ApplicantServiceTest extends ResetPostgres {
         .isTrue();
   }
 
+  @Test
+  public void getApplicantMayBeEligibleStatuses() {
+    createProgramWithNongatingEligibility(questionDefinition);
+    ProgramDefinition programWithoutEligibility =
+        ProgramBuilder.newActiveProgram("program without eligibility", "desc")
+            .withBlock()
+            .withRequiredQuestionDefinitions(ImmutableList.of(questionDefinition))
+            .buildDefinition();
+    ApplicantModel applicant = subject.createApplicant().toCompletableFuture().join();
+    applicant.setAccount(resourceCreator.insertAccount());
+    applicant.save();
+
+    // Applicant's answer is ineligible.
+    Path questionPath =
+        ApplicantData.APPLICANT_PATH.join(questionDefinition.getQuestionPathSegment());
+    subject
+        .stageAndUpdateIfValid(
+            applicant.id,
+            programDefinition.id(),
+            "1",
+            ImmutableMap.of(
+                questionPath.join(Scalar.FIRST_NAME).toString(), "Ineligible answer",
+                questionPath.join(Scalar.LAST_NAME).toString(), "irrelevant answer"),
+            false,
+            false)
+        .toCompletableFuture()
+        .join();
+    applicant = accountRepository.lookupApplicantSync(applicant.id).get();
+
+    assertThat(
+            subject.getApplicantMayBeEligibleStatuses(
+                applicant, ImmutableList.of(programDefinition, programWithoutEligibility)))
+        .containsExactlyInAnyOrderEntriesOf(
+            ImmutableMap.of(
+                programDefinition.id(),
+                Optional.of(false),
+                programWithoutEligibility.id(),
+                Optional.empty()));
+
+    // Applicant's answer gets changed to an eligible answer.
+    subject
+        .stageAndUpdateIfValid(
+            applicant.id,
+            programDefinition.id(),
+            "1",
+            ImmutableMap.of(questionPath.join(Scalar.FIRST_NAME).toString(), "eligible name"),
+            false,
+            false)
+        .toCompletableFuture()
+        .join();
+    applicant = accountRepository.lookupApplicantSync(applicant.id).get();
+
+    assertThat(
+            subject.getApplicantMayBeEligibleStatuses(
+                applicant, ImmutableList.of(programDefinition, programWithoutEligibility)))
+        .containsExactlyInAnyOrderEntriesOf(
+            ImmutableMap.of(
+                programDefinition.id(),
+                Optional.of(true),
+                programWithoutEligibility.id(),
+                Optional.empty()));
+    // The statuses match those of the programs evaluated one at a time.
+    assertThat(subject.getApplicantMayBeEligibleStatus(applicant, programDefinition))
+        .contains(true);
+  }
+
   @Test
   public void getApplicationEligibilityStatus() {
     createProgramWithNongatingEligibility(questionDefinition);
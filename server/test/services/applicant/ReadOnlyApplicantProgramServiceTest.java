@@ -765,6 +765,42 @@ public class ReadOnlyApplicantProgramServiceTest extends ResetPostgres {
     assertThat(service.getInProgressBlocks()).hasSize(2);
   }
 
+  @Test
+  public void getInProgressBlocks_sharesEvaluatedBlocks() {
+    PredicateDefinition predicate =
+        PredicateDefinition.create(
+            PredicateExpressionNode.create(
+                LeafOperationExpressionNode.create(
+                    colorQuestion.getId(),
+                    Scalar.TEXT,
+                    Operator.EQUAL_TO,
+                    PredicateValue.of("blue"))),
+            PredicateAction.SHOW_BLOCK);
+    ProgramDefinition program =
+        ProgramBuilder.newActiveProgram()
+            .withBlock()
+            .withRequiredQuestionDefinition(colorQuestion)
+            .withBlock()
+            .withVisibilityPredicate(predicate)
+            .withRequiredQuestionDefinition(addressQuestion)
+            .buildDefinition();
+    answerColorQuestion(program.id(), "blue");
+    ReadOnlyApplicantProgramService service =
+        new ReadOnlyApplicantProgramService(
+            jsonPathPredicateGeneratorFactory, applicant, applicantData, program);
+
+    ImmutableList<Block> inProgressBlocks = service.getInProgressBlocks();
+    assertThat(inProgressBlocks).hasSize(2);
+    assertThat(service.getInProgressBlocks()).isSameAs(inProgressBlocks);
+    assertThat(service.getAllActiveBlocks().get(1)).isSameAs(inProgressBlocks.get(1));
+
+    // The service evaluates a locked copy of the applicant data, so later changes to the
+    // caller's data don't affect it.
+    answerColorQuestion(program.id(), "green");
+    assertThat(service.getInProgressBlocks()).isSameAs(inProgressBlocks);
+    assertThat(service.getAllHiddenBlocks()).isEmpty();
+  }
+
   @Test
   public void getInProgressBlocks_predicateAnswerUndefined_includesBlockInList() {
     PredicateDefinition predicate =
@@ -0,0 +1,321 @@
+package services.applicant.predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import services.DateConverter;
+import services.Path;
+import services.applicant.ApplicantData;
+import services.applicant.question.Scalar;
+import services.geo.ServiceAreaInclusion;
+import services.geo.ServiceAreaState;
+import services.program.predicate.AndNode;
+import services.program.predicate.LeafAddressServiceAreaExpressionNode;
+import services.program.predicate.LeafOperationExpressionNode;
+import services.program.predicate.Operator;
+import services.program.predicate.OrNode;
+import services.program.predicate.PredicateAction;
+import services.program.predicate.PredicateDefinition;
+import services.program.predicate.PredicateExpressionNode;
+import services.program.predicate.PredicateValue;
+import services.question.types.QuestionDefinition;
+import support.TestQuestionBank;
+
+public class CompiledPredicateTest {
+
+  private final Clock clock =
+      Clock.fixed(Instant.parse("2030-01-01T00:00:00.00Z"), ZoneId.of("UTC"));
+  private final TestQuestionBank questionBank = new TestQuestionBank(false);
+  private final QuestionDefinition addressQuestion =
+      questionBank.addressApplicantAddress().getQuestionDefinition();
+  private final QuestionDefinition checkboxQuestion =
+      questionBank.checkboxApplicantKitchenTools().getQuestionDefinition();
+  private final QuestionDefinition dateQuestion =
+      questionBank.dateApplicantBirthdate().getQuestionDefinition();
+  private final QuestionDefinition dropdownQuestion =
+      questionBank.dropdownApplicantIceCream().getQuestionDefinition();
+  private final QuestionDefinition nameQuestion =
+      questionBank.nameApplicantName().getQuestionDefinition();
+  private final QuestionDefinition numberQuestion =
+      questionBank.numberApplicantJugglingNumber().getQuestionDefinition();
+
+  private JsonPathPredicateGenerator generator;
+
+  @Before
+  public void setupGenerator() {
+    generator =
+        new JsonPathPredicateGenerator(
+            new DateConverter(clock),
+            ImmutableList.of(
+                addressQuestion,
+                checkboxQuestion,
+                dateQuestion,
+                dropdownQuestion,
+                nameQuestion,
+                numberQuestion),
+            Optional.empty());
+  }
+
+  @Test
+  public void evaluate_matchesJsonPathEvaluation() {
+    ImmutableList<PredicateExpressionNode> nodes =
+        ImmutableList.of(
+            leaf(numberQuestion, Scalar.NUMBER, Operator.EQUAL_TO, PredicateValue.of(5)),
+            leaf(numberQuestion, Scalar.NUMBER, Operator.NOT_EQUAL_TO, PredicateValue.of(5)),
+            leaf(numberQuestion, Scalar.NUMBER, Operator.GREATER_THAN, PredicateValue.of(5)),
+            leaf(
+                numberQuestion,
+                Scalar.NUMBER,
+                Operator.GREATER_THAN_OR_EQUAL_TO,
+                PredicateValue.of(5)),
+            leaf(numberQuestion, Scalar.NUMBER, Operator.LESS_THAN, PredicateValue.of(5)),
+            leaf(
+                numberQuestion,
+                Scalar.NUMBER,
+                Operator.LESS_THAN_OR_EQUAL_TO,
+                PredicateValue.of(5)),
+            leaf(
+                numberQuestion,
+                Scalar.NUMBER,
+                Operator.IN,
+                PredicateValue.listOfLongs(ImmutableList.of(1L, 5L))),
+            leaf(
+                numberQuestion,
+                Scalar.NUMBER,
+                Operator.NOT_IN,
+                PredicateValue.listOfLongs(ImmutableList.of(1L, 5L))),
+            leaf(
+                numberQuestion, Scalar.NUMBER, Operator.BETWEEN, PredicateValue.pairOfLongs(7, 3)),
+            leaf(nameQuestion, Scalar.FIRST_NAME, Operator.EQUAL_TO, PredicateValue.of("Alice")),
+            leaf(nameQuestion, Scalar.FIRST_NAME, Operator.EQUAL_TO, PredicateValue.of("5")),
+            leaf(
+                nameQuestion, Scalar.FIRST_NAME, Operator.NOT_EQUAL_TO, PredicateValue.of("Alice")),
+            leaf(
+                nameQuestion,
+                Scalar.FIRST_NAME,
+                Operator.IN,
+                PredicateValue.listOfStrings(ImmutableList.of("Alice", "Bob"))),
+            leaf(
+                nameQuestion,
+                Scalar.FIRST_NAME,
+                Operator.NOT_IN,
+                PredicateValue.listOfStrings(ImmutableList.of("Alice", "Bob"))),
+            leaf(
+                dropdownQuestion,
+                Scalar.SELECTION,
+                Operator.IN,
+                PredicateValue.listOfStrings(ImmutableList.of("1", "2"))),
+            leaf(
+                dropdownQuestion,
+                Scalar.SELECTION,
+                Operator.NOT_IN,
+                PredicateValue.listOfStrings(ImmutableList.of("1", "2"))),
+            leaf(
+                checkboxQuestion,
+                Scalar.SELECTIONS,
+                Operator.ANY_OF,
+                PredicateValue.listOfStrings(ImmutableList.of("1", "3"))),
+            leaf(
+                checkboxQuestion,
+                Scalar.SELECTIONS,
+                Operator.NONE_OF,
+                PredicateValue.listOfStrings(ImmutableList.of("1", "3"))),
+            leaf(
+                checkboxQuestion,
+                Scalar.SELECTIONS,
+                Operator.SUBSET_OF,
+                PredicateValue.listOfStrings(ImmutableList.of("1", "2"))),
+            leaf(
+                dateQuestion,
+                Scalar.DATE,
+                Operator.IS_BEFORE,
+                PredicateValue.of(LocalDate.of(2000, 1, 1))),
+            leaf(
+                dateQuestion,
+                Scalar.DATE,
+                Operator.IS_ON_OR_AFTER,
+                PredicateValue.of(LocalDate.of(1990, 5, 1))),
+            leaf(
+                dateQuestion,
+                Scalar.DATE,
+                Operator.BETWEEN,
+                PredicateValue.pairOfDates(LocalDate.of(1980, 1, 1), LocalDate.of(1995, 1, 1))),
+            leaf(dateQuestion, Scalar.DATE, Operator.AGE_OLDER_THAN, PredicateValue.of(18)),
+            leaf(dateQuestion, Scalar.DATE, Operator.AGE_YOUNGER_THAN, PredicateValue.of(18.5)),
+            leaf(
+                dateQuestion,
+                Scalar.DATE,
+                Operator.AGE_BETWEEN,
+                PredicateValue.listOfLongs(ImmutableList.of(65L, 18L))),
+            serviceArea("seattle", Operator.IN_SERVICE_AREA),
+            serviceArea("seattle", Operator.NOT_IN_SERVICE_AREA),
+            PredicateExpressionNode.create(
+                AndNode.create(
+                    ImmutableList.of(
+                        leaf(
+                            nameQuestion,
+                            Scalar.FIRST_NAME,
+                            Operator.EQUAL_TO,
+                            PredicateValue.of("Alice")),
+                        PredicateExpressionNode.create(
+                            OrNode.create(
+                                ImmutableList.of(
+                                    leaf(
+                                        numberQuestion,
+                                        Scalar.NUMBER,
+                                        Operator.LESS_THAN,
+                                        PredicateValue.of(3)),
+                                    serviceArea("seattle", Operator.IN_SERVICE_AREA))))))));
+
+    ImmutableList<ApplicantData> applicants =
+        ImmutableList.of(
+            new ApplicantData(),
+            answers(
+                "Alice", 5L, 1L, ImmutableList.of(1L, 2L), "1990-05-01", ServiceAreaState.IN_AREA),
+            answers("5", 9L, 3L, ImmutableList.of(2L), "2020-01-01", ServiceAreaState.NOT_IN_AREA),
+            answers("Bob", 1L, 2L, ImmutableList.of(), "1960-12-31", ServiceAreaState.FAILED),
+            unansweredScalars());
+
+    for (PredicateExpressionNode node : nodes) {
+      for (ApplicantData applicantData : applicants) {
+        assertThat(CompiledPredicate.compile(node).evaluate(applicantData, generator))
+            .as("%s with %s", node, applicantData.asJsonString())
+            .isEqualTo(new PredicateEvaluator(applicantData, generator).evaluate(node));
+      }
+    }
+  }
+
+  @Test
+  public void evaluate_numberComparedWithString_matchesJsonPathEvaluation() {
+    ApplicantData applicantData = new ApplicantData();
+    applicantData.putString(path(numberQuestion).join(Scalar.NUMBER), "5");
+    applicantData.putLong(path(nameQuestion).join(Scalar.FIRST_NAME), 5L);
+
+    for (PredicateExpressionNode node :
+        ImmutableList.of(
+            leaf(numberQuestion, Scalar.NUMBER, Operator.EQUAL_TO, PredicateValue.of(5)),
+            leaf(numberQuestion, Scalar.NUMBER, Operator.GREATER_THAN, PredicateValue.of(1)),
+            leaf(nameQuestion, Scalar.FIRST_NAME, Operator.EQUAL_TO, PredicateValue.of("5")),
+            leaf(
+                nameQuestion,
+                Scalar.FIRST_NAME,
+                Operator.IN,
+                PredicateValue.listOfStrings(ImmutableList.of("5"))))) {
+      assertThat(CompiledPredicate.compile(node).evaluate(applicantData, generator))
+          .as("%s", node)
+          .isEqualTo(new PredicateEvaluator(applicantData, generator).evaluate(node));
+    }
+  }
+
+  @Test
+  public void evaluate_questionNotInProgram_returnsFalse() {
+    PredicateExpressionNode node =
+        PredicateExpressionNode.create(
+            LeafOperationExpressionNode.create(
+                numberQuestion.getId() + 1000,
+                Scalar.NUMBER,
+                Operator.NOT_EQUAL_TO,
+                PredicateValue.of(5)));
+
+    assertThat(CompiledPredicate.compile(node).evaluate(new ApplicantData(), generator)).isFalse();
+  }
+
+  @Test
+  public void evaluate_withLeafResults_evaluatesSharedLeavesOnce() {
+    ApplicantData applicantData = new ApplicantData();
+    applicantData.putLong(path(numberQuestion).join(Scalar.NUMBER), 5L);
+    applicantData.putString(path(nameQuestion).join(Scalar.FIRST_NAME), "Alice");
+    PredicateExpressionNode numberIsFive =
+        leaf(numberQuestion, Scalar.NUMBER, Operator.EQUAL_TO, PredicateValue.of(5));
+    PredicateExpressionNode nameIsBob =
+        leaf(nameQuestion, Scalar.FIRST_NAME, Operator.EQUAL_TO, PredicateValue.of("Bob"));
+    LeafResultCache leafResults = new LeafResultCache();
+
+    assertThat(
+            CompiledPredicate.compile(
+                    PredicateExpressionNode.create(
+                        AndNode.create(ImmutableList.of(numberIsFive, nameIsBob))))
+                .evaluate(applicantData, generator, leafResults))
+        .isFalse();
+    assertThat(
+            CompiledPredicate.compile(
+                    PredicateExpressionNode.create(
+                        OrNode.create(ImmutableList.of(nameIsBob, numberIsFive))))
+                .evaluate(applicantData, generator, leafResults))
+        .isTrue();
+    assertThat(leafResults.getEvaluationCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void forDefinition_returnsTheSameCompiledPredicate() {
+    PredicateDefinition predicate =
+        PredicateDefinition.create(
+            leaf(numberQuestion, Scalar.NUMBER, Operator.EQUAL_TO, PredicateValue.of(5)),
+            PredicateAction.SHOW_BLOCK);
+
+    assertThat(CompiledPredicate.forDefinition(predicate))
+        .isSameAs(CompiledPredicate.forDefinition(predicate));
+  }
+
+  private ApplicantData answers(
+      String firstName,
+      long number,
+      long selection,
+      ImmutableList<Long> selections,
+      String date,
+      ServiceAreaState seattleState) {
+    ApplicantData applicantData = new ApplicantData();
+    applicantData.putString(path(nameQuestion).join(Scalar.FIRST_NAME), firstName);
+    applicantData.putLong(path(numberQuestion).join(Scalar.NUMBER), number);
+    applicantData.putLong(path(dropdownQuestion).join(Scalar.SELECTION), selection);
+    applicantData.putArray(path(checkboxQuestion).join(Scalar.SELECTIONS), selections);
+    applicantData.putDate(path(dateQuestion).join(Scalar.DATE), date);
+    applicantData.putServiceAreaInclusionEntities(
+        path(addressQuestion).join(Scalar.SERVICE_AREAS).asArrayElement(),
+        ImmutableList.of(
+            ServiceAreaInclusion.builder()
+                .setServiceAreaId("king-county")
+                .setState(ServiceAreaState.IN_AREA)
+                .setTimeStamp(1234)
+                .build(),
+            ServiceAreaInclusion.builder()
+                .setServiceAreaId("seattle")
+                .setState(seattleState)
+                .setTimeStamp(5678)
+                .build()));
+    return applicantData;
+  }
+
+  private ApplicantData unansweredScalars() {
+    ApplicantData applicantData = new ApplicantData();
+    applicantData.putNull(path(nameQuestion).join(Scalar.FIRST_NAME));
+    applicantData.putNull(path(numberQuestion).join(Scalar.NUMBER));
+    applicantData.putLong(path(dropdownQuestion).join(Scalar.UPDATED_AT), 1234L);
+    applicantData.putNull(path(dateQuestion).join(Scalar.DATE));
+    applicantData.putArray(path(checkboxQuestion).join(Scalar.SELECTIONS), ImmutableList.of());
+    return applicantData;
+  }
+
+  private static Path path(QuestionDefinition question) {
+    return question.getContextualizedPath(Optional.empty(), ApplicantData.APPLICANT_PATH);
+  }
+
+  private static PredicateExpressionNode leaf(
+      QuestionDefinition question, Scalar scalar, Operator operator, PredicateValue value) {
+    return PredicateExpressionNode.create(
+        LeafOperationExpressionNode.create(question.getId(), scalar, operator, value));
+  }
+
+  private PredicateExpressionNode serviceArea(String serviceAreaId, Operator operator) {
+    return PredicateExpressionNode.create(
+        LeafAddressServiceAreaExpressionNode.create(
+            addressQuestion.getId(), serviceAreaId, operator));
+  }
+}
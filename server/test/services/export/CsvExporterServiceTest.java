@@ -1,6 +1,11 @@
 package services.export;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
 import static play.api.test.Helpers.testServerPort;
 
 import com.google.common.collect.ImmutableList;
@@ -11,6 +16,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 import models.AccountModel;
 import models.ApplicantModel;
@@ -21,8 +27,11 @@ import models.QuestionTag;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.pekko.util.ByteString;
 import org.junit.Before;
 import org.junit.Test;
+import repository.DatabaseExecutionContext;
+import repository.ExportServiceRepository;
 import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
 import repository.VersionRepository;
@@ -33,6 +42,7 @@ import services.application.ApplicationEventDetails.StatusEvent;
 import services.geo.CorrectedAddressState;
 import services.geo.ServiceAreaInclusion;
 import services.geo.ServiceAreaState;
+import services.pagination.PaginationResult;
 import services.program.ProgramService;
 import services.question.QuestionOption;
 import services.question.QuestionService;
@@ -84,7 +94,9 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
             instanceOf(ApplicantService.class),
             ConfigFactory.parseMap(ImmutableMap.of("play.http.secret.key", SECRET_SALT)),
             instanceOf(DateConverter.class),
-            instanceOf(CsvColumnFactory.class));
+            instanceOf(CsvColumnFactory.class),
+            instanceOf(DatabaseExecutionContext.class),
+            instanceOf(ExportServiceRepository.class));
   }
 
   @Test
@@ -321,8 +333,7 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
 
     CSVParser parser =
         CSVParser.parse(
-            exporterService.getProgramAllVersionsCsv(
-                fakeProgram.id, SubmittedApplicationFilter.EMPTY),
+            getProgramAllVersionsCsv(fakeProgram.id, SubmittedApplicationFilter.EMPTY),
             DEFAULT_FORMAT);
 
     assertThat(parser.getRecords()).hasSize(0);
@@ -380,8 +391,7 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
 
     CSVParser parser =
         CSVParser.parse(
-            exporterService.getProgramAllVersionsCsv(
-                fakeProgram.id, SubmittedApplicationFilter.EMPTY),
+            getProgramAllVersionsCsv(fakeProgram.id, SubmittedApplicationFilter.EMPTY),
             DEFAULT_FORMAT);
 
     assertThat(parser.getRecords()).hasSize(1);
@@ -617,6 +627,38 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
     assertThat(records.get(2).get("Application ID")).isEqualTo(appC.id.toString());
   }
 
+  @Test
+  public void streamProgramAllVersionsCsv_pageFails_failsStream() {
+    ProgramModel fakeProgram = FakeProgramBuilder.newActiveProgram().build();
+    ApplicationModel application =
+        FakeApplicationFiller.newFillerFor(fakeProgram).submit().getApplication();
+    ProgramService programService = spy(instanceOf(ProgramService.class));
+    doReturn(new PaginationResult<>(true, 2, ImmutableList.of(application)))
+        .doThrow(new RuntimeException("page failed"))
+        .when(programService)
+        .getSubmittedProgramApplicationsAllVersionsWithoutCount(anyLong(), any(), any());
+    CsvExporterService exporterWithFailingPage =
+        new CsvExporterService(
+            programService,
+            instanceOf(QuestionService.class),
+            instanceOf(ApplicantService.class),
+            ConfigFactory.parseMap(ImmutableMap.of("play.http.secret.key", SECRET_SALT)),
+            instanceOf(DateConverter.class),
+            instanceOf(CsvColumnFactory.class),
+            instanceOf(DatabaseExecutionContext.class),
+            instanceOf(ExportServiceRepository.class));
+
+    assertThatThrownBy(
+            () ->
+                exporterWithFailingPage
+                    .streamProgramAllVersionsCsv(fakeProgram.id, SubmittedApplicationFilter.EMPTY)
+                    .runFold(ByteString.emptyByteString(), ByteString::concat, mat)
+                    .toCompletableFuture()
+                    .join())
+        .isInstanceOf(CompletionException.class)
+        .hasRootCauseMessage("page failed");
+  }
+
   @Test
   public void getDemographicsCsv_recordsExportedInAscendingIdOrder() throws Exception {
     ProgramModel fakeProgram = FakeProgramBuilder.newActiveProgram().build();
@@ -2105,10 +2147,20 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
         .toString();
   }
 
+  private String getProgramAllVersionsCsv(long programId, SubmittedApplicationFilter filters)
+      throws Exception {
+    return exporterService
+        .streamProgramAllVersionsCsv(programId, filters)
+        .runFold(ByteString.emptyByteString(), ByteString::concat, mat)
+        .toCompletableFuture()
+        .join()
+        .utf8String();
+  }
+
   private ImmutableList<CSVRecord> getParsedRecords(long programId) throws Exception {
     CSVParser parser =
         CSVParser.parse(
-            exporterService.getProgramAllVersionsCsv(programId, SubmittedApplicationFilter.EMPTY),
+            getProgramAllVersionsCsv(programId, SubmittedApplicationFilter.EMPTY),
             DEFAULT_FORMAT);
     return ImmutableList.copyOf(parser.getRecords());
   }
@@ -0,0 +1,57 @@
+package services.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.Test;
+import services.CfJsonDocumentContext;
+import services.Path;
+
+public class JsonExportPlanTest {
+
+  private static final String TEMPLATE =
+      "{\"application\":{\"name\":{\"first_name\":null,\"last_name\":null},"
+          + "\"household\":{\"entities\":[]},\"colors\":{\"selections\":[]}}}";
+
+  @Test
+  public void write_noAnswers_writesTemplateAndMetadata() throws IOException {
+    CfJsonDocumentContext application = new CfJsonDocumentContext();
+    application.putLong(Path.create("application_id"), 1L);
+
+    assertThat(write(application))
+        .isEqualTo(
+            "{\"application\":{\"name\":{\"first_name\":null,\"last_name\":null},"
+                + "\"household\":{\"entities\":[]},\"colors\":{\"selections\":[]}},"
+                + "\"application_id\":1}");
+  }
+
+  @Test
+  public void write_matchesPuttingAnswersIntoCopyOfTemplate() throws IOException {
+    CfJsonDocumentContext application = new CfJsonDocumentContext();
+    CfJsonDocumentContext expected = new CfJsonDocumentContext(TEMPLATE);
+    for (CfJsonDocumentContext document : ImmutableList.of(application, expected)) {
+      document.putLong(Path.create("application_id"), 1L);
+      document.putString(Path.create("application.name.last_name"), "Last");
+      document.putString(Path.create("application.household.entities[0].entity_name"), "Kid");
+      document.putArray(Path.create("application.colors.selections"), ImmutableList.of("red"));
+      document.putString(Path.create("application.new_question.text"), "answer");
+    }
+
+    assertThat(write(application)).isEqualTo(expected.asJsonString());
+  }
+
+  private static String write(CfJsonDocumentContext application) throws IOException {
+    JsonExportPlan exportPlan =
+        new JsonExportPlan(ImmutableMap.of(), new CfJsonDocumentContext(TEMPLATE));
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator jsonGenerator = new ObjectMapper().createGenerator(writer)) {
+      exportPlan.write(jsonGenerator, application);
+    }
+    return writer.toString();
+  }
+}
@@ -1,15 +1,19 @@
 package services.export;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static play.api.test.Helpers.testServerPort;
 
 import com.google.common.collect.ImmutableList;
 import java.time.Instant;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 import models.ApplicantModel;
+import models.ApplicationModel;
 import models.LifecycleStage;
 import models.ProgramModel;
+import org.apache.pekko.util.ByteString;
 import org.junit.Test;
 import repository.ProgramRepository;
 import repository.SubmittedApplicationFilter;
@@ -22,6 +26,7 @@ import services.application.ApplicationEventDetails.StatusEvent;
 import services.geo.CorrectedAddressState;
 import services.geo.ServiceAreaInclusion;
 import services.geo.ServiceAreaState;
+import services.pagination.PaginationResult;
 import services.pagination.SubmitTimeSequentialAccessPaginationSpec;
 import services.program.IllegalPredicateOrderingException;
 import services.program.ProgramDefinition;
@@ -66,6 +71,100 @@ public class JsonExporterServiceTest extends AbstractExporterTest {
     resultAsserter.assertValueAtPath(2, "application_id", firstApplication.id);
   }
 
+  @Test
+  public void streamPage_matchesExportPage() {
+    var fakeProgram = FakeProgramBuilder.newActiveProgram("fake-program").build();
+    FakeApplicationFiller.newFillerFor(fakeProgram).submit();
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .byTrustedIntermediary("ti@trusted_intermediaries.org", "TIs Inc.")
+        .submit();
+
+    JsonExporterService exporter = instanceOf(JsonExporterService.class);
+    ProgramDefinition programDefinition = fakeProgram.getProgramDefinition();
+    PaginationResult<ApplicationModel> paginationResult =
+        instanceOf(ProgramService.class)
+            .getSubmittedProgramApplicationsAllVersions(
+                programDefinition.id(),
+                SubmitTimeSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+                SubmittedApplicationFilter.EMPTY);
+
+    String streamedJson =
+        exporter
+            .streamPage(programDefinition, paginationResult)
+            .runFold(ByteString.emptyByteString(), ByteString::concat, mat)
+            .toCompletableFuture()
+            .join()
+            .utf8String();
+
+    assertThat(streamedJson).isEqualTo(exporter.exportPage(programDefinition, paginationResult));
+    assertThat(new ResultAsserter(streamedJson).resultJson.readString(Path.create("$[0].ti_email")))
+        .contains("ti@trusted_intermediaries.org");
+  }
+
+  @Test
+  public void streamPage_noApplications_isEmptyArray() {
+    var fakeProgram = FakeProgramBuilder.newActiveProgram("fake-program").build();
+
+    JsonExporterService exporter = instanceOf(JsonExporterService.class);
+    ProgramDefinition programDefinition = fakeProgram.getProgramDefinition();
+    PaginationResult<ApplicationModel> paginationResult =
+        instanceOf(ProgramService.class)
+            .getSubmittedProgramApplicationsAllVersions(
+                programDefinition.id(),
+                SubmitTimeSequentialAccessPaginationSpec.APPLICATION_MODEL_MAX_PAGE_SIZE_SPEC,
+                SubmittedApplicationFilter.EMPTY);
+
+    String streamedJson =
+        exporter
+            .streamPage(programDefinition, paginationResult)
+            .runFold(ByteString.emptyByteString(), ByteString::concat, mat)
+            .toCompletableFuture()
+            .join()
+            .utf8String();
+
+    assertThat(streamedJson).isEqualTo("[]");
+  }
+
+  @Test
+  public void streamPage_firstApplicationFails_throwsBeforeStreaming() {
+    var fakeProgram = FakeProgramBuilder.newActiveProgram("fake-program").build();
+    var otherProgram = FakeProgramBuilder.newActiveProgram("other-program").build();
+    // The export plan only covers the versions of fakeProgram, so this can't be exported.
+    var otherApplication =
+        FakeApplicationFiller.newFillerFor(otherProgram).submit().getApplication();
+
+    JsonExporterService exporter = instanceOf(JsonExporterService.class);
+    PaginationResult<ApplicationModel> paginationResult =
+        new PaginationResult<>(false, 1, ImmutableList.of(otherApplication));
+
+    assertThatThrownBy(
+            () -> exporter.streamPage(fakeProgram.getProgramDefinition(), paginationResult))
+        .isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  public void streamPage_laterApplicationFails_failsStream() {
+    var fakeProgram = FakeProgramBuilder.newActiveProgram("fake-program").build();
+    var otherProgram = FakeProgramBuilder.newActiveProgram("other-program").build();
+    var application = FakeApplicationFiller.newFillerFor(fakeProgram).submit().getApplication();
+    var otherApplication =
+        FakeApplicationFiller.newFillerFor(otherProgram).submit().getApplication();
+
+    JsonExporterService exporter = instanceOf(JsonExporterService.class);
+    PaginationResult<ApplicationModel> paginationResult =
+        new PaginationResult<>(false, 1, ImmutableList.of(application, otherApplication));
+
+    assertThatThrownBy(
+            () ->
+                exporter
+                    .streamPage(fakeProgram.getProgramDefinition(), paginationResult)
+                    .runFold(ByteString.emptyByteString(), ByteString::concat, mat)
+                    .toCompletableFuture()
+                    .join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(NullPointerException.class);
+  }
+
   @Test
   public void export_testApplicationTopLevelFields() {
     // Times are expected to be exported in instance local time, so we choose
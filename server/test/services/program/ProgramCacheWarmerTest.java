@@ -0,0 +1,91 @@
+package services.program;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableSet;
+import models.ProgramModel;
+import org.junit.Test;
+import repository.DatabaseExecutionContext;
+import repository.ProgramRepository;
+import repository.ResetPostgres;
+import repository.VersionRepository;
+import services.settings.SettingsManifest;
+import support.ProgramBuilder;
+
+public class ProgramCacheWarmerTest extends ResetPostgres {
+
+  @Test
+  public void warm_loadsActiveFullProgramDefinitionsIntoCache() {
+    ProgramModel activeProgram =
+        ProgramBuilder.newActiveProgram("active")
+            .withBlock()
+            .withRequiredQuestion(testQuestionBank.nameApplicantName())
+            .build();
+    ProgramModel draftProgram = ProgramBuilder.newDraftProgram("draft").build();
+    ProgramRepository programRepository = instanceOf(ProgramRepository.class);
+
+    newWarmer(/* questionCacheEnabled= */ true).warm();
+
+    assertThat(programRepository.getFullProgramDefinitionFromCache(activeProgram.id))
+        .hasValueSatisfying(
+            programDefinition ->
+                assertThat(programDefinition.getQuestionIdsInProgram())
+                    .containsExactly(testQuestionBank.nameApplicantName().id));
+    assertThat(programRepository.getFullProgramDefinitionFromCache(draftProgram.id)).isEmpty();
+  }
+
+  @Test
+  public void warm_questionCacheDisabled_doesNotLoadFullProgramDefinitions() {
+    ProgramModel activeProgram =
+        ProgramBuilder.newActiveProgram("active")
+            .withBlock()
+            .withRequiredQuestion(testQuestionBank.nameApplicantName())
+            .build();
+
+    newWarmer(/* questionCacheEnabled= */ false).warm();
+
+    assertThat(
+            instanceOf(ProgramRepository.class)
+                .getFullProgramDefinitionFromCache(activeProgram.id))
+        .isEmpty();
+  }
+
+  @Test
+  public void warm_snapshotsActiveProgramsWithoutQuestionSnapshot() throws Exception {
+    ProgramModel activeProgram =
+        ProgramBuilder.newActiveProgram("active")
+            .withBlock()
+            .withRequiredQuestion(testQuestionBank.nameApplicantName())
+            .build();
+    ProgramRepository programRepository = instanceOf(ProgramRepository.class);
+    ImmutableSet<Long> programIds = ImmutableSet.of(activeProgram.id);
+    // Reading the program doesn't take a snapshot of its questions.
+    instanceOf(ProgramService.class).getFullProgramDefinition(activeProgram.id);
+    assertThat(programRepository.getProgramIdsWithoutQuestionSnapshot(programIds))
+        .containsExactly(activeProgram.id);
+
+    instanceOf(ProgramCacheWarmer.class).warm();
+
+    assertThat(programRepository.getProgramIdsWithoutQuestionSnapshot(programIds))
+        .isEmpty();
+    assertThat(programRepository.getFullProgramDefinitionFromSnapshot(activeProgram))
+        .hasValueSatisfying(
+            programDefinition ->
+                assertThat(programDefinition.getQuestionIdsInProgram())
+                    .containsExactly(testQuestionBank.nameApplicantName().id));
+  }
+
+  /** Returns a warmer that sees the program cache as enabled. */
+  private ProgramCacheWarmer newWarmer(boolean questionCacheEnabled) {
+    SettingsManifest settingsManifest = mock(SettingsManifest.class);
+    when(settingsManifest.getProgramCacheEnabled()).thenReturn(true);
+    when(settingsManifest.getQuestionCacheEnabled()).thenReturn(questionCacheEnabled);
+    return new ProgramCacheWarmer(
+        instanceOf(VersionRepository.class),
+        instanceOf(ProgramService.class),
+        settingsManifest,
+        instanceOf(DatabaseExecutionContext.class));
+  }
+}
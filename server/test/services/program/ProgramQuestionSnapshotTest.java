@@ -0,0 +1,56 @@
+package services.program;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import repository.ResetPostgres;
+import services.question.types.QuestionDefinition;
+import support.ProgramBuilder;
+
+public class ProgramQuestionSnapshotTest extends ResetPostgres {
+
+  @Test
+  public void load_returnsQuestionsFromSnapshot() {
+    ProgramDefinition programDefinition =
+        ProgramBuilder.newActiveProgram("program")
+            .withBlock()
+            .withRequiredQuestion(testQuestionBank.nameApplicantName())
+            .withRequiredQuestion(testQuestionBank.dropdownApplicantIceCream())
+            .withBlock()
+            .withRequiredQuestion(testQuestionBank.enumeratorApplicantHouseholdMembers())
+            .buildDefinition();
+
+    String snapshot = ProgramQuestionSnapshot.create(programDefinition).orElseThrow();
+    ProgramDefinition loaded =
+        ProgramQuestionSnapshot.load(programDefinition, snapshot).orElseThrow();
+
+    assertThat(loaded.getQuestionIdsInProgram())
+        .containsExactlyElementsOf(programDefinition.getQuestionIdsInProgram());
+    assertThat(loaded.streamQuestionDefinitions())
+        .containsExactlyElementsOf(programDefinition.streamQuestionDefinitions().toList());
+    QuestionDefinition dropdown =
+        programDefinition.blockDefinitions().get(0).getQuestionDefinition(1);
+    QuestionDefinition loadedDropdown = loaded.blockDefinitions().get(0).getQuestionDefinition(1);
+    assertThat(loadedDropdown.getLastModifiedTime()).isEqualTo(dropdown.getLastModifiedTime());
+  }
+
+  @Test
+  public void create_missingQuestion_returnsEmpty() {
+    ProgramDefinition programDefinition =
+        ProgramBuilder.newActiveProgram("program")
+            .withBlock()
+            .withRequiredQuestion(testQuestionBank.nameApplicantName())
+            .buildDefinition();
+
+    assertThat(ProgramQuestionSnapshot.create(programDefinition, ImmutableMap.of())).isEmpty();
+  }
+
+  @Test
+  public void load_invalidSnapshot_returnsEmpty() {
+    ProgramDefinition programDefinition =
+        ProgramBuilder.newActiveProgram("program").withBlock().buildDefinition();
+
+    assertThat(ProgramQuestionSnapshot.load(programDefinition, "not json")).isEmpty();
+  }
+}
@@ -44,7 +44,7 @@ public class ReportingServiceTest extends ResetPostgres {
 
   @Test
   public void getMonthlyStats_csvViewsOfStats() throws IOException {
-    insertFakeApplicationsAndRefreshDatabaseView();
+    insertFakeApplications();
 
     var parser =
         CSVParser.parse(
@@ -61,9 +61,9 @@ public class ReportingServiceTest extends ResetPostgres {
 
     List<CSVRecord> records = parser.getRecords();
     assertThat(records.get(0).toList())
-        .containsExactly("01/2021", "4", "00:05:25", "00:06:40", "00:07:55", "00:09:07");
+        .containsExactly("01/2021", "4", "00:01:15", "00:05:01", "00:10:26", "00:16:21");
     assertThat(records.get(1).toList())
-        .containsExactly("12/2020", "4", "00:05:25", "00:06:40", "00:07:55", "00:09:07");
+        .containsExactly("12/2020", "4", "00:01:15", "00:05:01", "00:10:26", "00:16:21");
     assertThat(records.size()).isEqualTo(2);
 
     parser =
@@ -81,9 +81,9 @@ public class ReportingServiceTest extends ResetPostgres {
 
     records = parser.getRecords();
     assertThat(records.get(0).toList())
-        .containsExactly("Fake Program B", "4", "00:05:25", "00:06:40", "00:07:55", "00:09:07");
+        .containsExactly("Fake Program B", "4", "00:01:15", "00:05:01", "00:10:26", "00:16:21");
     assertThat(records.get(1).toList())
-        .containsExactly("Fake Program A", "4", "00:05:25", "00:06:40", "00:07:55", "00:09:07");
+        .containsExactly("Fake Program A", "4", "00:01:15", "00:05:01", "00:10:26", "00:16:21");
     assertThat(records.size()).isEqualTo(2);
 
     parser =
@@ -103,11 +103,11 @@ public class ReportingServiceTest extends ResetPostgres {
     assertThat(records.get(0).toList())
         .containsExactly("01/2021", "2", "00:00:25", "00:00:50", "00:01:15", "00:01:39");
     assertThat(records.get(1).toList())
-        .containsExactly("12/2020", "2", "00:10:25", "00:12:30", "00:14:35", "00:16:35");
+        .containsExactly("12/2020", "2", "00:10:26", "00:12:29", "00:14:32", "00:16:31");
     assertThat(records.size()).isEqualTo(2);
   }
 
-  private void insertFakeApplicationsAndRefreshDatabaseView() {
+  private void insertFakeApplications() {
     Instant lastMonth = testClock.instant().minus(30, ChronoUnit.DAYS);
     Instant today = testClock.instant();
 
@@ -132,8 +132,6 @@ public class ReportingServiceTest extends ResetPostgres {
             applicationSpec ->
                 createFakeApplication(
                     programB, applicationSpec.getLeft(), applicationSpec.getRight()));
-
-    instanceOf(ReportingRepository.class).refreshMonthlyReportingView();
   }
 
   private ApplicationModel createFakeApplication(
@@ -147,6 +145,7 @@ public class ReportingServiceTest extends ResetPostgres {
     application.setCreateTimeForTest(createTime);
     application.setSubmitTimeForTest(submitTime);
     application.save();
+    instanceOf(ReportingRepository.class).recordSubmission(application);
 
     return application;
   }
@@ -125,4 +125,30 @@ public class SettingsManifestTest {
   public void getBool_noAttrsInRequest_returnsHoconValue() {
     assertThat(testManifest.getBool("BOOL_VARIABLE", fakeRequest())).isFalse();
   }
+
+  @Test
+  public void getBool_requestsWithDifferentSettings_returnEachRequestsValue() {
+    Http.Request falseRequest =
+        fakeRequest()
+            .withAttrs(
+                TypedMap.empty()
+                    .put(
+                        CIVIFORM_SETTINGS_ATTRIBUTE_KEY,
+                        ImmutableMap.of("BOOL_VARIABLE", "false")));
+
+    assertThat(testManifest.getBool("BOOL_VARIABLE", REQUEST)).isTrue();
+    assertThat(testManifest.getBool("BOOL_VARIABLE", falseRequest)).isFalse();
+    assertThat(testManifest.getBool("BOOL_VARIABLE", REQUEST)).isTrue();
+  }
+
+  @Test
+  public void getString_settingNotInManifest_fallsBackToRequestSettings() {
+    Http.Request request =
+        fakeRequest()
+            .withAttrs(
+                TypedMap.empty()
+                    .put(CIVIFORM_SETTINGS_ATTRIBUTE_KEY, ImmutableMap.of("OTHER", "value")));
+
+    assertThat(testManifest.getString("OTHER", request)).isEqualTo(Optional.of("value"));
+  }
 }
@@ -18,6 +18,7 @@ import models.SettingsGroupModel;
 import org.junit.Before;
 import org.junit.Test;
 import play.mvc.Http;
+import repository.CacheInvalidationBus;
 import repository.ResetPostgres;
 import repository.SettingsGroupRepository;
 
@@ -25,6 +26,7 @@ public class SettingsServiceTest extends ResetPostgres {
 
   public static final String TEST_AUTHORITY_ID = "test-id";
   private SettingsService settingsService;
+  private SettingsSnapshotHolder settingsSnapshotHolder;
   private static ImmutableMap<String, String> TEST_SETTINGS =
       ImmutableMap.of(
           "TEST_BOOL",
@@ -128,7 +130,10 @@ public class SettingsServiceTest extends ResetPostgres {
     when(testProfile.getAuthorityId())
         .thenReturn(CompletableFuture.completedFuture(TEST_AUTHORITY_ID));
 
-    settingsService = new SettingsService(instanceOf(SettingsGroupRepository.class), testManifest);
+    settingsSnapshotHolder = new SettingsSnapshotHolder(instanceOf(CacheInvalidationBus.class));
+    settingsService =
+        new SettingsService(
+            instanceOf(SettingsGroupRepository.class), testManifest, settingsSnapshotHolder);
   }
 
   @Test
@@ -140,6 +145,37 @@ public class SettingsServiceTest extends ResetPostgres {
     assertThat(result).isEqualTo(TEST_SETTINGS);
   }
 
+  @Test
+  public void loadSettings_holdsTheSettingsUntilInvalidated() {
+    createTestSettings();
+    assertThat(settingsService.loadSettings().toCompletableFuture().join().get())
+        .isEqualTo(TEST_SETTINGS);
+
+    // Saved without publishing an update, so the held settings are still returned.
+    ImmutableMap<String, String> newSettings =
+        ImmutableMap.<String, String>builder()
+            .putAll(TEST_SETTINGS)
+            .put("TEST_BOOL_READABLE", "true")
+            .build();
+    createSettings(newSettings);
+    assertThat(settingsService.loadSettings().toCompletableFuture().join().get())
+        .isEqualTo(TEST_SETTINGS);
+
+    settingsSnapshotHolder.invalidate();
+    assertThat(settingsService.loadSettings().toCompletableFuture().join().get())
+        .isEqualTo(newSettings);
+  }
+
+  @Test
+  public void updateSettings_replacesTheHeldSettings() {
+    settingsService.loadSettings().toCompletableFuture().join();
+
+    assertThat(settingsService.updateSettings(TEST_SETTINGS, testProfile).updated()).isTrue();
+
+    assertThat(settingsService.loadSettings().toCompletableFuture().join().get())
+        .isEqualTo(TEST_SETTINGS);
+  }
+
   @Test
   public void applySettingsToRequest_addsTheSettingsToTheRequestAttributes() {
     createTestSettings();
@@ -239,6 +275,10 @@ public class SettingsServiceTest extends ResetPostgres {
   }
 
   private void createTestSettings() {
+    createSettings(TEST_SETTINGS);
+  }
+
+  private void createSettings(ImmutableMap<String, String> settings) {
     // Since ResetPostres#resetTables create a settings group as well, if this
     // is created too fast it can attempt to create two settings group with the
     // same timestamp. Delaying by a millisecond prevents that.
@@ -248,6 +288,6 @@ public class SettingsServiceTest extends ResetPostgres {
       throw new RuntimeException(e);
     }
 
-    new SettingsGroupModel(TEST_SETTINGS, "test").save();
+    new SettingsGroupModel(settings, "test").save();
   }
 }
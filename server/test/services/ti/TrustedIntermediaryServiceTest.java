@@ -347,7 +347,7 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of("2022"))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 10, /* page= */ 1);
     assertThat(tiResult.accounts().size()).isEqualTo(1);
     assertThat(tiResult.accounts().get(0).getEmailAddress()).isEqualTo("email3");
   }
@@ -360,11 +360,40 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
     SearchParameters searchParameters =
         SearchParameters.builder().setNameQuery(Optional.of("Emily")).build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 10, /* page= */ 1);
     assertThat(tiResult.accounts().size()).isEqualTo(1);
     assertThat(tiResult.accounts().get(0).getEmailAddress()).isEqualTo("email20");
   }
 
+  @Test
+  public void getManagedAccounts_SearchByName_matchesDisplayNameIgnoringCase() {
+    setupTiClientAccountWithApplicant("Emily", "2022-07-08", "email20", tiGroup);
+    // Without an applicant, the account is shown and searched by its email address.
+    setupTiClientAccount("nameless@client.test", tiGroup);
+
+    TrustedIntermediarySearchResult byApplicantName =
+        service.getManagedAccounts(
+            SearchParameters.builder().setNameQuery(Optional.of("last, EMILY")).build(),
+            tiGroup,
+            /* pageSize= */ 10,
+            /* page= */ 1);
+    TrustedIntermediarySearchResult byAccountEmail =
+        service.getManagedAccounts(
+            SearchParameters.builder().setNameQuery(Optional.of("NAMELESS@")).build(),
+            tiGroup,
+            /* pageSize= */ 10,
+            /* page= */ 1);
+
+    assertThat(byApplicantName.totalCount()).isEqualTo(1);
+    assertThat(byApplicantName.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("email20");
+    assertThat(byAccountEmail.totalCount()).isEqualTo(1);
+    assertThat(byAccountEmail.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("nameless@client.test");
+  }
+
   @Test
   public void getManagedAccounts_SearchWithEmptyStringNameAndDob_returnsFullList() {
     setupTiClientAccountWithApplicant("Bobo", "2022-07-08", "bobo@clown.test", tiGroup);
@@ -376,7 +405,7 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of(""))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 10, /* page= */ 1);
     // The size is 3 because two other accounts are added to the tiGroup in setup()
     assertThat(tiResult.accounts().size()).isEqualTo(3);
   }
@@ -392,7 +421,7 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.empty())
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 10, /* page= */ 1);
     // The size is 3 because two other accounts are added to the tiGroup in setup()
     assertThat(tiResult.accounts().size()).isEqualTo(3);
   }
@@ -410,7 +439,7 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of(""))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 10, /* page= */ 1);
     assertThat(tiResult.accounts().size()).isEqualTo(0);
   }
 
@@ -426,11 +455,39 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of(""))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 10, /* page= */ 1);
     assertThat(tiResult.accounts().size()).isEqualTo(1);
     assertThat(tiResult.accounts().get(0).getApplicantDisplayName()).contains("Bobo");
   }
 
+  @Test
+  public void getManagedAccounts_returnsRequestedPageSortedByName() {
+    setupTiClientAccountWithApplicant("Carol", "2019-11-11", "email40", tiGroup);
+    setupTiClientAccountWithApplicant("Alice", "2019-11-11", "email41", tiGroup);
+    setupTiClientAccountWithApplicant("Bob", "2019-11-11", "email42", tiGroup);
+    SearchParameters searchParameters =
+        SearchParameters.builder()
+            .setNameQuery(Optional.empty())
+            .setDayQuery(Optional.of("11"))
+            .setMonthQuery(Optional.of("11"))
+            .setYearQuery(Optional.of("2019"))
+            .build();
+
+    TrustedIntermediarySearchResult firstPage =
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 2, /* page= */ 1);
+    TrustedIntermediarySearchResult secondPage =
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 2, /* page= */ 2);
+
+    assertThat(firstPage.totalCount()).isEqualTo(3);
+    assertThat(firstPage.accounts())
+        .extracting(AccountModel::getApplicantDisplayName)
+        .containsExactly("Last, Alice", "Last, Bob");
+    assertThat(secondPage.totalCount()).isEqualTo(3);
+    assertThat(secondPage.accounts())
+        .extracting(AccountModel::getApplicantDisplayName)
+        .containsExactly("Last, Carol");
+  }
+
   @Test
   public void getManagedAccounts_ExpectUnformattedDobException() {
     setupTiClientAccountWithApplicant("First", "2022-07-08", "email11", tiGroup);
@@ -444,7 +501,7 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of("2"))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(searchParameters, tiGroup, /* pageSize= */ 10, /* page= */ 1);
     assertThat(tiResult.accounts().size()).isEqualTo(tiGroup.getManagedAccounts().size());
     assertThat(tiResult.errorMessage().get()).isEqualTo("Please enter a valid birth date.");
   }
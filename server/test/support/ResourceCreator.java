@@ -24,6 +24,7 @@ import models.TrustedIntermediaryGroupModel;
 import play.Environment;
 import play.Mode;
 import play.inject.Injector;
+import repository.ActiveVersionHolder;
 import services.LocalizedStrings;
 import services.apikey.ApiKeyService;
 import services.question.types.QuestionDefinition;
@@ -63,6 +64,7 @@ public class ResourceCreator {
 
   public void truncateTables() {
     Models.truncate(database);
+    injector.instanceOf(ActiveVersionHolder.class).invalidate();
   }
 
   public void publishNewSynchronizedVersion() {